@@ -35,7 +35,6 @@ import org.eclipse.nebula.widgets.nattable.NatTable;
 import org.eclipse.nebula.widgets.nattable.config.AbstractUiBindingConfiguration;
 import org.eclipse.nebula.widgets.nattable.config.CellConfigAttributes;
 import org.eclipse.nebula.widgets.nattable.config.DefaultNatTableStyleConfiguration;
-import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
 import org.eclipse.nebula.widgets.nattable.grid.GridRegion;
 import org.eclipse.nebula.widgets.nattable.grid.layer.config.DefaultRowStyleConfiguration;
 import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
@@ -99,6 +98,9 @@ public class ComponentDataTable implements IComponent {
     
     /**  View */
     private Control                 parent;
+    
+    /**  Data */
+    private DataTableHandleDataProvider provider;
 
     /**
      * Creates a new instance.
@@ -182,6 +184,7 @@ public class ComponentDataTable implements IComponent {
      * Redraws the component.
      */
     public void redraw() {
+        this.provider.reset();
         this.table.redraw();
     }
     
@@ -192,7 +195,8 @@ public class ComponentDataTable implements IComponent {
         this.table.setRedraw(false);
         this.context.getImages().clear();
         this.context.reset();
-        this.gridLayer = new DataTableGridLayerStack(new DataTableHandleDataProvider(context), table, context, parent);
+        this.provider = new DataTableHandleDataProvider(context);
+        this.gridLayer = new DataTableGridLayerStack(provider, table, context, parent);
         this.table.setLayer(gridLayer);
         this.table.refresh();
         this.gridLayer.getBodyLayer().getViewportLayer().recalculateScrollBars();
@@ -214,7 +218,8 @@ public class ComponentDataTable implements IComponent {
     public void setData(final DataHandle handle) {
         this.table.setRedraw(false);
         this.context.setHandle(handle);
-        this.gridLayer = new DataTableGridLayerStack(new DataTableHandleDataProvider(context), table, context, parent);
+        this.provider = new DataTableHandleDataProvider(context);
+        this.gridLayer = new DataTableGridLayerStack(provider, table, context, parent);
         this.table.setLayer(gridLayer);
         this.table.refresh();
         this.gridLayer.getBodyLayer().getViewportLayer().recalculateScrollBars();
@@ -339,7 +344,7 @@ public class ComponentDataTable implements IComponent {
      * @return
      */
     private NatTable createTable(final Composite parent) {
-        final IDataProvider provider = new DataTableHandleDataProvider(context);
+        provider = new DataTableHandleDataProvider(context);
         gridLayer = new DataTableGridLayerStack(provider, table, context, parent);
         final NatTable natTable = new NatTable(parent, gridLayer, false);
         final DataLayer bodyDataLayer = (DataLayer) gridLayer.getBodyDataLayer();
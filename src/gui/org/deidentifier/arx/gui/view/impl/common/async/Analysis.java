@@ -24,11 +24,31 @@ package org.deidentifier.arx.gui.view.impl.common.async;
  */
 public abstract class Analysis {
 
+    /**
+     * May return a key identifying the result of this analysis. Analyses with equal keys
+     * produce equal results, which will then be reused instead of being recomputed.
+     * Returns null by default, i.e. results are not reused.
+     *
+     * @return
+     */
+    public AnalysisKey getKey() {
+        return null;
+    }
+
     /**
      * May return a progress value in [0,100] or 0.
      */
     public abstract int getProgress();
     
+    /**
+     * Returns the result of this analysis after it has been run. Only needed if a key is provided.
+     *
+     * @return
+     */
+    public Object getResult() {
+        return null;
+    }
+    
     /**
      * Perform error handling.
      */
@@ -51,6 +71,16 @@ public abstract class Analysis {
      */
     public abstract void run() throws InterruptedException;
     
+    /**
+     * Restores a result that has been computed earlier. Called instead of run() if a
+     * result for the key of this analysis is available. Only needed if a key is provided.
+     *
+     * @param result
+     */
+    public void setResult(Object result) {
+        // Empty by default
+    }
+    
     /**
      * Called to stop the analysis.
      */
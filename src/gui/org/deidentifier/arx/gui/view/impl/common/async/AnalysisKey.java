@@ -0,0 +1,86 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.gui.view.impl.common.async;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.deidentifier.arx.DataHandle;
+
+/**
+ * A key identifying the result of an analysis. Consists of the identity and the version
+ * of the analyzed handle and of further parameters, which are compared by value. The
+ * transformation and the subset are implied by the handle, as output handles and views
+ * on subsets are distinct objects. The handle is only weakly referenced.
+ *
+ * @author Fabian Prasser
+ */
+public class AnalysisKey {
+
+    /** The handle */
+    private final WeakReference<DataHandle> handle;
+
+    /** The version of the handle */
+    private final int                       version;
+
+    /** Further parameters */
+    private final Object[]                  parameters;
+
+    /** Hash code */
+    private final int                       hashcode;
+
+    /**
+     * Creates a new instance
+     *
+     * @param handle
+     * @param parameters
+     */
+    public AnalysisKey(DataHandle handle, Object... parameters) {
+        this.handle = new WeakReference<DataHandle>(handle);
+        this.version = handle.getVersion();
+        this.parameters = parameters;
+        this.hashcode = 31 * (31 * System.identityHashCode(handle) + version) + Arrays.deepHashCode(parameters);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        AnalysisKey other = (AnalysisKey) obj;
+        DataHandle handle = this.handle.get();
+        return handle != null && handle == other.handle.get() &&
+               hashcode == other.hashcode &&
+               version == other.version &&
+               Arrays.deepEquals(parameters, other.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashcode;
+    }
+
+    /**
+     * Returns whether results for this key can be reused. This is not the case
+     * for orphaned handles, which are not versioned anymore.
+     *
+     * @return
+     */
+    boolean isValid() {
+        return version != -1;
+    }
+}
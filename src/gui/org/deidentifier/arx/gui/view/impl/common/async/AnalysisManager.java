@@ -17,11 +17,20 @@
 
 package org.deidentifier.arx.gui.view.impl.common.async;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import org.eclipse.swt.widgets.Display;
 
 
 /**
- * This class manages the execution of asynchronous analyses.
+ * This class manages the execution of asynchronous analyses. Analyses of all managers
+ * are executed by a bounded pool of worker threads. Results of analyses that provide
+ * a key are memoized and reused when an analysis with an equal key is started again.
  *
  * @author Fabian Prasser
  */
@@ -35,21 +44,32 @@ public class AnalysisManager {
     private class AnalysisWorker implements Runnable {
 
         /** Stop flag. */
-        private volatile boolean stopped = false;
+        private volatile boolean     stopped  = false;
+        
+        /** Started flag. */
+        private boolean              started  = false;
         
         /** Analysis to perform. */
-        private final Analysis analysis;
+        private final Analysis       analysis;
+        
+        /** Key of the analysis, if any. */
+        private final AnalysisKey    key;
         
         /** The thread. */
-        private Thread thread;
+        private Thread               thread;
+        
+        /** Signals termination. */
+        private final CountDownLatch finished = new CountDownLatch(1);
         
         /**
          * Creates a new instance.
          *
          * @param analysis
+         * @param key
          */
-        private AnalysisWorker(Analysis analysis){
+        private AnalysisWorker(Analysis analysis, AnalysisKey key){
             this.analysis = analysis;
+            this.key = key;
         }
         
         /**
@@ -60,15 +80,6 @@ public class AnalysisManager {
             return this.analysis.getProgress();
         }
         
-        /**
-         * Returns the thread.
-         *
-         * @return
-         */
-        public Thread getThread(){
-            return this.thread;
-        }
-        
         /**
          * Is this analysis stopped.
          *
@@ -80,6 +91,18 @@ public class AnalysisManager {
         
         @Override
         public void run() {
+            
+            // Check
+            synchronized (this) {
+                if (this.isStopped()) {
+                    onInterrupt();
+                    return;
+                }
+                this.started = true;
+                this.thread = Thread.currentThread();
+            }
+            
+            // Run
             try {
                 this.analysis.run();
                 synchronized(this){
@@ -87,6 +110,7 @@ public class AnalysisManager {
                         onInterrupt();
                     }
                     else {
+                        store(key, analysis.getResult());
                         onFinish(); 
                     }
                 }
@@ -94,6 +118,13 @@ public class AnalysisManager {
                 onInterrupt();
             } catch (Exception e){
                 onError();
+            } finally {
+                synchronized (this) {
+                    this.thread = null;
+                }
+                // Clear interrupt flag of pooled thread
+                Thread.interrupted();
+                this.finished.countDown();
             }
         }
         
@@ -101,18 +132,37 @@ public class AnalysisManager {
          * Starts this analysis.
          */
         public void start(){
-            this.thread = new Thread(this);
-            this.thread.setName("StatisticsBuilder"); //$NON-NLS-1$
-            this.thread.setDaemon(true);
-            this.thread.start();
+            POOL.execute(this);
         }
         
         /**
-         * Stops this analysis.
+         * Stops this analysis and waits for it to terminate.
          */
-        public synchronized void stop(){
-            this.stopped = true;
-            this.analysis.stop();
+        public void stop(){
+            
+            // Stop
+            boolean started;
+            synchronized (this) {
+                this.stopped = true;
+                this.analysis.stop();
+                started = this.started;
+                if (this.thread != null) {
+                    try {
+                        this.thread.interrupt();
+                    } catch (SecurityException e) {
+                        /* Ignore*/
+                    }
+                }
+            }
+            
+            // Wait
+            if (started) {
+                try {
+                    this.finished.await();
+                } catch (InterruptedException e) {
+                    /* Ignore*/
+                }
+            }
         }
         
         /**
@@ -149,11 +199,39 @@ public class AnalysisManager {
         }
     }
     
+    /** Maximal number of results memoized per manager. */
+    private static final int             CAPACITY = 16;
+
+    /** Number of worker threads. */
+    private static final int             THREADS  = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /** The pool of worker threads, shared by all managers. */
+    private static final ExecutorService POOL     = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable);
+            thread.setName("StatisticsBuilder"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     /** The current worker. */
-    private AnalysisWorker worker = null;
+    private AnalysisWorker               worker   = null;
     
-    /** The current worker. */
-    private Display display = null;
+    /** The display. */
+    private Display                      display  = null;
+
+    /** Memoized results, least recently used first. */
+    private final Map<AnalysisKey, Object> results = new LinkedHashMap<AnalysisKey, Object>(CAPACITY, 0.75f, true) {
+        /** SVUID */
+        private static final long serialVersionUID = -2878307327562212906L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<AnalysisKey, Object> eldest) {
+            return size() > CAPACITY;
+        }
+    };
 
     /**
      * Creates a new instance.
@@ -164,11 +242,21 @@ public class AnalysisManager {
         this.display = display;
     }
     
+    /**
+     * Discards all memoized results.
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+    
     /**
      * Returns the progress, if any
      * @return
      */
     public int getProgress() {
+        AnalysisWorker worker = this.worker;
         if (worker != null) {
             return worker.getProgress();
         } else {
@@ -186,17 +274,39 @@ public class AnalysisManager {
     
     /**
      * Start a new analysis. Analyses already executing
-     * will be canceled.
+     * will be canceled. If a result for the key of the
+     * analysis is available, it will be reused.
      *  
      * @param analysis
      */
-    public synchronized void start(Analysis analysis) {
+    public synchronized void start(final Analysis analysis) {
         
         // Stop
         stop();
         
+        // Reuse result
+        AnalysisKey key = analysis.getKey();
+        if (key != null && !key.isValid()) {
+            key = null;
+        }
+        if (key != null) {
+            Object result;
+            synchronized (results) {
+                result = results.get(key);
+            }
+            if (result != null) {
+                analysis.setResult(result);
+                display.asyncExec(new Runnable(){
+                    public void run(){
+                        analysis.onFinish();
+                    }
+                });
+                return;
+            }
+        }
+        
         // Start new work
-        worker = new AnalysisWorker(analysis);
+        worker = new AnalysisWorker(analysis, key);
         worker.start();
     }
 
@@ -208,19 +318,20 @@ public class AnalysisManager {
         // Stop old work
         if (worker != null && !worker.isStopped()) {
             worker.stop();
-            try {
-                try {
-                    worker.getThread().interrupt();
-                } catch (SecurityException e) {
-                    /* Ignore*/
-                }
-                if (worker.getThread().isAlive()) {
-                    worker.getThread().join();
-                }
-            } catch (InterruptedException e) {
-                /* Ignore*/
-            }
             worker = null;
         }
     }
+
+    /**
+     * Memoizes a result
+     * @param key
+     * @param result
+     */
+    private void store(AnalysisKey key, Object result) {
+        if (key != null && result != null) {
+            synchronized (results) {
+                results.put(key, result);
+            }
+        }
+    }
 }
@@ -17,21 +17,93 @@
 
 package org.deidentifier.arx.gui.view.impl.common.datatable;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataHandleSubset;
 import org.deidentifier.arx.RowSet;
 import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
 
 /**
- * A data provider based on a data handle.
+ * A data provider based on a data handle. Values are fetched in windows of rows,
+ * and the window next to the one currently displayed is prefetched in the background.
  *
  * @author Fabian Prasser
  */
 public class DataTableHandleDataProvider implements IDataProvider {
 
+    /**
+     * A window of rows
+     *
+     * @author Fabian Prasser
+     */
+    private static class Window {
+
+        /** Handle */
+        private final DataHandle handle;
+        /** First row */
+        private final int        offset;
+        /** Values */
+        private final String[][] values;
+
+        /**
+         * Loads the window
+         * @param handle
+         * @param offset
+         */
+        private Window(DataHandle handle, int offset) {
+            this.handle = handle;
+            this.offset = offset;
+            int rows = Math.min(WINDOW_SIZE, handle.getNumRows() - offset);
+            int columns = handle.getNumColumns();
+            this.values = new String[rows][columns];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    values[row][column] = handle.getValue(offset + row, column);
+                }
+            }
+        }
+
+        /**
+         * Returns whether the window contains the given row of the given handle
+         * @param handle
+         * @param row
+         * @return
+         */
+        private boolean contains(DataHandle handle, int row) {
+            return this.handle == handle && row >= offset && row < offset + values.length;
+        }
+    }
+
+    /** Number of rows per window */
+    private static final int             WINDOW_SIZE = 256;
+
+    /** Thread for prefetching windows */
+    private static final ExecutorService PREFETCHER  = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                                                         @Override
+                                                         public Thread newThread(Runnable runnable) {
+                                                             Thread thread = new Thread(runnable);
+                                                             thread.setDaemon(true);
+                                                             return thread;
+                                                         }
+                                                     });
+
     /**  TODO */
     private final DataTableContext context;
 
+    /** Window currently displayed */
+    private Window                 window;
+
+    /** Window being prefetched */
+    private Future<Window>         prefetched;
+
+    /** First row of the window being prefetched */
+    private int                    prefetchedOffset = -1;
+
     /**
      * Creates a new instance.
      *
@@ -54,7 +126,7 @@ public class DataTableHandleDataProvider implements IDataProvider {
         if (data == null) { return null; }
         RowSet rows = context.getRows();
         if (rows == null) {
-            return data.getValue(arg1, arg0);
+            return getValue(data, arg1, arg0);
         } else if (arg0 == 0) {
             // Remap row index for subset if in subset view
             if (data instanceof DataHandleSubset){
@@ -63,7 +135,7 @@ public class DataTableHandleDataProvider implements IDataProvider {
             }
             return rows.contains(arg1);
         } else {
-            return data.getValue(arg1, arg0 - 1);
+            return getValue(data, arg1, arg0 - 1);
         }
     }
 
@@ -74,8 +146,73 @@ public class DataTableHandleDataProvider implements IDataProvider {
         return data.getNumRows();
     }
 
+    /**
+     * Discards all values fetched so far, e.g. after the data has been modified.
+     */
+    public void reset() {
+        if (prefetched != null) {
+            prefetched.cancel(false);
+        }
+        window = null;
+        prefetched = null;
+        prefetchedOffset = -1;
+    }
+
     @Override
     public void setDataValue(final int arg0, final int arg1, final Object arg2) {
         return;
     }
+
+    /**
+     * Returns the value of the given cell
+     * @param data
+     * @param row
+     * @param column
+     * @return
+     */
+    private String getValue(DataHandle data, int row, int column) {
+        
+        // Obtain window
+        if (window == null || !window.contains(data, row)) {
+            
+            // Use prefetched window, if possible
+            int offset = (row / WINDOW_SIZE) * WINDOW_SIZE;
+            Window next = null;
+            if (prefetched != null && prefetchedOffset == offset) {
+                try {
+                    next = prefetched.get();
+                } catch (Exception e) {
+                    next = null;
+                }
+            }
+            window = next != null && next.contains(data, row) ? next : new Window(data, offset);
+            
+            // Prefetch the next window in the direction of scrolling
+            int prefetch = row - offset < WINDOW_SIZE / 2 ? offset - WINDOW_SIZE : offset + WINDOW_SIZE;
+            if (prefetch >= 0 && prefetch < data.getNumRows()) {
+                prefetch(data, prefetch);
+            }
+        }
+        
+        // Return
+        return window.values[row - window.offset][column];
+    }
+
+    /**
+     * Prefetches the window starting at the given row
+     * @param data
+     * @param offset
+     */
+    private void prefetch(final DataHandle data, final int offset) {
+        if (prefetched != null) {
+            prefetched.cancel(false);
+        }
+        prefetchedOffset = offset;
+        prefetched = PREFETCHER.submit(new Callable<Window>() {
+            @Override
+            public Window call() throws Exception {
+                return data.isOrphaned() ? null : new Window(data, offset);
+            }
+        });
+    }
 }
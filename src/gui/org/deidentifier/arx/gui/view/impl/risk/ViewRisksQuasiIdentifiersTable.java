@@ -16,8 +16,10 @@
  */
 package org.deidentifier.arx.gui.view.impl.risk;
 
+import java.util.HashSet;
 import java.util.List;
 
+import org.deidentifier.arx.ARXSolverConfiguration;
 import org.deidentifier.arx.gui.Controller;
 import org.deidentifier.arx.gui.model.ModelEvent;
 import org.deidentifier.arx.gui.model.ModelEvent.ModelPart;
@@ -28,6 +30,7 @@ import org.deidentifier.arx.gui.view.impl.common.ClipboardHandlerTable;
 import org.deidentifier.arx.gui.view.impl.common.ComponentStatusLabelProgressProvider;
 import org.deidentifier.arx.gui.view.impl.common.async.Analysis;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisContext;
+import org.deidentifier.arx.gui.view.impl.common.async.AnalysisKey;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisManager;
 import org.deidentifier.arx.risk.RiskEstimateBuilderInterruptible;
 import org.deidentifier.arx.risk.RiskModelAttributes;
@@ -77,6 +80,10 @@ public class ViewRisksQuasiIdentifiersTable extends ViewRisks<AnalysisContextRis
 
     @Override
     public void update(ModelEvent event) {
+        // Memoized results are stale after the model or definition changed
+        if (this.manager != null && (event.part == ModelPart.MODEL || event.part == ModelPart.INPUT)) {
+            this.manager.clear();
+        }
         super.update(event);
         if (event.part == ModelPart.SELECTED_QUASI_IDENTIFIERS || event.part == ModelPart.POPULATION_MODEL) {
             triggerUpdate();
@@ -170,6 +177,18 @@ public class ViewRisksQuasiIdentifiersTable extends ViewRisks<AnalysisContextRis
             return;
         }
 
+        // The key of the result
+        ARXSolverConfiguration solver = context.context.getModel().getRiskModel().getSolverConfiguration();
+        final AnalysisKey key = new AnalysisKey(context.handle,
+                                                new HashSet<String>(context.context.getModel().getSelectedQuasiIdentifiers()),
+                                                context.context.getPopulationModel().getPopulationSize(),
+                                                solver.getAccuracy(),
+                                                solver.getIterationsPerTry(),
+                                                solver.getIterationsTotal(),
+                                                solver.getTimePerTry(),
+                                                solver.getTimeTotal(),
+                                                solver.getStartValues());
+
         // Create an analysis
         Analysis analysis = new Analysis() {
 
@@ -177,11 +196,21 @@ public class ViewRisksQuasiIdentifiersTable extends ViewRisks<AnalysisContextRis
             private boolean stopped = false;
             private RiskModelAttributes risks;
 
+            @Override
+            public AnalysisKey getKey() {
+                return key;
+            }
+
             @Override
             public int getProgress() {
                 return builder.getProgress();
             }
 
+            @Override
+            public Object getResult() {
+                return risks;
+            }
+
             @Override
             public void onError() {
                 setStatusEmpty();
@@ -249,6 +278,11 @@ public class ViewRisksQuasiIdentifiersTable extends ViewRisks<AnalysisContextRis
                 }
             }
 
+            @Override
+            public void setResult(Object result) {
+                this.risks = (RiskModelAttributes) result;
+            }
+
             @Override
             public void stop() {
                 if (builder != null) builder.interrupt();
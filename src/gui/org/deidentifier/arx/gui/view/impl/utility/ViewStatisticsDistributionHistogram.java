@@ -21,12 +21,14 @@ import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.aggregates.StatisticsBuilderInterruptible;
 import org.deidentifier.arx.aggregates.StatisticsFrequencyDistribution;
 import org.deidentifier.arx.gui.Controller;
+import org.deidentifier.arx.gui.model.ModelEvent;
 import org.deidentifier.arx.gui.model.ModelEvent.ModelPart;
 import org.deidentifier.arx.gui.resources.Resources;
 import org.deidentifier.arx.gui.view.SWTUtil;
 import org.deidentifier.arx.gui.view.impl.common.ComponentStatusLabelProgressProvider;
 import org.deidentifier.arx.gui.view.impl.common.async.Analysis;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisContext;
+import org.deidentifier.arx.gui.view.impl.common.async.AnalysisKey;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisManager;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ControlAdapter;
@@ -89,6 +91,18 @@ public class ViewStatisticsDistributionHistogram extends ViewStatistics<Analysis
         this.manager = new AnalysisManager(parent.getDisplay());
     }
 
+    @Override
+    public void update(ModelEvent event) {
+        // Memoized results are stale after the model or definition changed
+        if (this.manager != null && (event.part == ModelPart.MODEL ||
+                                     event.part == ModelPart.ATTRIBUTE_TYPE ||
+                                     event.part == ModelPart.ATTRIBUTE_TYPE_BULK_UPDATE ||
+                                     event.part == ModelPart.DATA_TYPE)) {
+            this.manager.clear();
+        }
+        super.update(event);
+    }
+
     @Override
     public LayoutUtility.ViewUtilityType getType() {
         return LayoutUtility.ViewUtilityType.HISTOGRAM;
@@ -271,17 +285,30 @@ public class ViewStatisticsDistributionHistogram extends ViewStatistics<Analysis
         final DataHandle handle = context.handle;
         final int column = handle.getColumnIndexOf(context.attribute);
         
+        // The key of the result
+        final AnalysisKey key = new AnalysisKey(handle, column, hierarchy, handle.getDataType(context.attribute));
+
         // Create an analysis
         Analysis analysis = new Analysis(){
 
             private boolean                         stopped = false;
             private StatisticsFrequencyDistribution distribution;
 
+            @Override
+            public AnalysisKey getKey() {
+                return key;
+            }
+
             @Override
             public int getProgress() {
                 return builder.getProgress();
             }
             
+            @Override
+            public Object getResult() {
+                return distribution;
+            }
+
             @Override
             public void onError() {
                 setStatusEmpty();
@@ -352,6 +379,11 @@ public class ViewStatisticsDistributionHistogram extends ViewStatistics<Analysis
                 }
             }
 
+            @Override
+            public void setResult(Object result) {
+                this.distribution = (StatisticsFrequencyDistribution) result;
+            }
+
             @Override
             public void stop() {
                 builder.interrupt();
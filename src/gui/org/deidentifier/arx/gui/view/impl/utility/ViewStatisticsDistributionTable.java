@@ -21,6 +21,7 @@ import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.aggregates.StatisticsBuilderInterruptible;
 import org.deidentifier.arx.aggregates.StatisticsFrequencyDistribution;
 import org.deidentifier.arx.gui.Controller;
+import org.deidentifier.arx.gui.model.ModelEvent;
 import org.deidentifier.arx.gui.model.ModelEvent.ModelPart;
 import org.deidentifier.arx.gui.resources.Resources;
 import org.deidentifier.arx.gui.view.SWTUtil;
@@ -28,6 +29,7 @@ import org.deidentifier.arx.gui.view.impl.common.ComponentStatusLabelProgressPro
 import org.deidentifier.arx.gui.view.impl.common.ComponentTable;
 import org.deidentifier.arx.gui.view.impl.common.async.Analysis;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisContext;
+import org.deidentifier.arx.gui.view.impl.common.async.AnalysisKey;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisManager;
 import org.deidentifier.arx.gui.view.impl.common.table.CTConfiguration;
 import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
@@ -64,6 +66,18 @@ public class ViewStatisticsDistributionTable extends ViewStatistics<AnalysisCont
         super(parent, controller, target, reset, true);
         this.manager = new AnalysisManager(parent.getDisplay());
     }
+
+    @Override
+    public void update(ModelEvent event) {
+        // Memoized results are stale after the model or definition changed
+        if (this.manager != null && (event.part == ModelPart.MODEL ||
+                                     event.part == ModelPart.ATTRIBUTE_TYPE ||
+                                     event.part == ModelPart.ATTRIBUTE_TYPE_BULK_UPDATE ||
+                                     event.part == ModelPart.DATA_TYPE)) {
+            this.manager.clear();
+        }
+        super.update(event);
+    }
     
     @Override
     public LayoutUtility.ViewUtilityType getType() {
@@ -122,17 +136,30 @@ public class ViewStatisticsDistributionTable extends ViewStatistics<AnalysisCont
         final DataHandle handle = context.handle;
         final int column = handle.getColumnIndexOf(context.attribute);
         
+        // The key of the result
+        final AnalysisKey key = new AnalysisKey(handle, column, hierarchy, handle.getDataType(context.attribute));
+
         // Create an analysis
         Analysis analysis = new Analysis(){
             
             private boolean                         stopped = false;
             private StatisticsFrequencyDistribution distribution;
 
+            @Override
+            public AnalysisKey getKey() {
+                return key;
+            }
+
             @Override
             public int getProgress() {
                 return builder.getProgress();
             }
             
+            @Override
+            public Object getResult() {
+                return distribution;
+            }
+
             @Override
             public void onError() {
                 setStatusEmpty();
@@ -188,6 +215,11 @@ public class ViewStatisticsDistributionTable extends ViewStatistics<AnalysisCont
                 }
             }
 
+            @Override
+            public void setResult(Object result) {
+                this.distribution = (StatisticsFrequencyDistribution) result;
+            }
+
             @Override
             public void stop() {
                 builder.interrupt();
@@ -16,15 +16,19 @@
  */
 package org.deidentifier.arx.gui.view.impl.utility;
 
+import java.util.HashSet;
+
 import org.deidentifier.arx.aggregates.StatisticsBuilderInterruptible;
 import org.deidentifier.arx.aggregates.StatisticsEquivalenceClasses;
 import org.deidentifier.arx.gui.Controller;
+import org.deidentifier.arx.gui.model.ModelEvent;
 import org.deidentifier.arx.gui.model.ModelEvent.ModelPart;
 import org.deidentifier.arx.gui.resources.Resources;
 import org.deidentifier.arx.gui.view.SWTUtil;
 import org.deidentifier.arx.gui.view.impl.common.ClipboardHandlerTable;
 import org.deidentifier.arx.gui.view.impl.common.async.Analysis;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisContext;
+import org.deidentifier.arx.gui.view.impl.common.async.AnalysisKey;
 import org.deidentifier.arx.gui.view.impl.common.async.AnalysisManager;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.FillLayout;
@@ -68,6 +72,18 @@ public class ViewStatisticsEquivalenceClassTable extends ViewStatistics<Analysis
         super(parent, controller, target, reset, false);
         this.manager = new AnalysisManager(parent.getDisplay());
     }
+
+    @Override
+    public void update(ModelEvent event) {
+        // Memoized results are stale after the model or definition changed
+        if (this.manager != null && (event.part == ModelPart.MODEL ||
+                                     event.part == ModelPart.ATTRIBUTE_TYPE ||
+                                     event.part == ModelPart.ATTRIBUTE_TYPE_BULK_UPDATE ||
+                                     event.part == ModelPart.DATA_TYPE)) {
+            this.manager.clear();
+        }
+        super.update(event);
+    }
     
     @Override
     public LayoutUtility.ViewUtilityType getType() {
@@ -161,17 +177,31 @@ public class ViewStatisticsEquivalenceClassTable extends ViewStatistics<Analysis
         // The statistics builder
         final StatisticsBuilderInterruptible builder = context.handle.getStatistics().getInterruptibleInstance();
         
+        // The key of the result
+        final AnalysisKey key = new AnalysisKey(context.handle,
+                                                new HashSet<String>(context.handle.getDefinition().getQuasiIdentifyingAttributes()));
+
         // Create an analysis
         Analysis analysis = new Analysis(){
 
             private boolean                      stopped = false;
             private StatisticsEquivalenceClasses summary;
 
+            @Override
+            public AnalysisKey getKey() {
+                return key;
+            }
+
             @Override
             public int getProgress() {
                 return 0;
             }
             
+            @Override
+            public Object getResult() {
+                return summary;
+            }
+
             @Override
             public void onError() {
                 setStatusEmpty();
@@ -242,6 +272,11 @@ public class ViewStatisticsEquivalenceClassTable extends ViewStatistics<Analysis
                 }
             }
 
+            @Override
+            public void setResult(Object result) {
+                this.summary = (StatisticsEquivalenceClasses) result;
+            }
+
             @Override
             public void stop() {
                 builder.interrupt();
@@ -18,6 +18,7 @@
 package org.deidentifier.arx.gui.worker;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -167,6 +168,21 @@ public class WorkerLoad extends Worker<Model> {
         return charset;
     }
 
+    /**
+     * Reads an array.
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    private int[] readArray(final DataInputStream in) throws IOException {
+        final int[] result = new int[in.readInt()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = in.readInt();
+        }
+        return result;
+    }
+
     /**
      * Reads the clipboard from the file.
      *
@@ -686,17 +702,27 @@ public class WorkerLoad extends Worker<Model> {
      * @param config
      * @param zip
      * @throws IOException
+     * @throws ClassNotFoundException
      */
-    private void readInput(final ModelConfiguration config, final ZipFile zip) throws IOException {
+    private void readInput(final ModelConfiguration config, final ZipFile zip) throws IOException,
+                                                                                      ClassNotFoundException {
 
-        final ZipEntry entry = zip.getEntry("data/input.csv"); //$NON-NLS-1$
-        if (entry == null) { return; }
-        
-        // Read input
-        // Use project delimiter for backwards compatibility
-        config.setInput(Data.create(new BufferedInputStream(zip.getInputStream(entry)),
-                                    getCharset(),
-                                    model.getCSVSyntax().getDelimiter(), getLength(zip, entry)));
+        // Read encoded input
+        ZipEntry entry = zip.getEntry("data/input.dat"); //$NON-NLS-1$
+        if (entry != null) {
+            config.setInput(Data.read(new BackwardsCompatibleObjectInputStream(new BufferedInputStream(zip.getInputStream(entry)))));
+        } else {
+            
+            // Backwards compatibility
+            entry = zip.getEntry("data/input.csv"); //$NON-NLS-1$
+            if (entry == null) { return; }
+            
+            // Read input
+            // Use project delimiter for backwards compatibility
+            config.setInput(Data.create(new BufferedInputStream(zip.getInputStream(entry)),
+                                        getCharset(),
+                                        model.getCSVSyntax().getDelimiter(), getLength(zip, entry)));
+        }
 
         // And encode
         config.getInput().getHandle();
@@ -787,6 +813,13 @@ public class WorkerLoad extends Worker<Model> {
 
         final Map<Integer, List<ARXNode>> levels = new HashMap<Integer, List<ARXNode>>();
 
+        // Read the compact representation
+        entry = zip.getEntry("nodes.dat"); //$NON-NLS-1$
+        if (entry != null) {
+            readNodes(zip, entry, min, max, attrs, headermap, levels);
+            return setLevels(levels);
+        }
+
         // Read the lattice for the first time
         entry = zip.getEntry("lattice.xml"); //$NON-NLS-1$
         if (entry == null) { throw new IOException(Resources.getMessage("WorkerLoad.7")); } //$NON-NLS-1$
@@ -964,6 +997,101 @@ public class WorkerLoad extends Worker<Model> {
         xmlReader.parse(inputSource);
 
         // Set lattice
+        return setLevels(levels);
+    }
+
+    /**
+     * Reads the compact representation of the nodes in the lattice.
+     *
+     * @param zip
+     * @param entry
+     * @param min
+     * @param max
+     * @param attrs
+     * @param headermap
+     * @param levels
+     * @throws IOException
+     */
+    private void readNodes(final ZipFile zip,
+                           final ZipEntry entry,
+                           final Map<Integer, InformationLoss<?>> min,
+                           final Map<Integer, InformationLoss<?>> max,
+                           final Map<Integer, Map<Integer, Object>> attrs,
+                           final Map<String, Integer> headermap,
+                           final Map<Integer, List<ARXNode>> levels) throws IOException {
+
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(zip.getInputStream(entry)));
+        readNodesVersion(in);
+
+        // Nodes
+        final Map<Integer, ARXNode> map = new HashMap<Integer, ARXNode>();
+        final List<ARXNode> nodes = new ArrayList<ARXNode>();
+        final int numLevels = in.readInt();
+        for (int level = 0; level < numLevels; level++) {
+            final List<ARXNode> list = new ArrayList<ARXNode>();
+            final int numNodes = in.readInt();
+            for (int i = 0; i < numNodes; i++) {
+                final int id = in.readInt();
+                final ARXNode node = lattice.new ARXNode(lattice);
+                node.access().setTransformation(readArray(in));
+                node.access().setAnonymity(Anonymity.valueOf(in.readUTF()));
+                node.access().setChecked(in.readBoolean());
+                node.access().setHighestScore(max.get(id));
+                node.access().setLowestScore(min.get(id));
+                node.access().setAttributes(attrs.get(id));
+                node.access().setHeadermap(headermap);
+                list.add(node);
+                nodes.add(node);
+                map.put(id, node);
+            }
+            levels.put(level, list);
+        }
+
+        // Edges
+        for (final ARXNode node : nodes) {
+            node.access().setPredecessors(readNodes(in, map));
+            node.access().setSuccessors(readNodes(in, map));
+        }
+        in.close();
+    }
+
+    /**
+     * Reads the ids of nodes and returns the according nodes.
+     *
+     * @param in
+     * @param map
+     * @return
+     * @throws IOException
+     */
+    private ARXNode[] readNodes(final DataInputStream in, final Map<Integer, ARXNode> map) throws IOException {
+        final ARXNode[] result = new ARXNode[in.readInt()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = map.get(in.readInt());
+        }
+        return result;
+    }
+
+    /**
+     * Reads and checks the version of the compact representation of the lattice.
+     *
+     * @param in
+     * @throws IOException
+     */
+    private void readNodesVersion(final DataInputStream in) throws IOException {
+        final int version = in.readInt();
+        if (version != WorkerSave.VERSION_NODES) {
+            throw new IOException(Resources.getMessage("WorkerLoad.10") + version); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Sets the levels of the lattice and returns a map from transformations to nodes.
+     *
+     * @param levels
+     * @return
+     */
+    private Map<String, ARXNode> setLevels(final Map<Integer, List<ARXNode>> levels) {
+
         int bottomLevel = Integer.MAX_VALUE;
         final ARXNode[][] llevels = new ARXNode[levels.size()][];
         for (final Entry<Integer, List<ARXNode>> e : levels.entrySet()) {
@@ -1058,8 +1186,18 @@ public class WorkerLoad extends Worker<Model> {
      */
     private int[] readMinMax(final ZipFile zip) throws SAXException, IOException  {
 
+        // Read the compact representation
+        ZipEntry entry = zip.getEntry("nodes.dat"); //$NON-NLS-1$
+        if (entry != null) {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(zip.getInputStream(entry)));
+            readNodesVersion(in);
+            final int numLevels = in.readInt();
+            in.close();
+            return numLevels == 0 ? new int[]{Integer.MAX_VALUE, 0} : new int[]{0, numLevels - 1};
+        }
+
         // Read the lattice
-        ZipEntry entry = zip.getEntry("lattice.xml"); //$NON-NLS-1$
+        entry = zip.getEntry("lattice.xml"); //$NON-NLS-1$
         if (entry == null) {
             return new int[]{0,0};
         }
@@ -18,6 +18,7 @@
 package org.deidentifier.arx.gui.worker;
 
 import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -46,6 +47,7 @@ import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.DataDefinition;
 import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleInput;
 import org.deidentifier.arx.DataHandleOutput;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.DataType.DataTypeWithFormat;
@@ -70,6 +72,9 @@ import org.eclipse.core.runtime.IProgressMonitor;
  */
 public class WorkerSave extends Worker<Model> {
 
+    /** Version of the compact representation of the lattice */
+    static final int   VERSION_NODES = 1;
+
     /** The vocabulary to use. */
     private Vocabulary vocabulary = new Vocabulary_V2();
 	
@@ -156,17 +161,6 @@ public class WorkerSave extends Worker<Model> {
                        final ARXLattice l,
                        final ZipOutputStream zip) throws IOException {
 
-        // Build mapping
-        int id = 0;
-        for (final ARXNode[] level : l.getLevels()) {
-            for (final ARXNode n : level) {
-                final String key = Arrays.toString(n.getTransformation());
-                if (!map.containsKey(key)) {
-                    map.put(key, id++);
-                }
-            }
-        }
-
         // Write directly because of size
         final FileBuilder b = new FileBuilder(new OutputStreamWriter(zip));
         final XMLWriter writer = new XMLWriter(b, true);
@@ -379,6 +373,20 @@ public class WorkerSave extends Worker<Model> {
         return writer.toString();
     }
 
+    /**
+     * Writes the given array.
+     *
+     * @param array
+     * @param out
+     * @throws IOException
+     */
+    private void writeArray(final int[] array, final DataOutputStream out) throws IOException {
+        out.writeInt(array.length);
+        for (final int value : array) {
+            out.writeInt(value);
+        }
+    }
+
     /**
      * Writes the clipboard to the file.
      *
@@ -549,6 +557,13 @@ public class WorkerSave extends Worker<Model> {
     private void writeInput(final Model model, final ZipOutputStream zip) throws IOException {
         if (model.getInputConfig().getInput() != null) {
             if (model.getInputConfig().getInput().getHandle() != null) {
+                // Write encoded data, which need not be parsed and encoded when loading the project
+                zip.putNextEntry(new ZipEntry("data/input.dat")); //$NON-NLS-1$
+                ObjectOutputStream oos = new ObjectOutputStream(zip);
+                ((DataHandleInput) model.getInputConfig().getInput().getHandle()).write(oos);
+                oos.flush();
+
+                // Write CSV for previous versions of ARX
                 zip.putNextEntry(new ZipEntry("data/input.csv")); //$NON-NLS-1$
                 
                 // Write UTF-8 only
@@ -564,7 +579,6 @@ public class WorkerSave extends Worker<Model> {
                                .getInput()
                                .getHandle()
                                .iterator());
-                
             }
         }
     }
@@ -584,8 +598,23 @@ public class WorkerSave extends Worker<Model> {
         if ((model.getResult() == null) ||
             (model.getResult().getLattice() == null)) { return map; }
 
-        // Write lattice
+        // Build mapping
         final ARXLattice l = model.getResult().getLattice();
+        int id = 0;
+        for (final ARXNode[] level : l.getLevels()) {
+            for (final ARXNode n : level) {
+                final String key = Arrays.toString(n.getTransformation());
+                if (!map.containsKey(key)) {
+                    map.put(key, id++);
+                }
+            }
+        }
+
+        // Write lattice
+        zip.putNextEntry(new ZipEntry("nodes.dat")); //$NON-NLS-1$
+        writeNodes(map, l, zip);
+
+        // Write XML for previous versions of ARX
         zip.putNextEntry(new ZipEntry("lattice.xml")); //$NON-NLS-1$
         toXML(map, l, zip);
 
@@ -678,6 +707,63 @@ public class WorkerSave extends Worker<Model> {
         w.flush();
     }
 
+    /**
+     * Writes a compact representation of the nodes in the lattice. Structure: version,
+     * number of levels, for each level the number of nodes followed by id, transformation,
+     * anonymity and checked-flag of each node, and finally the ids of the predecessors and
+     * successors of each node.
+     *
+     * @param map
+     * @param l
+     * @param zip
+     * @throws IOException
+     */
+    private void writeNodes(final Map<String, Integer> map,
+                            final ARXLattice l,
+                            final ZipOutputStream zip) throws IOException {
+
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(zip));
+        out.writeInt(VERSION_NODES);
+        out.writeInt(l.getLevels().length);
+
+        // Nodes
+        for (final ARXNode[] level : l.getLevels()) {
+            out.writeInt(level.length);
+            for (final ARXNode n : level) {
+                out.writeInt(map.get(Arrays.toString(n.getTransformation())));
+                writeArray(n.getTransformation(), out);
+                out.writeUTF(n.getAnonymity().name());
+                out.writeBoolean(n.isChecked());
+            }
+        }
+
+        // Edges
+        for (final ARXNode[] level : l.getLevels()) {
+            for (final ARXNode n : level) {
+                writeNodes(map, n.getPredecessors(), out);
+                writeNodes(map, n.getSuccessors(), out);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the ids of the given nodes.
+     *
+     * @param map
+     * @param nodes
+     * @param out
+     * @throws IOException
+     */
+    private void writeNodes(final Map<String, Integer> map,
+                            final ARXNode[] nodes,
+                            final DataOutputStream out) throws IOException {
+        out.writeInt(nodes.length);
+        for (final ARXNode n : nodes) {
+            out.writeInt(map.get(Arrays.toString(n.getTransformation())));
+        }
+    }
+
     /**
      * Writes the output to the file.
      *
@@ -23,6 +23,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.ARXConfiguration.SearchStepSemantics;
 import org.deidentifier.arx.AttributeType.MicroAggregationFunction;
@@ -41,6 +43,7 @@ import org.deidentifier.arx.criteria.TCloseness;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
 import org.deidentifier.arx.framework.data.DataManager;
+import org.deidentifier.arx.framework.data.DataManagerCache;
 import org.deidentifier.arx.framework.data.DataMatrix;
 import org.deidentifier.arx.framework.data.Dictionary;
 import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
@@ -201,25 +204,27 @@ public class ARXAnonymizer { // NO_UCD
             throw new RuntimeException("This data handle is locked. Please release it first");
         }
         
-        // Update registry
+        // Materialize hierarchies
         DataHandle handle = data.getHandle();
         handle.getDefinition().materializeHierarchies(handle);
-        checkBeforeEncoding(handle, config);
-        handle.getRegistry().reset();
-        
-        // Create manager
-        DataManager manager = getDataManager(handle, handle.getDefinition(), config);
-
-        // Attach subset to handle
-        handle.getRegistry().createInputSubset(config);
         
-        // Attach arrays to data handle
-        ((DataHandleInput)handle).update(manager.getDataGeneralized().getArray(), 
-                                         manager.getDataAnalyzed().getArray());
-
-
         // Execute
-        return anonymize(manager, handle.getDefinition(), config).asResult(config, handle);
+        return anonymize(handle, config);
+    }
+
+    /**
+     * Performs anonymization of data which has been prepared for repeated anonymization.
+     * Data is not encoded and hierarchies are not materialized again. Multiple
+     * anonymizations of the same data may be performed concurrently, as long as each
+     * of them uses its own configuration.
+     *
+     * @param data The prepared data
+     * @param config The privacy config
+     * @return ARXResult
+     * @throws IOException
+     */
+    public ARXResult anonymize(final PreparedData data, ARXConfiguration config) throws IOException {
+        return anonymize(data.getData().getHandle(), config, data.getCache());
     }
     
     /**
@@ -310,6 +315,51 @@ public class ARXAnonymizer { // NO_UCD
         this.maxQuasiIdentifiers = maxQuasiIdentifiers;
     }
 
+    /**
+     * Performs data anonymization of the given input handle, whose hierarchies
+     * have already been materialized.
+     *
+     * @param handle
+     * @param config
+     * @return
+     * @throws IOException
+     */
+    private ARXResult anonymize(final DataHandle handle, ARXConfiguration config) throws IOException {
+        return anonymize(handle, config, null);
+    }
+
+    /**
+     * Performs data anonymization of the given input handle, whose hierarchies
+     * have already been materialized, reusing parts of data managers which do
+     * not depend on the configuration.
+     *
+     * @param handle
+     * @param config
+     * @param cache may be null
+     * @return
+     * @throws IOException
+     */
+    private ARXResult anonymize(final DataHandle handle, ARXConfiguration config, DataManagerCache cache) throws IOException {
+        
+        // Update registry
+        checkBeforeEncoding(handle, config);
+        handle.getRegistry().reset();
+        
+        // Create manager
+        DataManager manager = getDataManager(handle, handle.getDefinition(), config, cache);
+
+        // Attach subset to handle
+        handle.getRegistry().createInputSubset(config);
+        
+        // Attach arrays to data handle
+        ((DataHandleInput)handle).update(manager.getDataGeneralized().getArray(), 
+                                         manager.getDataAnalyzed().getArray());
+
+
+        // Execute
+        return anonymize(manager, handle.getDefinition(), config).asResult(config, handle);
+    }
+
     /**
      * Performs some sanity checks.
      *
@@ -357,9 +407,25 @@ public class ARXAnonymizer { // NO_UCD
             }
         }
         
-        // Check whether all hierarchies are monotonic
-        for (final GeneralizationHierarchy hierarchy : manager.getHierarchies()) {
-            hierarchy.checkMonotonicity(manager);
+        // Check whether all hierarchies are monotonic, in parallel
+        final GeneralizationHierarchy[] hierarchies = manager.getHierarchies();
+        final RuntimeException[] errors = new RuntimeException[hierarchies.length];
+        IntStream.range(0, hierarchies.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int i) {
+                try {
+                    hierarchies[i].checkMonotonicity(manager);
+                } catch (RuntimeException e) {
+                    errors[i] = e;
+                }
+            }
+        });
+        
+        // Report the first error
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                throw error;
+            }
         }
 
         // check min and max sizes
@@ -644,10 +710,11 @@ public class ARXAnonymizer { // NO_UCD
      * @param handle the handle
      * @param definition the definition
      * @param config the config
+     * @param cache parts which do not depend on the configuration, may be null
      * @return the data manager
      * @throws IOException Signals that an I/O exception has occurred.
      */
-    private DataManager getDataManager(final DataHandle handle, final DataDefinition definition, final ARXConfiguration config) throws IOException {
+    private DataManager getDataManager(final DataHandle handle, final DataDefinition definition, final ARXConfiguration config, final DataManagerCache cache) throws IOException {
 
         // Extract data
         String[] header = ((DataHandleInput) handle).header;
@@ -658,7 +725,8 @@ public class ARXAnonymizer { // NO_UCD
                                                     dictionary,
                                                     definition,
                                                     getAggregateFunctions(definition),
-                                                    config);
+                                                    config,
+                                                    cache);
         return manager;
     }
 
@@ -393,6 +393,9 @@ public class ARXConfiguration implements Serializable, Cloneable {
     /** Semantics of heuristic search steps */
     private SearchStepSemantics                searchStepSemantics                   = SearchStepSemantics.CHECKS;
 
+    /** Should precomputed quality models compute all of their tables before the search starts? */
+    private Boolean                            qualityModelPrecomputationEnabled     = false;
+
     /**
      * Creates a new configuration without tuple suppression.
      */
@@ -522,6 +525,7 @@ public class ARXConfiguration implements Serializable, Cloneable {
         result.costBenefitConfiguration = this.getCostBenefitConfiguration().clone();
         result.dpSearchBudget = this.dpSearchBudget;
         result.searchStepSemantics = this.searchStepSemantics;
+        result.qualityModelPrecomputationEnabled = this.qualityModelPrecomputationEnabled;
         if (this.attributeWeights != null) {
             result.attributeWeights = new HashMap<String, Double>(this.attributeWeights);
         } else {
@@ -864,6 +868,20 @@ public class ARXConfiguration implements Serializable, Cloneable {
         return false;
     }
 
+    /**
+     * Returns whether precomputed quality models compute the information loss for all
+     * combinations of attributes and generalization levels in parallel before the search
+     * starts, instead of on demand. The default is false.
+     * @return
+     */
+    public boolean isQualityModelPrecomputationEnabled() {
+        // Ensure backwards compatibility
+        if (this.qualityModelPrecomputationEnabled == null) {
+            this.qualityModelPrecomputationEnabled = false;
+        }
+        return this.qualityModelPrecomputationEnabled;
+    }
+
     /**
      * Returns whether suppression is applied to the output of anonymous as well as non-anonymous transformations. If
      * this flag is set to <code>true</code>, suppression will be applied to the output of non-anonymous 
@@ -1059,6 +1077,16 @@ public class ARXConfiguration implements Serializable, Cloneable {
         this.metric = model;
     }
 
+    /**
+     * Sets whether precomputed quality models compute the information loss for all
+     * combinations of attributes and generalization levels in parallel before the search
+     * starts, instead of on demand. The default is false.
+     * @param enabled
+     */
+    public void setQualityModelPrecomputationEnabled(boolean enabled) {
+        this.qualityModelPrecomputationEnabled = enabled;
+    }
+
     /**
      * Sets whether suppression is applied to the output of anonymous as well as non-anonymous transformations. If
      * this flag is set to <code>true</code>, suppression will be applied to the output of non-anonymous 
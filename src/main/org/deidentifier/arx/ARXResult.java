@@ -311,29 +311,7 @@ public class ARXResult {
         }
 
         // Apply the transformation
-        final Transformation<?> transformation = solutionSpace.getTransformation(node.getTransformation());
-        TransformationApplicator applicator = new TransformationApplicator(this.manager,
-                                                                           this.buffer,
-                                                                           this.config.getQualityModel(),
-                                                                           this.config.getInternalConfiguration());
-        
-        TransformedData information = applicator.applyTransformation(transformation);
-        transformation.setChecked(information.properties);
-
-        // Store
-        if (!node.isChecked() || node.getHighestScore().compareTo(node.getLowestScore()) != 0) {
-            
-            node.access().setChecked(true);
-            if (transformation.hasProperty(solutionSpace.getPropertyAnonymous())) {
-                node.access().setAnonymous();
-            } else {
-                node.access().setNotAnonymous();
-            }
-            node.access().setHighestScore(transformation.getInformationLoss());
-            node.access().setLowestScore(transformation.getInformationLoss());
-            node.access().setLowerBound(transformation.getLowerBound());
-            lattice.estimateInformationLoss();
-        }
+        TransformedData information = applyTransformation(node, buffer, true);
         
         // Clone if needed
         if (fork) {
@@ -347,6 +325,7 @@ public class ARXResult {
                                                        manager,
                                                        information.bufferGeneralized,
                                                        information.bufferMicroaggregated,
+                                                       information.histogram,
                                                        node,
                                                        definition,
                                                        config);
@@ -376,6 +355,49 @@ public class ARXResult {
         return getOutput(optimalTransformation, fork);
     }
     
+    /**
+     * Returns a lightweight handle to data obtained by applying the given transformation. Generalized values are
+     * not materialized but derived from the input data and the generalization hierarchies when they are accessed,
+     * and suppressed records are represented by a bitset. This allows obtaining handles to many different
+     * representations of the data set at little cost in terms of memory. Note that only one instance can be
+     * obtained for each transformation. Such handles do not depend on the output buffer and can thus be obtained
+     * while other handles are open.
+     * 
+     * @param node the transformation
+     * 
+     * @return
+     */
+    public DataHandle getOutputVirtual(ARXNode node) {
+        
+        DataHandle handle = registry.getOutputHandle(node);
+        if (handle != null) {
+            if (!((DataHandleOutput)handle).isOptimized()) {
+                return handle;
+            } else {
+                registry.release(handle);
+            }
+        }
+        
+        // Group the records. The output buffer is only needed while grouping and
+        // is used, if no handle depends on it.
+        DataMatrix buffer = this.buffer;
+        if (bufferLockedByHandle != null) {
+            buffer = new DataMatrix(buffer.getNumRows(), buffer.getNumColumns());
+        }
+        TransformedData information = applyTransformation(node, buffer, false);
+        
+        // Create
+        return new DataHandleOutput(this,
+                                    registry,
+                                    manager,
+                                    information.suppressed,
+                                    information.bufferMicroaggregated,
+                                    information.histogram,
+                                    node,
+                                    definition,
+                                    config);
+    }
+    
     /**
      * Internal method, not for external use
      * 
@@ -396,9 +418,11 @@ public class ARXResult {
                                                        definition,
                                                        config);
         
-        // Lock
-        bufferLockedByHandle = result; 
-        bufferLockedByNode = transformation;
+        // Lock, if the handle depends on the output buffer
+        if (!result.isVirtual()) {
+            bufferLockedByHandle = result; 
+            bufferLockedByNode = transformation;
+        }
         
         // Return
         return result;
@@ -453,8 +477,8 @@ public class ARXResult {
         
         // Check, if there are enough outliers
         int outliers = 0;
-        for (int row = 0; row < output.getNumRows(); row++) {
-            if (output.isOutlier(row) && (baselineRowSet == null || baselineRowSet.contains(row))) {
+        for (int row = getNextRow(baselineRowSet, 0, output.getNumRows()); row != -1; row = getNextRow(baselineRowSet, row + 1, output.getNumRows())) {
+            if (output.isOutlier(row)) {
                 outliers++;
             }
         }
@@ -620,6 +644,9 @@ public class ARXResult {
             throw new IllegalArgumentException("This output data is not associated to the correct input data");
         }
         
+        // Local recoding modifies the output buffer
+        output.materialize();
+        
         // Baseline records
         RowSet baselineRowSet = config.getSubset() == null ? null : config.getSubset().getSet();
         int baselineRecords = baselineRowSet == null ? output.getNumRows() : baselineRowSet.size();
@@ -628,8 +655,8 @@ public class ARXResult {
         // Collect input and row indices
         int initialRecords = 0;
         RowSet rowset = RowSet.create(output.getNumRows());
-        for (int row = 0; row < output.getNumRows(); row++) {
-            if (output.isOutlier(row) && (baselineRowSet == null || baselineRowSet.contains(row))) {
+        for (int row = getNextRow(baselineRowSet, 0, output.getNumRows()); row != -1; row = getNextRow(baselineRowSet, row + 1, output.getNumRows())) {
+            if (output.isOutlier(row)) {
                 rowset.add(row);
                 initialRecords++;
             }
@@ -696,22 +723,23 @@ public class ARXResult {
         try {
             
             int optimized = 0;
-            for (int oldIndex = 0; oldIndex < rowset.length(); oldIndex++) {
-                if (rowset.contains(oldIndex)) {
-                    newIndex++;
-                    if (oldGeneralized != null && oldGeneralized.getNumRows() != 0) {
-                        oldGeneralized.copyFrom(oldIndex, newGeneralized, newIndex);
-                        optimized += (newGeneralized.get(newIndex, 0) & Data.OUTLIER_MASK) != 0 ? 0 : 1;
-                    }
-                    if (oldMicroaggregated != null && oldMicroaggregated.getNumRows() != 0) {
-                        oldMicroaggregated.copyFrom(oldIndex, newMicroaggregated, newIndex);
-                    }
+            for (int oldIndex = rowset.nextSetBit(0); oldIndex != -1; oldIndex = rowset.nextSetBit(oldIndex + 1)) {
+                newIndex++;
+                if (oldGeneralized != null && oldGeneralized.getNumRows() != 0) {
+                    oldGeneralized.copyFrom(oldIndex, newGeneralized, newIndex);
+                    optimized += (newGeneralized.get(newIndex, 0) & Data.OUTLIER_MASK) != 0 ? 0 : 1;
+                }
+                if (oldMicroaggregated != null && oldMicroaggregated.getNumRows() != 0) {
+                    oldMicroaggregated.copyFrom(oldIndex, newMicroaggregated, newIndex);
                 }
             }
             
             // Update data types
             output.updateDataTypes(result.optimum.getGeneralization());
             
+            // Data has been modified
+            registry.updateVersion();
+            
             // Mark as optimized
             if (optimized != 0) {
                 output.setOptimized(true);
@@ -955,6 +983,60 @@ public class ARXResult {
         return result;
     }
 
+    /**
+     * Returns the next row in the given set, or in all rows if no set is given, -1 if there is none
+     * @param set
+     * @param fromRow
+     * @param numRows
+     * @return
+     */
+    private int getNextRow(RowSet set, int fromRow, int numRows) {
+        if (set == null) {
+            return fromRow < numRows ? fromRow : -1;
+        }
+        return set.nextSetBit(fromRow);
+    }
+
+    /**
+     * Applies the given transformation to the given buffer and stores the results in the node
+     * 
+     * @param node
+     * @param buffer
+     * @param output Whether the output buffer should be post-processed
+     * @return
+     */
+    private TransformedData applyTransformation(ARXNode node, DataMatrix buffer, boolean output) {
+        
+        // Apply the transformation
+        final Transformation<?> transformation = solutionSpace.getTransformation(node.getTransformation());
+        TransformationApplicator applicator = new TransformationApplicator(this.manager,
+                                                                           buffer,
+                                                                           this.config.getQualityModel(),
+                                                                           this.config.getInternalConfiguration());
+        
+        TransformedData information = output ? applicator.applyTransformation(transformation) :
+                                               applicator.applyTransformationWithoutOutput(transformation);
+        transformation.setChecked(information.properties);
+
+        // Store
+        if (!node.isChecked() || node.getHighestScore().compareTo(node.getLowestScore()) != 0) {
+            
+            node.access().setChecked(true);
+            if (transformation.hasProperty(solutionSpace.getPropertyAnonymous())) {
+                node.access().setAnonymous();
+            } else {
+                node.access().setNotAnonymous();
+            }
+            node.access().setHighestScore(transformation.getInformationLoss());
+            node.access().setLowestScore(transformation.getInformationLoss());
+            node.access().setLowerBound(transformation.getLowerBound());
+            lattice.estimateInformationLoss();
+        }
+        
+        // Return
+        return information;
+    }
+    
     /**
      * Releases the buffer.
      *
@@ -102,21 +102,22 @@ public class AttributeType implements Serializable, Cloneable { // NO_UCD
 
             @Override
             public Hierarchy clone() {
-                if (array != null) {
-                    return new DefaultHierarchy(array);
-                } else {
-                    return new DefaultHierarchy(getHierarchy());
-                }
+                return new DefaultHierarchy(getHierarchy());
             }
 
+            /**
+             * Returns the hierarchy. It is materialized on first access, which is synchronized,
+             * as the same hierarchy may be used by concurrent anonymizations.
+             */
             @Override
-            public String[][] getHierarchy() {
+            public synchronized String[][] getHierarchy() {
                 if (array == null) {
-                    array = new String[hierarchy.size()][];
+                    String[][] array = new String[hierarchy.size()][];
                     for (int i = 0; i < hierarchy.size(); i++) {
                         array[i] = hierarchy.get(i);
                     }
                     hierarchy.clear();
+                    this.array = array;
                 }
                 return array;
             }
@@ -236,25 +237,25 @@ public class AttributeType implements Serializable, Cloneable { // NO_UCD
 
             @Override
             public Hierarchy clone() {
-                if (array != null) {
-                    return new DefaultHierarchy(array);
-                } else {
-                    return new DefaultHierarchy(getHierarchy());
-                }
+                return new DefaultHierarchy(getHierarchy());
             }
 
+            /**
+             * Returns the hierarchy, which is materialized on first access. Synchronized, see DefaultHierarchy.
+             */
             @Override
-            public String[][] getHierarchy() {
+            public synchronized String[][] getHierarchy() {
                 if (array == null) {
                     final List<String[]> list = new ArrayList<String[]>();
                     while (iterator.hasNext()) {
                         list.add(iterator.next());
                     }
-                    array = new String[list.size()][];
+                    String[][] array = new String[list.size()][];
                     for (int i = 0; i < list.size(); i++) {
                         array[i] = list.get(i);
                     }
                     iterator = null;
+                    this.array = array;
                 }
                 return array;
             }
@@ -20,12 +20,15 @@ package org.deidentifier.arx;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.framework.data.Dictionary;
 import org.deidentifier.arx.io.CSVDataInput;
 import org.deidentifier.arx.io.CSVOptions;
 import org.deidentifier.arx.io.CSVSyntax;
@@ -117,6 +120,113 @@ public abstract class Data { // NO_UCD
 
     }
 
+    /**
+     * A data object for data that has already been encoded.
+     *
+     * @author Fabian Prasser
+     */
+    static class EncodedData extends Data {
+
+        /** The header. */
+        private final String[]   header;
+
+        /** The encoded data. */
+        private final DataMatrix data;
+
+        /** The dictionary. */
+        private final Dictionary dictionary;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param header
+         * @param data
+         * @param dictionary
+         */
+        private EncodedData(final String[] header, final DataMatrix data, final Dictionary dictionary) {
+            this.header = header;
+            this.data = data;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * Creates a new instance with the given definition.
+         *
+         * @param header
+         * @param data
+         * @param dictionary
+         * @param definition
+         */
+        EncodedData(final String[] header, final DataMatrix data, final Dictionary dictionary, final DataDefinition definition) {
+            this(header, data, dictionary);
+            ((Data) this).definition = definition;
+        }
+
+        @Override
+        protected Integer getLength() {
+            return data.getNumRows();
+        }
+
+        @Override
+        protected Iterator<String[]> iterator() {
+            return new Iterator<String[]>() {
+
+                private int row = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return row < data.getNumRows();
+                }
+
+                @Override
+                public String[] next() throws NoSuchElementException {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (row == -1) {
+                        row++;
+                        return header;
+                    }
+                    String[] tuple = new String[header.length];
+                    for (int column = 0; column < header.length; column++) {
+                        tuple[column] = dictionary.getMapping()[column][data.get(row, column)];
+                    }
+                    row++;
+                    return tuple;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        /**
+         * Returns the encoded data
+         * @return
+         */
+        DataMatrix getData() {
+            return data;
+        }
+
+        /**
+         * Returns the dictionary
+         * @return
+         */
+        Dictionary getDictionary() {
+            return dictionary;
+        }
+
+        /**
+         * Returns the header
+         * @return
+         */
+        String[] getHeader() {
+            return header;
+        }
+    }
+
     /**
      * A data object for iterators.
      *
@@ -554,6 +664,48 @@ public abstract class Data { // NO_UCD
         return new ArrayData(array);
     }
 
+    /**
+     * Reads data that has been written with {@link DataHandleInput#write(ObjectOutputStream)}.
+     * The values are not parsed and encoded again. The stream is not closed. Callers may pass
+     * a subclass of ObjectInputStream, e.g. to resolve classes of older versions.
+     *
+     * @param ois the stream to read from
+     * @return the data, without a data definition
+     * @throws IOException if the stream cannot be read or has an unsupported version
+     * @throws ClassNotFoundException
+     */
+    public static Data read(final ObjectInputStream ois) throws IOException, ClassNotFoundException {
+
+        // Check version
+        int version = ois.readInt();
+        if (version != DataHandleInput.ENCODING_VERSION) {
+            throw new IOException("Unsupported version of encoded data: " + version);
+        }
+
+        // Read header and dictionary
+        String[] header = (String[]) ois.readObject();
+        String[][] values = (String[][]) ois.readObject();
+        Dictionary dictionary = new Dictionary(header.length);
+        for (int column = 0; column < header.length; column++) {
+            for (String value : values[column]) {
+                dictionary.register(column, value);
+            }
+        }
+        dictionary.finalizeAll();
+
+        // Read data
+        int rows = ois.readInt();
+        DataMatrix data = new DataMatrix(rows, header.length);
+        int[] tuple = new int[header.length];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < header.length; column++) {
+                tuple[column] = ois.readInt();
+            }
+            data.setRow(row, tuple);
+        }
+        return new EncodedData(header, data, dictionary);
+    }
+
     /** The data handle. */
     private DataHandleInput handle;
 
@@ -33,6 +33,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.apache.commons.math3.util.Pair;
 import org.deidentifier.arx.ARXLattice.ARXNode;
@@ -67,6 +69,9 @@ import com.carrotsearch.hppc.ObjectIntOpenHashMap;
  */
 public abstract class DataHandle {
 
+    /** Size of the sample of values tested first when detecting data types */
+    private static final int               SAMPLE_SIZE      = 128;
+
     /** The data types. */
     protected DataType<?>[]                columnToDataType = null;
 
@@ -317,28 +322,7 @@ public abstract class DataHandle {
 
         checkRegistry();
         checkColumn(column);
-        double distinct = this.getDistinctValues(column).length;
-        List<Pair<DataType<?>, Double>> result = new ArrayList<Pair<DataType<?>, Double>>();
-        DataTypeDescription<U> description = DataType.list(clazz);
-        if (description == null) {
-            return result;
-        }
-        if (description.hasFormat()) {
-            for (String format : description.getExampleFormats()) {
-                DataType<U> type = description.newInstance(format, locale);
-                double matching = getNumConformingValues(column, type) / distinct;
-                if (matching >= threshold) {
-                    result.add(new Pair<DataType<?>, Double>(type, matching));
-                }
-            }
-        } else {
-            DataType<U> type = description.newInstance();
-            double matching = getNumConformingValues(column, type) / distinct;
-            if (matching >= threshold) {
-                result.add(new Pair<DataType<?>, Double>(type, matching));
-            }
-        }
-        return result;
+        return getMatchingDataTypes(this.getDistinctValues(column), clazz, locale, threshold);
     }
 
     /**
@@ -377,10 +361,11 @@ public abstract class DataHandle {
 
         checkRegistry();
         checkColumn(column);
+        String[] values = this.getDistinctValues(column);
         List<Pair<DataType<?>, Double>> result = new ArrayList<Pair<DataType<?>, Double>>();
-        result.addAll(getMatchingDataTypes(column, Long.class, locale, threshold));
-        result.addAll(getMatchingDataTypes(column, Date.class, locale, threshold));
-        result.addAll(getMatchingDataTypes(column, Double.class, locale, threshold));
+        result.addAll(getMatchingDataTypes(values, Long.class, locale, threshold));
+        result.addAll(getMatchingDataTypes(values, Date.class, locale, threshold));
+        result.addAll(getMatchingDataTypes(values, Double.class, locale, threshold));
         result.add(new Pair<DataType<?>, Double>(DataType.STRING, 1.0d));
         
         // Sort order
@@ -447,11 +432,7 @@ public abstract class DataHandle {
     public int getNumConformingValues(int column, DataType<?> type) {
         checkRegistry();
         checkColumn(column);
-        int count = 0;
-        for (String value : this.getDistinctValues(column)) {
-            count += type.isValid(value) ? 1 : 0;
-        }
-        return count;
+        return getNumConformingValues(this.getDistinctValues(column), type, 0d);
     }
 
     /**
@@ -556,6 +537,17 @@ public abstract class DataHandle {
      */
     public abstract String getValue(int row, int col);
 
+    /**
+     * Returns the current version of the data represented by this handle. The version
+     * changes whenever the data is modified, e.g. by sorting, swapping or replacing values.
+     * Returns -1 if the handle is orphaned.
+     *
+     * @return the version
+     */
+    public int getVersion() {
+        return registry == null ? -1 : registry.getVersion();
+    }
+
     /**
      * Returns a new data handle that represents a context specific view on the dataset.
      *
@@ -928,6 +920,83 @@ public abstract class DataHandle {
      */
     protected abstract String[] getDistinctValues(int column, boolean ignoreSuppression, InterruptHandler handler);
 
+    /**
+     * Returns the data types for the given wrapped class to which the given share of the given
+     * values conform. Candidate formats are tested in parallel, each with its own instance of
+     * the data type, as parsing is not thread-safe.
+     *
+     * @param values
+     * @param clazz
+     * @param locale
+     * @param threshold
+     * @return
+     */
+    private <U> List<Pair<DataType<?>, Double>> getMatchingDataTypes(final String[] values,
+                                                                     Class<U> clazz,
+                                                                     Locale locale,
+                                                                     final double threshold) {
+
+        List<Pair<DataType<?>, Double>> result = new ArrayList<Pair<DataType<?>, Double>>();
+        DataTypeDescription<U> description = DataType.list(clazz);
+        if (description == null) {
+            return result;
+        }
+
+        // Collect candidates
+        final List<DataType<U>> types = new ArrayList<DataType<U>>();
+        if (description.hasFormat()) {
+            for (String format : description.getExampleFormats()) {
+                types.add(description.newInstance(format, locale));
+            }
+        } else {
+            types.add(description.newInstance());
+        }
+
+        // Test candidates
+        final double distinct = values.length;
+        final double[] matching = new double[types.size()];
+        IntStream.range(0, types.size()).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int index) {
+                matching[index] = getNumConformingValues(values, types.get(index), threshold) / distinct;
+            }
+        });
+        for (int i = 0; i < types.size(); i++) {
+            if (matching[i] >= threshold) {
+                result.add(new Pair<DataType<?>, Double>(types.get(i), matching[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of the given values that conform to the given data type. Values are
+     * tested in a stratified order, starting with a sample spread evenly across all values, and
+     * the test is aborted as soon as the share of conforming values cannot reach the given
+     * threshold anymore. Returns -1 in this case.
+     *
+     * @param values
+     * @param type
+     * @param threshold
+     * @return
+     */
+    private int getNumConformingValues(String[] values, DataType<?> type, double threshold) {
+        double distinct = values.length;
+        int stride = Math.max(1, values.length / SAMPLE_SIZE);
+        int count = 0;
+        int failures = 0;
+        for (int offset = 0; offset < stride; offset++) {
+            for (int i = offset; i < values.length; i += stride) {
+                if (type.isValid(values[i])) {
+                    count++;
+                } else if ((values.length - ++failures) / distinct < threshold) {
+                    return -1;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Returns the registry associated with this handle.
      *
@@ -951,29 +1020,18 @@ public abstract class DataHandle {
      * data types for comparison. If no datatype is specified for a specific
      * column it uses string comparison.
      *
-     * @param row1 the row1
-     * @param row2 the row2
-     * @param columns the columns
-     * @param ascending the ascending
+     * @param column the column
+     * @param value1 the first value
+     * @param value2 the second value
      * @return the int
      */
-    protected int internalCompare(final int row1,
-                                  final int row2,
-                                  final int[] columns,
-                                  final boolean ascending) {
+    protected int internalCompare(final int column,
+                                  final String value1,
+                                  final String value2) {
 
         checkRegistry();
         try {
-            for (int i = 0; i < columns.length; i++) {
-
-                int index = columns[i];
-                int cmp = columnToDataType[index].compare(internalGetValue(row1, index, false),
-                                                   internalGetValue(row2, index, false));
-                if (cmp != 0) {
-                    return ascending ? cmp : -cmp;
-                }
-            }
-            return 0;
+            return columnToDataType[column].compare(value1, value2);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
@@ -988,6 +1046,15 @@ public abstract class DataHandle {
      */
     protected abstract int internalGetEncodedValue(int row, int col, boolean ignoreSuppression);
 
+    /**
+     * Returns the values of the given column indexed by their codes. Returns null
+     * if the values of the column are not encoded, e.g. for removed attributes.
+     *
+     * @param col the col
+     * @return the values
+     */
+    protected abstract String[] internalGetDictionary(int col);
+
     /**
      * Internal representation of get value.
      *
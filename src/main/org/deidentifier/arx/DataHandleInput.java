@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -36,6 +38,9 @@ import org.deidentifier.arx.framework.data.Dictionary;
  */
 public class DataHandleInput extends DataHandle {
 
+    /** Version of the binary representation written by {@link #write(ObjectOutputStream)}. */
+    static final int     ENCODING_VERSION   = 1;
+
     /** The data. */
     protected DataMatrix data               = null;
 
@@ -64,6 +69,19 @@ public class DataHandleInput extends DataHandle {
      */
     protected DataHandleInput(final Data data) {
         
+        // Optimized code-path, if the data has already been encoded
+        if (data instanceof Data.EncodedData) {
+            Data.EncodedData encoded = (Data.EncodedData) data;
+            this.setRegistry(new DataRegistry());
+            this.getRegistry().updateInput(this);
+            this.definition = data.getDefinition().clone();
+            super.setHeader(Arrays.copyOf(encoded.getHeader(), encoded.getHeader().length));
+            this.data = encoded.getData();
+            this.dictionary = encoded.getDictionary();
+            this.columnToDataType = getColumnToDataType();
+            return;
+        }
+        
         // Obtain and check iterator
         Iterator<String[]> iterator = data.iterator();
         if (!iterator.hasNext()) { 
@@ -315,6 +333,11 @@ public class DataHandleInput extends DataHandle {
         return -1;
     }
 
+    @Override
+    protected String[] internalGetDictionary(final int column) {
+        return dictionary.getMapping()[column];
+    }
+
     @Override
     protected int internalGetEncodedValue(final int row, final int column, final boolean ignoreSuppression) {
         return data.get(row, column);
@@ -438,4 +461,49 @@ public class DataHandleInput extends DataHandle {
         this.dataGeneralized = dataGeneralized;
         this.dataAnalyzed = dataAnalyzed;
     }
+
+    /**
+     * Writes the data in encoded form, which can be read with {@link Data#read(java.io.ObjectInputStream)}
+     * without parsing and encoding the values again. Values are re-encoded in order of their
+     * appearance, as they would be when parsing the data. The data definition is not written.
+     * The stream is flushed but not closed.
+     * 
+     * @param oos the stream to write to
+     * @throws IOException
+     */
+    public void write(ObjectOutputStream oos) throws IOException {
+        checkRegistry();
+
+        // Re-encode
+        int rows = data.getNumRows();
+        int columns = header.length;
+        int[][] codes = new int[columns][];
+        String[][] values = new String[columns][];
+        for (int column = 0; column < columns; column++) {
+            String[] mapping = dictionary.getMapping()[column];
+            codes[column] = new int[mapping.length];
+            Arrays.fill(codes[column], -1);
+            List<String> list = new ArrayList<String>();
+            for (int row = 0; row < rows; row++) {
+                int code = data.get(row, column);
+                if (codes[column][code] == -1) {
+                    codes[column][code] = list.size();
+                    list.add(mapping[code]);
+                }
+            }
+            values[column] = list.toArray(new String[list.size()]);
+        }
+
+        // Write
+        oos.writeInt(ENCODING_VERSION);
+        oos.writeObject(header);
+        oos.writeObject(values);
+        oos.writeInt(rows);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                oos.writeInt(codes[column][data.get(row, column)]);
+            }
+        }
+        oos.flush();
+    }
 }
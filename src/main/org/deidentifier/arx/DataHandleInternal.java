@@ -18,6 +18,7 @@
 package org.deidentifier.arx;
 
 import org.deidentifier.arx.aggregates.StatisticsBuilder;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyHistogram;
 
 /**
  * Wrapper class that provides information to StatisticsBuilder.
@@ -175,6 +176,15 @@ public class DataHandleInternal {
         return this.handle;
     }
 
+    /**
+     * Returns the sizes of the equivalence classes determined when the transformation was applied.
+     * Returns null if they are not available, e.g. for input data or views on subsets.
+     * @return
+     */
+    public HashGroupifyHistogram getHistogram() {
+        return handle instanceof DataHandleOutput ? ((DataHandleOutput)handle).getHistogram() : null;
+    }
+
     /**
      * Method
      * @return
@@ -234,6 +244,28 @@ public class DataHandleInternal {
         return this.handle.getValueIdentifier(column, value);
     }
     
+    /**
+     * Returns the indices of the rows of the superset that are contained in this subset,
+     * null if this handle is no subset
+     * @return
+     */
+    public int[] getSubsetRows() {
+        if (!(handle instanceof DataHandleSubset)) {
+            return null;
+        } else {
+            return ((DataHandleSubset)handle).getSubset();
+        }
+    }
+    
+    /**
+     * Returns the version of the underlying data, which changes whenever the data is modified.
+     * Returns -1 if the handle is not associated with a registry.
+     * @return
+     */
+    public int getVersion() {
+        return handle.getVersion();
+    }
+
     /**
      * Returns the view
      * @return
@@ -30,6 +30,7 @@ import org.deidentifier.arx.ARXLattice.ARXNode;
 import org.deidentifier.arx.ARXLattice.Anonymity;
 import org.deidentifier.arx.DataHandleInternal.InterruptHandler;
 import org.deidentifier.arx.aggregates.StatisticsBuilder;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyHistogram;
 import org.deidentifier.arx.framework.data.Data;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.DataMatrix;
@@ -114,6 +115,18 @@ public class DataHandleOutput extends DataHandle {
     /** Flag determining whether this buffer is anonymous */
     private boolean       anonymous = false;
 
+    /** Hierarchy levels used to generalize values on read, null if generalized data has been materialized */
+    private int[][]       hierarchies;
+
+    /** Suppressed records, if values are generalized on read */
+    private RowSet        suppressed;
+
+    /** Materialized copy of values generalized on read, created on demand */
+    private Data          materialized;
+
+    /** Sizes of equivalence classes determined when the transformation was applied, if any */
+    private HashGroupifyHistogram histogram;
+
     /**
      * Instantiates a new handle.
      * 
@@ -122,6 +135,7 @@ public class DataHandleOutput extends DataHandle {
      * @param manager
      * @param outputGeneralized
      * @param outputMicroaggregated
+     * @param histogram
      * @param node
      * @param definition
      * @param config
@@ -131,17 +145,58 @@ public class DataHandleOutput extends DataHandle {
                                final DataManager manager,
                                final Data outputGeneralized,
                                final Data outputMicroaggregated,
+                               final HashGroupifyHistogram histogram,
                                final ARXNode node,
                                final DataDefinition definition,
                                final ARXConfiguration config) {
         
         // Initialize
+        this.histogram = histogram;
         this.initialize(result, registry, manager, outputGeneralized, outputMicroaggregated, node, definition, config);
 
         // Obtain data types
         this.columnToDataType = getColumnToDataType();
     }
         
+    /**
+     * Instantiates a new handle, which generalizes values on read. Generalized values are
+     * derived from the input data, which is shared with the input handle, and the hierarchies.
+     * 
+     * @param result
+     * @param registry
+     * @param manager
+     * @param suppressed
+     * @param outputMicroaggregated
+     * @param histogram
+     * @param node
+     * @param definition
+     * @param config
+     */
+    protected DataHandleOutput(final ARXResult result,
+                               final DataRegistry registry,
+                               final DataManager manager,
+                               final RowSet suppressed,
+                               final Data outputMicroaggregated,
+                               final HashGroupifyHistogram histogram,
+                               final ARXNode node,
+                               final DataDefinition definition,
+                               final ARXConfiguration config) {
+        
+        // Prepare generalization
+        this.histogram = histogram;
+        this.hierarchies = new int[manager.getHierarchies().length][];
+        for (int i = 0; i < hierarchies.length; i++) {
+            this.hierarchies[i] = manager.getHierarchies()[i].getArray(node.getTransformation()[i]);
+        }
+        this.suppressed = suppressed;
+        
+        // Initialize
+        this.initialize(result, registry, manager, manager.getDataGeneralized(), outputMicroaggregated, node, definition, config);
+
+        // Obtain data types
+        this.columnToDataType = getColumnToDataType();
+    }
+    
     /**
      * Instantiates a new handle.
      * 
@@ -163,9 +218,22 @@ public class DataHandleOutput extends DataHandle {
                                final DataDefinition definition,
                                final ARXConfiguration config) throws ClassNotFoundException, IOException {
         
-        // Read data from stream
+        // Read data from stream. If values are generalized on read, the transformation
+        // and the suppressed records are stored instead of generalized data.
         ObjectInputStream ois = new ObjectInputStream(stream);
-        Data outputGeneralized = (Data) ois.readObject();
+        Object generalized = ois.readObject();
+        Data outputGeneralized;
+        if (generalized instanceof int[]) {
+            int[] transformation = (int[]) generalized;
+            this.hierarchies = new int[manager.getHierarchies().length][];
+            for (int i = 0; i < hierarchies.length; i++) {
+                this.hierarchies[i] = manager.getHierarchies()[i].getArray(transformation[i]);
+            }
+            this.suppressed = (RowSet) ois.readObject();
+            outputGeneralized = manager.getDataGeneralized();
+        } else {
+            outputGeneralized = (Data) generalized;
+        }
         Data outputMicroaggregated = (Data) ois.readObject();
         DataType<?>[] dataTypes = (DataType<?>[]) ois.readObject();
 
@@ -249,13 +317,19 @@ public class DataHandleOutput extends DataHandle {
     }
     
     /**
-     * Internal method: writes some data into the output stream
+     * Internal method: writes some data into the output stream. If values are generalized on read,
+     * the transformation and the suppressed records are written instead of generalized data.
      * @param out
      * @throws IOException 
      */
     public void write(OutputStream out) throws IOException {
         ObjectOutputStream oos = new ObjectOutputStream(out);
-        oos.writeObject(this.dataGeneralized);
+        if (isVirtual()) {
+            oos.writeObject(this.node.getTransformation());
+            oos.writeObject(this.suppressed);
+        } else {
+            oos.writeObject(this.dataGeneralized);
+        }
         oos.writeObject(this.dataAggregated);
         oos.writeObject(this.columnToDataType);
     }
@@ -345,6 +419,9 @@ public class DataHandleOutput extends DataHandle {
         dataInput = null;
         dataGeneralized = null;
         dataAggregated = null;
+        hierarchies = null;
+        suppressed = null;
+        materialized = null;
         registry = null;
         subset = null;
         columnToDataType = null;
@@ -472,6 +549,24 @@ public class DataHandleOutput extends DataHandle {
         return vals.toArray(new String[vals.size()]);
     }
         
+    /**
+     * Returns the sizes of the equivalence classes determined when the transformation was applied.
+     * Returns null if they are not available or have become invalid, e.g. because the data has
+     * been optimized, or if suppression is not applied to all quasi-identifiers.
+     * @return
+     */
+    protected HashGroupifyHistogram getHistogram() {
+        if (histogram == null || optimized) {
+            return null;
+        }
+        for (String attribute : getDefinition().getQuasiIdentifyingAttributes()) {
+            if (!columnToSuppressionStatus[getColumnIndexOf(attribute)]) {
+                return null;
+            }
+        }
+        return histogram;
+    }
+        
     /**
      * Returns the input buffer
      * @return
@@ -482,11 +577,31 @@ public class DataHandleOutput extends DataHandle {
     }
     
     /**
-     * Returns the output buffer
+     * Returns the output buffer. If values are generalized on read, a materialized copy is returned,
+     * which is kept until rows are swapped.
      * @return
      */
     protected Data getOutputBufferGeneralized() {
-        return dataGeneralized;
+        if (!isVirtual()) {
+            return dataGeneralized;
+        }
+        if (materialized != null) {
+            return materialized;
+        }
+        int rows = dataGeneralized.getDataLength();
+        int columns = dataGeneralized.getHeader().length;
+        DataMatrix matrix = new DataMatrix(rows, columns);
+        for (int row = 0; row < rows; row++) {
+            matrix.setRow(row);
+            for (int index = 0; index < columns; index++) {
+                matrix.setValueAtColumn(index, getEncodedValue(dataGeneralized, row, index));
+            }
+            if (suppressed.contains(row)) {
+                matrix.or(row, Data.OUTLIER_MASK);
+            }
+        }
+        materialized = Data.createWrapper(matrix, dataGeneralized.getHeader(), dataGeneralized.getColumns(), dataGeneralized.getDictionary());
+        return materialized;
     }
     
     /**
@@ -497,6 +612,21 @@ public class DataHandleOutput extends DataHandle {
         return dataAggregated;
     }
     
+    /**
+     * Returns the code of the value in the given row and column of the given block of data
+     * @param data
+     * @param row
+     * @param index
+     * @return
+     */
+    private int getEncodedValue(Data data, int row, int index) {
+        int code = data.getArray().get(row, index) & Data.REMOVE_OUTLIER_MASK;
+        if (data == dataGeneralized && isVirtual()) {
+            code = hierarchies[index][code];
+        }
+        return code;
+    }
+    
     @Override
     protected int getValueIdentifier(int column, String value) {
         
@@ -524,45 +654,37 @@ public class DataHandleOutput extends DataHandle {
      * A negative integer, zero, or a positive integer as the first argument is
      * less than, equal to, or greater than the second. It uses the specified
      * data types for comparison if no generalization was applied, otherwise it
-     * uses string comparison.
+     * uses string comparison. Suppressed values are greater than all other values.
      * 
-     * @param row1
-     * @param row2
-     * @param columns
-     * @param ascending
+     * @param column
+     * @param value1
+     * @param value2
      * @return the int
      */
     @Override
-    protected int internalCompare(final int row1,
-                                  final int row2,
-                                  final int[] columns,
-                                  final boolean ascending) {
+    protected int internalCompare(final int column,
+                                  final String value1,
+                                  final String value2) {
         
-        for (final int col : columns) {
-            
-            // Identifying attributes are removed from output data
-            if (columnToData[col] == null) {
-                continue;
-            }
-            
-            int cmp = 0;
-            
-            try {
-                String s1 = internalGetValue(row1, col, false);
-                String s2 = internalGetValue(row2, col, false);
-                cmp = (s1 == DataType.ANY_VALUE && s2 == DataType.ANY_VALUE) ? 0
-                        : (s1 == DataType.ANY_VALUE ? +1
-                                : (s2 == DataType.ANY_VALUE ? -1
-                                        : columnToDataType[col].compare(s1, s2)));
-            } catch (final Exception e) {
-                throw new RuntimeException(e);
-            }
-            
-            if (cmp != 0) {
-                return ascending ? cmp : -cmp;
-            }
+        // Identifying attributes are removed from output data
+        if (columnToData[column] == null) {
+            return 0;
         }
-        return 0;
+        
+        try {
+            return (value1 == DataType.ANY_VALUE && value2 == DataType.ANY_VALUE) ? 0
+                    : (value1 == DataType.ANY_VALUE ? +1
+                            : (value2 == DataType.ANY_VALUE ? -1
+                                    : columnToDataType[column].compare(value1, value2)));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected String[] internalGetDictionary(final int col) {
+        Data data = columnToData[col];
+        return data == null ? null : data.getDictionary().getMapping()[columnToIndex[col]];
     }
 
     @Override
@@ -578,14 +700,14 @@ public class DataHandleOutput extends DataHandle {
             return -1;
             
         // Handle suppressed values
-        } else if (!ignoreSuppression && (dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) !=0 && columnToSuppressionStatus[col]) {
+        } else if (!ignoreSuppression && internalIsOutlier(row) && columnToSuppressionStatus[col]) {
             return -1;
             
         // Handle all other values
         } else {
             
             // Decode and return
-            return data.getArray().get(row, columnToIndex[col]) & Data.REMOVE_OUTLIER_MASK;
+            return getEncodedValue(data, row, columnToIndex[col]);
         }
     }
     
@@ -610,14 +732,14 @@ public class DataHandleOutput extends DataHandle {
             return DataType.ANY_VALUE;
             
         // Handle suppressed values
-        } else if (!ignoreSuppression && (dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) !=0 && columnToSuppressionStatus[col]) {
+        } else if (!ignoreSuppression && internalIsOutlier(row) && columnToSuppressionStatus[col]) {
             return DataType.ANY_VALUE;
             
         // Handle all other values
         } else {
             
             // Decode
-            int value = data.getArray().get(row, index) & Data.REMOVE_OUTLIER_MASK;
+            int value = getEncodedValue(data, row, index);
             String[][] dictionary = data.getDictionary().getMapping();
             return dictionary[index][value];
         }
@@ -630,6 +752,9 @@ public class DataHandleOutput extends DataHandle {
      * @return
      */
     protected boolean internalIsOutlier(final int row) {
+        if (isVirtual()) {
+            return suppressed.contains(row);
+        }
         return ((dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) != 0);
     }
     
@@ -647,7 +772,7 @@ public class DataHandleOutput extends DataHandle {
             }
                 
             // Suppressed values are suppressed
-            if ((dataGeneralized.getArray().get(row, 0) & Data.OUTLIER_MASK) !=0 && columnToSuppressionStatus[column]) {
+            if (internalIsOutlier(row) && columnToSuppressionStatus[column]) {
                 continue;
             }
             
@@ -656,7 +781,7 @@ public class DataHandleOutput extends DataHandle {
             
             // Completely generalized values are suppressed
             int suppressed = data.getDictionary().getSuppressedCodes()[index];
-            if ((data.getArray().get(row, index) & Data.REMOVE_OUTLIER_MASK) == suppressed) {
+            if (getEncodedValue(data, row, index) == suppressed) {
                 continue;
             }
             
@@ -710,8 +835,14 @@ public class DataHandleOutput extends DataHandle {
      */
     protected void internalSwap(final int row1, final int row2) {
         
-        // Swap generalized data
-        dataGeneralized.getArray().swap(row1, row2);
+        // Swap generalized data. If values are generalized on read, the
+        // input data is swapped together with the input handle.
+        if (isVirtual()) {
+            suppressed.swap(row1, row2);
+            materialized = null;
+        } else {
+            dataGeneralized.getArray().swap(row1, row2);
+        }
         
         // Swap aggregated data
         if (dataAggregated.getArray().getNumRows() != 0) {
@@ -724,6 +855,41 @@ public class DataHandleOutput extends DataHandle {
         return this.anonymous;
     }
 
+    /**
+     * Returns whether values are generalized on read
+     * @return
+     */
+    protected boolean isVirtual() {
+        return this.hierarchies != null;
+    }
+
+    /**
+     * Materializes generalized values, if they are generalized on read. Required before
+     * modifying the output buffer.
+     */
+    protected void materialize() {
+        if (isVirtual()) {
+            Data buffer = this.getOutputBufferGeneralized();
+            for (int column = 0; column < header.length; column++) {
+                if (columnToData[column] == dataGeneralized) {
+                    columnToData[column] = buffer;
+                }
+            }
+            this.dataGeneralized = buffer;
+            this.hierarchies = null;
+            this.suppressed = null;
+            this.materialized = null;
+        }
+    }
+
+    /**
+     * Drops the sizes of the equivalence classes determined when the transformation was applied,
+     * e.g. because values have been replaced
+     */
+    protected void resetHistogram() {
+        this.histogram = null;
+    }
+
     /**
      * Marks this handle as optimized
      * @param optimized
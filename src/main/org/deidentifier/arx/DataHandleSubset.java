@@ -205,10 +205,15 @@ public class DataHandleSubset extends DataHandle {
     }
 
     @Override
-    protected int internalCompare(int row1, int row2, int[] columns, boolean ascending) {
-        return source.internalCompare(this.subset.getArray()[row1], this.subset.getArray()[row2], columns, ascending);
+    protected int internalCompare(int column, String value1, String value2) {
+        return source.internalCompare(column, value1, value2);
     }
     
+    @Override
+    protected String[] internalGetDictionary(int col) {
+        return source.internalGetDictionary(col);
+    }
+
     @Override
     protected int internalGetEncodedValue(int row, int col, boolean ignoreSuppression) {
         return source.internalGetEncodedValue(this.subset.getArray()[row], col, ignoreSuppression);
@@ -229,10 +234,9 @@ public class DataHandleSubset extends DataHandle {
      */
     protected void internalRebuild() {
         int index = 0;
-        for (int i = 0; i < subset.getSet().length(); i++) {
-            if (this.subset.getSet().contains(i)) {
-                this.subset.getArray()[index++] = i;
-            }
+        RowSet set = this.subset.getSet();
+        for (int i = set.nextSetBit(0); i != -1; i = set.nextSetBit(i + 1)) {
+            this.subset.getArray()[index++] = i;
         }
     }
 
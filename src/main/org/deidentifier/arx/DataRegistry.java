@@ -17,16 +17,21 @@
 
 package org.deidentifier.arx;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.ARXLattice.ARXNode;
 
-import cern.colt.GenericSorting;
 import cern.colt.Swapper;
-import cern.colt.function.IntComparator;
 
 /**
  * This class implements sorting and swapping for a set of paired data handles.
@@ -47,6 +52,12 @@ class DataRegistry {
     /** The output subset handle, if any. */
     private Map<ARXNode, DataHandleSubset> outputSubset = new HashMap<ARXNode, DataHandleSubset>();
 
+    /** Number of rows processed per parallel task */
+    private static final int ROWS_PER_TASK = 16384;
+
+    /** Version, incremented whenever the data or the set of handles is modified. */
+    private int version = 0;
+
     /**
      * Default constructor.
      */
@@ -62,11 +73,19 @@ class DataRegistry {
      * @return
      */
     public boolean replace(int column, String original, String replacement) {
+        this.updateVersion();
         boolean replaced = false; 
         replaced |= input.internalReplace(column, original, replacement);
         if (!output.isEmpty()) {
             replaced |= output.values().iterator().next().internalReplace(column, original, replacement);
         }
+        
+        // Replacing values may merge equivalence classes
+        if (replaced) {
+            for (DataHandleOutput handle : output.values()) {
+                handle.resetHistogram();
+            }
+        }
         return replaced;
     }
     
@@ -84,6 +103,188 @@ class DataRegistry {
         return result;
     }
     
+    /**
+     * Reorders rows by applying the given permutation with the given swapper.
+     * At most one swap per row is performed.
+     *
+     * @param swapper
+     * @param from
+     * @param permutation Row at each position, relative to from
+     */
+    private void applyPermutation(Swapper swapper, int from, int[] permutation) {
+        
+        // Original row at each position and position of each original row
+        int[] rows = new int[permutation.length];
+        int[] positions = new int[permutation.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+            positions[i] = i;
+        }
+        
+        // Swap each row into place
+        for (int i = 0; i < permutation.length; i++) {
+            int row = permutation[i];
+            int position = positions[row];
+            if (position != i) {
+                swapper.swap(from + i, from + position);
+                int displaced = rows[i];
+                rows[position] = displaced;
+                positions[displaced] = position;
+                rows[i] = row;
+                positions[row] = i;
+            }
+        }
+    }
+
+    /**
+     * Returns the order of the given range of rows, sorted by the given columns.
+     * Rows with equal values keep their relative order.
+     *
+     * @param handle
+     * @param from
+     * @param to
+     * @param ascending
+     * @param columns
+     * @return Row at each position, relative to from
+     */
+    private int[] getPermutation(final DataHandle handle,
+                                 final int from,
+                                 final int to,
+                                 final boolean ascending,
+                                 final int[] columns) {
+
+        // Rank values
+        final int numRows = to - from;
+        final int[][] ranks = new int[columns.length][];
+        final int[] numRanks = new int[columns.length];
+        IntStream.range(0, columns.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int index) {
+                numRanks[index] = getRanks(handle, from, to, columns[index], ranks, index);
+            }
+        });
+        
+        // Bits required
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(numRows - 1, 0));
+        final int[] rankBits = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            rankBits[i] = 32 - Integer.numberOfLeadingZeros(Math.max(numRanks[i] - 1, 0));
+            bits += rankBits[i];
+        }
+        
+        // Sort keys consisting of ranks and row
+        final int[] permutation = new int[numRows];
+        if (bits <= 63) {
+            final int rowBits = 32 - Integer.numberOfLeadingZeros(Math.max(numRows - 1, 0));
+            final long[] keys = new long[numRows];
+            final int chunks = (numRows + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+            IntStream.range(0, chunks).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(int chunk) {
+                    int end = Math.min(numRows, (chunk + 1) * ROWS_PER_TASK);
+                    for (int row = chunk * ROWS_PER_TASK; row < end; row++) {
+                        long key = 0;
+                        for (int i = 0; i < ranks.length; i++) {
+                            int rank = ascending ? ranks[i][row] : numRanks[i] - 1 - ranks[i][row];
+                            key = (key << rankBits[i]) | rank;
+                        }
+                        keys[row] = (key << rowBits) | row;
+                    }
+                }
+            });
+            Arrays.parallelSort(keys);
+            long mask = (1L << rowBits) - 1L;
+            for (int i = 0; i < numRows; i++) {
+                permutation[i] = (int) (keys[i] & mask);
+            }
+        } else {
+            Integer[] rows = new Integer[numRows];
+            for (int i = 0; i < numRows; i++) {
+                rows[i] = i;
+            }
+            // Stable
+            Arrays.parallelSort(rows, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer row1, Integer row2) {
+                    for (int i = 0; i < ranks.length; i++) {
+                        int cmp = Integer.compare(ranks[i][row1], ranks[i][row2]);
+                        if (cmp != 0) {
+                            return ascending ? cmp : -cmp;
+                        }
+                    }
+                    return 0;
+                }
+            });
+            for (int i = 0; i < numRows; i++) {
+                permutation[i] = rows[i];
+            }
+        }
+        return permutation;
+    }
+
+    /**
+     * Ranks the values in the given range of rows of the given column. Distinct values are
+     * ordered once, using the comparison implemented by the handle. Equal values share a rank.
+     *
+     * @param handle
+     * @param from
+     * @param to
+     * @param column
+     * @param ranks Array in which the ranks of all rows are stored, relative to from
+     * @param index Index in the array
+     * @return The number of ranks
+     */
+    private int getRanks(final DataHandle handle,
+                         final int from,
+                         final int to,
+                         final int column,
+                         final int[][] ranks,
+                         final int index) {
+        
+        // Collect distinct values. Values are compared by identity, because
+        // handles represent suppressed values with a dedicated instance.
+        Map<String, Integer> codes = new IdentityHashMap<String, Integer>();
+        final List<String> values = new ArrayList<String>();
+        int[] result = new int[to - from];
+        for (int row = from; row < to; row++) {
+            String value = handle.internalGetValue(row, column, false);
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            result[row - from] = code;
+        }
+        
+        // Order distinct values
+        Integer[] order = new Integer[values.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer code1, Integer code2) {
+                return handle.internalCompare(column, values.get(code1), values.get(code2));
+            }
+        });
+        
+        // Rank
+        int[] rank = new int[order.length];
+        int current = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i > 0 && handle.internalCompare(column, values.get(order[i - 1]), values.get(order[i])) != 0) {
+                current++;
+            }
+            rank[order[i]] = current;
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] = rank[result[i]];
+        }
+        ranks[index] = result;
+        return order.length == 0 ? 0 : current + 1;
+    }
+
     /**
      * Returns any of the registered subsets.
      *
@@ -115,16 +316,10 @@ class DataRegistry {
                          final int to,
                          final boolean ascending,
                          final int... columns) {
+        this.updateVersion();
 
-        final DataHandle outer = handle;
         final DataHandleSubset subset = getSubset();
         
-        final IntComparator c = new IntComparator() {
-            @Override
-            public int compare(final int arg0, final int arg1) {
-                return outer.internalCompare(arg0, arg1, columns, ascending);
-            }
-        };
         final Swapper s = new Swapper() {
             @Override
             public void swap(final int arg0, final int arg1) {
@@ -135,7 +330,7 @@ class DataRegistry {
             }
         };
         
-        GenericSorting.mergeSort(from, to, c, s);
+        applyPermutation(s, from, getPermutation(handle, from, to, ascending, columns));
         
         if (subset != null){
             subset.internalRebuild();
@@ -158,14 +353,9 @@ class DataRegistry {
                               final int to,
                               final boolean ascending,
                               final int... columns) {
+        this.updateVersion();
 
         final DataHandleSubset outer = handle;
-        final IntComparator c = new IntComparator() {
-            @Override
-            public int compare(final int arg0, final int arg1) {
-                return outer.internalCompare(arg0, arg1, columns, ascending);
-            }
-        };
         final Swapper s = new Swapper() {
             @Override
             public void swap(final int arg0, final int arg1) {
@@ -182,7 +372,7 @@ class DataRegistry {
         };
         
         // No need to swap and rebuild the subset views
-        GenericSorting.mergeSort(from, to, c, s);
+        applyPermutation(s, from, getPermutation(handle, from, to, ascending, columns));
     }
     
     /**
@@ -193,6 +383,7 @@ class DataRegistry {
      * @param row2
      */
     private void swapAll(DataHandle handle, int row1, int row2) {
+        this.updateVersion();
         if (input != null) {
             input.internalSwap(row1, row2);
         }
@@ -216,6 +407,7 @@ class DataRegistry {
      * @param row2
      */
     private void swapSubset(DataHandleSubset handle, int row1, int row2) {
+        this.updateVersion();
         
         // Nothing to do for subsets
         row1 = handle.internalTranslate(row1);
@@ -230,6 +422,7 @@ class DataRegistry {
      * @param config
      */
     protected void createInputSubset(ARXConfiguration config){
+        this.updateVersion();
         
         if (config.getSubset() != null) {
             this.inputSubset = createSubset(this.input, config.getSubset());
@@ -246,6 +439,7 @@ class DataRegistry {
      * @param config
      */
     protected void createOutputSubset(ARXNode node, ARXConfiguration config){
+        this.updateVersion();
         if (config.getSubset() != null) {
             this.outputSubset.put(node, createSubset(this.output.get(node), config.getSubset()));
         } else {
@@ -282,6 +476,16 @@ class DataRegistry {
         return this.output.get(node);
     }
     
+    /**
+     * Returns the current version. The version changes whenever data is modified,
+     * e.g. by sorting or swapping, or handles are registered or released.
+     *
+     * @return
+     */
+    protected int getVersion() {
+        return this.version;
+    }
+    
     /**
      * Implementation of {@link DataHandle#isOutlier(row)}.
      *
@@ -308,6 +512,7 @@ class DataRegistry {
      * @param handle
      */
     protected void release(DataHandle handle) {
+        this.updateVersion();
         
         // Handle subsets
         if (handle instanceof DataHandleSubset) {
@@ -337,6 +542,7 @@ class DataRegistry {
      * Removes the association to all handles, but the input handle.
      */
     protected void reset() {
+        this.updateVersion();
         while (!this.output.entrySet().isEmpty()) {
             Entry<ARXNode, DataHandleOutput> entry = this.output.entrySet().iterator().next();
             release(entry.getValue());
@@ -439,6 +645,7 @@ class DataRegistry {
      * @param input
      */
     protected void updateInput(DataHandleInput input){
+        this.updateVersion();
         this.input = input;
     }
 
@@ -449,6 +656,14 @@ class DataRegistry {
      * @param output
      */
     protected void updateOutput(ARXNode node, DataHandleOutput output){
+        this.updateVersion();
         this.output.put(node, output);
     }
+
+    /**
+     * Marks the data managed by this registry as modified
+     */
+    protected void updateVersion() {
+        this.version++;
+    }
 }
\ No newline at end of file
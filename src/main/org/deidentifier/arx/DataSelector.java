@@ -20,11 +20,18 @@ package org.deidentifier.arx;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.DataType.ARXDate;
 import org.deidentifier.arx.DataType.ARXDecimal;
 
+import com.carrotsearch.hppc.LongIntOpenHashMap;
+import com.carrotsearch.hppc.LongOpenHashSet;
+
 import de.linearbits.objectselector.IAccessor;
 import de.linearbits.objectselector.Selector;
 import de.linearbits.objectselector.SelectorBuilder;
@@ -57,6 +64,12 @@ public class DataSelector { // NO_UCD
         /** The indices. */
         private final Map<String, Integer> indices;
         
+        /** Parsed values per column and code. */
+        private final Object[][] values;
+        
+        /** The fields referenced by the selector. */
+        private final Set<String> fields = new LinkedHashSet<String>();
+        
         /**
          * Creates a new instance.
          *
@@ -67,6 +80,7 @@ public class DataSelector { // NO_UCD
             this.definition = data.getDefinition();
             this.types = getTypes();
             this.indices = getIndices();
+            this.values = new Object[handle.getNumColumns()][];
         }
         
         @Override
@@ -76,16 +90,26 @@ public class DataSelector { // NO_UCD
 
         @Override
         public DataType<?> getType(String arg0) {
+            fields.add(arg0);
             return types.get(arg0);
         }
 
         @Override
         public Object getValue(Integer arg0, String arg1) {
             
+            // Each distinct value is parsed only once
             int column = indices.get(arg1);
-            DataType<?> type = types.get(arg1);
-            String value = handle.getValue(arg0, column);
-            return type.fromString(value);
+            int code = handle.internalGetEncodedValue(arg0, column, false);
+            if (values[column] == null) {
+                values[column] = new Object[handle.getDistinctValues(column).length];
+            }
+            Object value = values[column][code];
+            if (value == null) {
+                DataType<?> type = types.get(arg1);
+                value = type.fromString(handle.getValue(arg0, column));
+                values[column][code] = value != null ? value : NULL_VALUE;
+            }
+            return value != NULL_VALUE ? value : null;
         }
 
         @Override
@@ -161,6 +185,15 @@ public class DataSelector { // NO_UCD
         return new DataSelector(data, query);
     }
    
+    /** Placeholder for values that cannot be parsed. */
+    private static final Object            NULL_VALUE    = new Object();
+
+    /** Number of rows processed per task when selecting rows. Must be a multiple of 64. */
+    private static final int               ROWS_PER_TASK = 16384;
+
+    /** The accessor. */
+    private final DataAccessor             accessor;
+
     /** The builder. */
     private final SelectorBuilder<Integer> builder;
 
@@ -173,7 +206,8 @@ public class DataSelector { // NO_UCD
      * @param data
      */
     private DataSelector(Data data){
-        this.builder = new SelectorBuilder<Integer>(new DataAccessor(data)); 
+        this.accessor = new DataAccessor(data);
+        this.builder = new SelectorBuilder<Integer>(accessor); 
     }
 
     /**
@@ -184,7 +218,8 @@ public class DataSelector { // NO_UCD
      * @throws ParseException
      */
     private DataSelector(Data data, String query) throws ParseException {
-        this.builder = new SelectorBuilder<Integer>(new DataAccessor(data), query);
+        this.accessor = new DataAccessor(data);
+        this.builder = new SelectorBuilder<Integer>(accessor, query);
     }
     
     /**
@@ -353,6 +388,99 @@ public class DataSelector { // NO_UCD
         return selector.isSelected(row);
     }
 
+    /**
+     * Returns the set of selected rows. The result of the selector only depends on the values
+     * of the fields referenced, which is why it is evaluated only once for each distinct
+     * combination of codes of these fields.
+     *
+     * @return
+     */
+    protected RowSet select() {
+        
+        // Build
+        if (selector == null) {
+            try {
+                build();
+            } catch (ParseException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        
+        // Pack the codes of all referenced fields into one key
+        final DataHandle handle = accessor.handle;
+        final int numRows = handle.getNumRows();
+        final int[] columns = new int[accessor.fields.size()];
+        final int[] shifts = new int[columns.length];
+        int bits = 0;
+        int index = 0;
+        for (String field : accessor.fields) {
+            columns[index] = accessor.indices.get(field);
+            shifts[index] = bits;
+            bits += Math.max(1, 32 - Integer.numberOfLeadingZeros(handle.getDistinctValues(columns[index]).length - 1));
+            index++;
+        }
+        
+        // Evaluate row by row, if keys do not fit into a long
+        if (bits > 63) {
+            RowSet result = RowSet.create(numRows);
+            for (int row = 0; row < numRows; row++) {
+                if (selector.isSelected(row)) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+        
+        // Collect distinct keys and a representative row for each key in parallel
+        final int numChunks = (numRows + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        final LongIntOpenHashMap[] representatives = new LongIntOpenHashMap[numChunks];
+        IntStream.range(0, numChunks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int chunk) {
+                LongIntOpenHashMap _representatives = new LongIntOpenHashMap();
+                int end = Math.min(numRows, (chunk + 1) * ROWS_PER_TASK);
+                for (int row = chunk * ROWS_PER_TASK; row < end; row++) {
+                    long key = getKey(handle, row, columns, shifts);
+                    if (!_representatives.containsKey(key)) {
+                        _representatives.put(key, row);
+                    }
+                }
+                representatives[chunk] = _representatives;
+            }
+        });
+        
+        // Evaluate the selector once per key
+        final LongOpenHashSet selected = new LongOpenHashSet();
+        final LongOpenHashSet evaluated = new LongOpenHashSet();
+        for (LongIntOpenHashMap map : representatives) {
+            final long[] keys = map.keys;
+            final int[] rows = map.values;
+            final boolean[] allocated = map.allocated;
+            for (int i = 0; i < allocated.length; i++) {
+                if (allocated[i] && evaluated.add(keys[i]) && selector.isSelected(rows[i])) {
+                    selected.add(keys[i]);
+                }
+            }
+        }
+        
+        // Select rows in parallel. Chunks are aligned to words.
+        final long[] words = new long[(numRows + 63) / 64];
+        IntStream.range(0, numChunks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int chunk) {
+                int end = Math.min(numRows, (chunk + 1) * ROWS_PER_TASK);
+                for (int row = chunk * ROWS_PER_TASK; row < end; row++) {
+                    if (selected.contains(getKey(handle, row, columns, shifts))) {
+                        words[row >> 6] |= 1L << (row & 63);
+                    }
+                }
+            }
+        });
+        
+        // Return
+        return new RowSet(numRows, words);
+    }
+
     /* **************************************
      * Datetime
      * **************************************/
@@ -428,6 +556,23 @@ public class DataSelector { // NO_UCD
         return this;
     }
 
+    /**
+     * Returns the key of the given row
+     * 
+     * @param handle
+     * @param row
+     * @param columns
+     * @param shifts
+     * @return
+     */
+    private long getKey(DataHandle handle, int row, int[] columns, int[] shifts) {
+        long key = 0L;
+        for (int i = 0; i < columns.length; i++) {
+            key |= (long) handle.internalGetEncodedValue(row, columns[i], false) << shifts[i];
+        }
+        return key;
+    }
+
     /**
      * 
      *
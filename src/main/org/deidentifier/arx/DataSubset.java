@@ -143,23 +143,14 @@ public class DataSubset implements Serializable {
      */
     public static DataSubset create(Data data, DataSelector selector){
         
-        // Init
-        int rows = data.getHandle().getNumRows();
-        RowSet bitset = RowSet.create(data);
-        ArrayList<Integer> list = new ArrayList<Integer>();
-        
-        // Check
-        for (int i=0; i<rows; i++){
-            if (selector.isSelected(i)) {
-                bitset.add(i);
-                list.add(i);
-            }
-        }
+        // Select
+        RowSet bitset = selector.select();
         
         // Convert
-        int[] array = new int[list.size()];
-        for (int i=0; i<list.size(); i++){
-            array[i] = list.get(i);
+        int[] array = new int[bitset.size()];
+        int index = 0;
+        for (int row = bitset.nextSetBit(0); row != -1; row = bitset.nextSetBit(row + 1)) {
+            array[index++] = row;
         }
         
         // Return
@@ -199,13 +190,11 @@ public class DataSubset implements Serializable {
         RowSet bitset = RowSet.create(rows);
         int[] array = new int[subset.size()];
         int idx = 0;
-        for (int i=0; i<rows; i++){
-            if (subset.contains(i)) {
-                bitset.add(i);
-                array[idx++]=i;
-            }
+        for (int i = subset.nextSetBit(0); i != -1 && i < rows; i = subset.nextSetBit(i + 1)) {
+            bitset.add(i);
+            array[idx++] = i;
         }
-        return new DataSubset(bitset, array);
+        return new DataSubset(bitset, idx == array.length ? array : Arrays.copyOf(array, idx));
     }
     
     /**
@@ -287,16 +276,13 @@ public class DataSubset implements Serializable {
      * @return
      */
     protected DataSubset getSubsetInstance(RowSet rowset) {
-        int index = -1;
         RowSet newset = RowSet.create(rowset.size());
         IntArrayList list = new IntArrayList();
-        for (int row = 0; row < this.set.length(); row++) {
-            if (rowset.contains(row)) {
-                index++;
-                if (this.set.contains(row)) {
-                    newset.add(index);
-                    list.add(index);
-                }
+        int index = 0;
+        for (int row = rowset.nextSetBit(0); row != -1 && row < this.set.length(); row = rowset.nextSetBit(row + 1), index++) {
+            if (this.set.contains(row)) {
+                newset.add(index);
+                list.add(index);
             }
         }
         return new DataSubset(newset, list.toArray());
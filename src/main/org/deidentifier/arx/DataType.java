@@ -283,9 +283,16 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
 
         @Override
         public boolean isValid(String s) {
-            try {
-                parse(s);
+            if (s == null) {
+                return false;
+            } else if (s.length() == NULL_VALUE.length() && s.toUpperCase().equals(NULL_VALUE)) {
                 return true;
+            }
+            // Check the position instead of raising exceptions, which is expensive
+            try {
+                ParsePosition pos = new ParsePosition(0);
+                format.parse(s, pos);
+                return pos.getIndex() == s.length() && pos.getErrorIndex() == -1;
             } catch (Exception e){
                 return false;
             }
@@ -572,9 +579,24 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
 
         @Override
         public boolean isValid(String s) {
-            try {
-                parse(s);
+            if (s == null) {
+                return false;
+            } else if (s.length() == NULL_VALUE.length() && s.toUpperCase().equals(NULL_VALUE)) {
                 return true;
+            }
+            // Reject obviously invalid values without raising exceptions, which is expensive
+            try {
+                if (format == null) {
+                    if (!isNumeric(s)) {
+                        return false;
+                    }
+                    Double.valueOf(s);
+                    return true;
+                } else {
+                    ParsePosition pos = new ParsePosition(0);
+                    Number parsed = format.parse(s, pos);
+                    return parsed != null && pos.getIndex() == s.length() && pos.getErrorIndex() == -1;
+                }
             } catch (Exception e){
                 return false;
             }
@@ -853,9 +875,24 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
 
         @Override
         public boolean isValid(String s) {
-            try {
-                parse(s);
+            if (s == null) {
+                return false;
+            } else if (s.length() == NULL_VALUE.length() && s.toUpperCase().equals(NULL_VALUE)) {
                 return true;
+            }
+            // Reject obviously invalid values without raising exceptions, which is expensive
+            try {
+                if (format == null) {
+                    if (!isInteger(s)) {
+                        return false;
+                    }
+                    Long.valueOf(s);
+                    return true;
+                } else {
+                    ParsePosition pos = new ParsePosition(0);
+                    Number parsed = format.parse(s, pos);
+                    return parsed != null && pos.getIndex() != 0;
+                }
             } catch (Exception e){
                 return false;
             }
@@ -1724,6 +1761,45 @@ public abstract class DataType<T> implements Serializable, Comparator<T> { // NO
         }
         return null;
     }
+
+    /**
+     * Returns whether the given value may represent a long, i.e. an optional sign followed
+     * by digits. Overflows are not detected.
+     *
+     * @param value
+     * @return
+     */
+    private static boolean isInteger(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return false;
+        }
+        int start = length > 1 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        for (int i = start; i < length; i++) {
+            if (Character.digit(value.charAt(i), 10) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the given value may represent a double. Returns false only for values
+     * which cannot be parsed by <code>Double.valueOf()</code>, as they neither contain a
+     * digit nor represent infinity or NaN.
+     *
+     * @param value
+     * @return
+     */
+    private static boolean isNumeric(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return value.contains("NaN") || value.contains("Infinity");
+    }
     
     /**
      * Provides a list of example formats for the <code>Date</code> data type.
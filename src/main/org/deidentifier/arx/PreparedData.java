@@ -0,0 +1,198 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.aggregates.HierarchyBuilder;
+import org.deidentifier.arx.framework.data.DataManagerCache;
+import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.framework.data.Dictionary;
+
+/**
+ * Data which has been prepared for being anonymized repeatedly, e.g. with different privacy
+ * models or quality models. Data is encoded and hierarchies are materialized only once. Encoded
+ * hierarchies, domain shares and distributions are created by the first anonymization and are
+ * reused by all further anonymizations, which must not modify them.
+ * Instances are thread-safe: each anonymization works on its own copy of the
+ * encoded data and of the data definition, so that multiple anonymizations can be performed
+ * concurrently, as long as each of them uses its own configuration.
+ *
+ * @author Fabian Prasser
+ */
+public class PreparedData {
+
+    /**
+     * Prepares the given data for repeated anonymization with its current data definition
+     *
+     * @param data
+     * @return
+     */
+    public static PreparedData create(Data data) {
+        if (((DataHandleInput) data.getHandle()).isLocked()) {
+            throw new RuntimeException("This data handle is locked. Please release it first");
+        }
+        return new PreparedData((DataHandleInput) data.getHandle());
+    }
+
+    /** The header */
+    private final String[]            header;
+    /** The encoded data */
+    private final DataMatrix          data;
+    /** The dictionary */
+    private final Dictionary          dictionary;
+    /** The data definition with materialized hierarchies */
+    private final DataDefinition      definition;
+    /** Serialized hierarchy builders, as they are not thread-safe */
+    private final Map<String, byte[]> builders;
+    /** Encoded hierarchies, domain shares and distributions, shared by all anonymizations */
+    private final DataManagerCache    cache = new DataManagerCache();
+
+    /**
+     * Creates a new instance
+     *
+     * @param handle
+     */
+    private PreparedData(DataHandleInput handle) {
+
+        // Materialize hierarchies
+        this.definition = handle.getDefinition().clone();
+        this.definition.setLocked(false);
+        this.definition.materializeHierarchies(handle);
+
+        // Replace all hierarchies, including the ones of sensitive attributes, by immutable copies.
+        // Some implementations are built lazily, which is not thread-safe.
+        for (String attribute : handle.header) {
+            String[][] hierarchy = definition.getHierarchy(attribute);
+            if (hierarchy != null) {
+                this.definition.setHierarchy(attribute, Hierarchy.create(hierarchy));
+            }
+        }
+
+        // Copy data
+        this.header = handle.header.clone();
+        this.data = handle.data.clone();
+        this.dictionary = new Dictionary(handle.dictionary, getColumns(header.length));
+
+        // Store builders
+        this.builders = new HashMap<String, byte[]>();
+        for (String attribute : header) {
+            if (definition.isHierarchyBuilderAvailable(attribute)) {
+                builders.put(attribute, serialize(definition.getHierarchyBuilder(attribute)));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of columns
+     *
+     * @return
+     */
+    public int getNumColumns() {
+        return header.length;
+    }
+
+    /**
+     * Returns the number of rows
+     *
+     * @return
+     */
+    public int getNumRows() {
+        return data.getNumRows();
+    }
+
+    /**
+     * Returns an array of the given number of columns
+     *
+     * @param columns
+     * @return
+     */
+    private int[] getColumns(int columns) {
+        int[] result = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    /**
+     * Deserializes a hierarchy builder
+     *
+     * @param bytes
+     * @return
+     */
+    private HierarchyBuilder<?> deserialize(byte[] bytes) {
+        try {
+            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+            return (HierarchyBuilder<?>) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot copy hierarchy builder", e);
+        }
+    }
+
+    /**
+     * Serializes a hierarchy builder
+     *
+     * @param builder
+     * @return
+     */
+    private byte[] serialize(HierarchyBuilder<?> builder) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bytes);
+            oos.writeObject(builder);
+            oos.close();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot copy hierarchy builder", e);
+        }
+    }
+
+    /**
+     * Returns the parts of data managers which do not depend on the configuration
+     *
+     * @return
+     */
+    DataManagerCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns a new data object for one anonymization, which does not share any mutable state
+     *
+     * @return
+     */
+    Data getData() {
+        DataDefinition definition = this.definition.clone();
+        for (Entry<String, byte[]> entry : builders.entrySet()) {
+            definition.setHierarchy(entry.getKey(), deserialize(entry.getValue()));
+        }
+        return new Data.EncodedData(header.clone(),
+                                    data.clone(),
+                                    new Dictionary(dictionary, getColumns(header.length)),
+                                    definition);
+    }
+}
@@ -86,6 +86,20 @@ public class RowSet implements Serializable, Cloneable {
         this.array = new long[chunks];
     }
 
+    /**
+     * Creates a new instance from the given words
+     *
+     * @param length
+     * @param array
+     */
+    RowSet(int length, long[] array) {
+        this.length = length;
+        this.array = array;
+        for (long word : array) {
+            this.size += Long.bitCount(word);
+        }
+    }
+
     /**
      * Sets a bit
      *
@@ -98,6 +112,34 @@ public class RowSet implements Serializable, Cloneable {
         this.size += array[offset] != temp ? 1 : 0; 
     }
     
+    /**
+     * Retains all bits that are also set in the given set
+     *
+     * @param other
+     */
+    public void and(RowSet other) {
+        checkLength(other);
+        this.size = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] &= other.array[i];
+            this.size += Long.bitCount(array[i]);
+        }
+    }
+
+    /**
+     * Unsets all bits that are set in the given set
+     *
+     * @param other
+     */
+    public void andNot(RowSet other) {
+        checkLength(other);
+        this.size = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] &= ~other.array[i];
+            this.size += Long.bitCount(array[i]);
+        }
+    }
+
     @Override
     public RowSet clone() {
         RowSet set = new RowSet(this.length);
@@ -124,6 +166,63 @@ public class RowSet implements Serializable, Cloneable {
     public int length() {
         return this.length;
     }
+
+    /**
+     * Returns the index of the first bit that is set and that is greater than or equal
+     * to the given index, -1 if there is no such bit. Set bits can be iterated with:
+     * <code>for (int row = set.nextSetBit(0); row != -1; row = set.nextSetBit(row + 1))</code>
+     *
+     * @param fromIndex
+     * @return
+     */
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex >= length) {
+            return -1;
+        }
+        int offset = fromIndex >> ADDRESS_BITS_PER_UNIT;
+        long word = array[offset] & (-1L << (fromIndex & BIT_INDEX_MASK));
+        while (true) {
+            if (word != 0) {
+                return (offset << ADDRESS_BITS_PER_UNIT) + Long.numberOfTrailingZeros(word);
+            }
+            if (++offset == array.length) {
+                return -1;
+            }
+            word = array[offset];
+        }
+    }
+
+    /**
+     * Sets all bits that are set in the given set
+     *
+     * @param other
+     */
+    public void or(RowSet other) {
+        checkLength(other);
+        this.size = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] |= other.array[i];
+            this.size += Long.bitCount(array[i]);
+        }
+    }
+
+    /**
+     * Returns the number of bits set before the given index
+     *
+     * @param rowIndex
+     * @return
+     */
+    public int rank(int rowIndex) {
+        int offset = rowIndex >> ADDRESS_BITS_PER_UNIT;
+        int result = 0;
+        for (int i = 0; i < offset; i++) {
+            result += Long.bitCount(array[i]);
+        }
+        if ((rowIndex & BIT_INDEX_MASK) != 0) {
+            result += Long.bitCount(array[offset] & ~(-1L << (rowIndex & BIT_INDEX_MASK)));
+        }
+        return result;
+    }
     
     /**
      * Unsets a bit
@@ -137,6 +236,31 @@ public class RowSet implements Serializable, Cloneable {
         this.size -= array[offset] != temp ? 1 : 0; 
     }
 
+    /**
+     * Returns the index of the set bit with the given rank, i.e. the number of bits set
+     * before it, -1 if there is no such bit
+     *
+     * @param rank
+     * @return
+     */
+    public int select(int rank) {
+        if (rank < 0 || rank >= size) {
+            return -1;
+        }
+        for (int offset = 0; offset < array.length; offset++) {
+            int count = Long.bitCount(array[offset]);
+            if (rank < count) {
+                long word = array[offset];
+                for (int i = 0; i < rank; i++) {
+                    word &= word - 1;
+                }
+                return (offset << ADDRESS_BITS_PER_UNIT) + Long.numberOfTrailingZeros(word);
+            }
+            rank -= count;
+        }
+        return -1;
+    }
+
     /**
      * Returns the number of bits set
      *
@@ -168,4 +292,29 @@ public class RowSet implements Serializable, Cloneable {
             remove(rowIndex2);
         }
     }
+
+    /**
+     * Toggles all bits that are set in the given set
+     *
+     * @param other
+     */
+    public void xor(RowSet other) {
+        checkLength(other);
+        this.size = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= other.array[i];
+            this.size += Long.bitCount(array[i]);
+        }
+    }
+
+    /**
+     * Checks whether the given set has the same length
+     *
+     * @param other
+     */
+    private void checkLength(RowSet other) {
+        if (other.length != this.length) {
+            throw new IllegalArgumentException("Row sets must have the same length");
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+/**
+ * A column of a data set with a ratio scale, whose values are accessed as numbers.
+ * Values are parsed only once per data set and then shared by all subsets and views.
+ * Suppressed values are represented by <code>DataType.ANY_VALUE</code>.
+ *
+ * @author Fabian Prasser
+ */
+public class TypedColumn {
+
+    /**
+     * Returns typed columns for the given columns of the given data set. Returns
+     * <code>null</code> for columns which do not have a data type with ratio scale.
+     *
+     * @param handle
+     * @param columns
+     * @return
+     */
+    public static TypedColumn[] get(DataHandle handle, int[] columns) {
+        TypedDictionary[] dictionaries = TypedDictionaryCache.getDictionaries(handle, columns);
+        TypedColumn[] result = new TypedColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (dictionaries[i] != null) {
+                result[i] = new TypedColumn(handle, columns[i], dictionaries[i]);
+            }
+        }
+        return result;
+    }
+
+    /** Handle */
+    private final DataHandle      handle;
+    /** Column */
+    private final int             column;
+    /** Dictionary */
+    private final TypedDictionary dictionary;
+
+    /**
+     * Creates a new instance
+     *
+     * @param handle
+     * @param column
+     * @param dictionary
+     */
+    private TypedColumn(DataHandle handle, int column, TypedDictionary dictionary) {
+        this.handle = handle;
+        this.column = column;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Returns the code of the value in the given row, -1 for suppressed values
+     *
+     * @param row
+     * @return
+     */
+    public int getCode(int row) {
+        return handle.internalGetEncodedValue(row, column, false);
+    }
+
+    /**
+     * Returns the dictionary
+     *
+     * @return
+     */
+    public TypedDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the value in the given row as a double. Returns 0 for null values and
+     * throws the exception raised by the data type for values which cannot be parsed.
+     *
+     * @param row
+     * @return
+     */
+    public double getDouble(int row) {
+        return dictionary.getDouble(getCode(row));
+    }
+
+    /**
+     * Returns whether the value in the given row represents null
+     *
+     * @param row
+     * @return
+     */
+    public boolean isNull(int row) {
+        return dictionary.isNull(getCode(row));
+    }
+
+    /**
+     * Returns whether the value in the given row can be parsed
+     *
+     * @param row
+     * @return
+     */
+    public boolean isValid(int row) {
+        return dictionary.isValid(getCode(row));
+    }
+}
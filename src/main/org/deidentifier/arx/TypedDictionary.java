@@ -0,0 +1,245 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.util.Date;
+
+import org.deidentifier.arx.DataType.ARXDate;
+import org.deidentifier.arx.DataType.ARXInteger;
+import org.deidentifier.arx.DataType.DataTypeWithFormat;
+import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
+
+/**
+ * The values of a dictionary of a column with a ratio scale, parsed once into primitive
+ * arrays which are indexed by code. Integers and dates (in milliseconds since the epoch)
+ * are stored as longs, all other values as doubles. The code -1 denotes suppressed values,
+ * which are represented by <code>DataType.ANY_VALUE</code>. Thread-safe.
+ *
+ * @author Fabian Prasser
+ */
+public class TypedDictionary {
+
+    /**
+     * Creates a new instance for the given values, which must be of a data type with ratio scale
+     *
+     * @param values
+     * @param type
+     * @return
+     */
+    public static TypedDictionary create(String[] values, DataType<?> type) {
+        if (!(type instanceof DataTypeWithRatioScale)) {
+            throw new IllegalArgumentException("Data type must have a ratio scale");
+        }
+        return new TypedDictionary(values, type);
+    }
+
+    /**
+     * Returns a new instance of the given data type, as parsing is not thread-safe
+     *
+     * @param type
+     * @return
+     */
+    private static DataType<?> newInstance(DataType<?> type) {
+        if (type instanceof DataTypeWithFormat) {
+            DataTypeWithFormat format = (DataTypeWithFormat) type;
+            if (format.getLocale() != null) {
+                return type.getDescription().newInstance(format.getFormat(), format.getLocale());
+            } else {
+                return type.getDescription().newInstance(format.getFormat());
+            }
+        }
+        return type;
+    }
+
+    /** The values */
+    private final String[]    values;
+    /** The data type */
+    private final DataType<?> type;
+    /** The data type used for parsing */
+    private final DataType<?> parser;
+    /** Parsed integers and dates, null if values are stored as doubles */
+    private final long[]      longs;
+    /** Parsed values, null if values are stored as longs */
+    private final double[]    doubles;
+    /** Bitmap of null values */
+    private final long[]      nulls;
+    /** Bitmap of values which cannot be parsed */
+    private final long[]      invalid;
+
+    /**
+     * Creates a new instance
+     *
+     * @param values
+     * @param type
+     */
+    @SuppressWarnings("unchecked")
+    private TypedDictionary(String[] values, DataType<?> type) {
+
+        // Prepare
+        this.values = values;
+        this.type = type;
+        this.parser = newInstance(type);
+        int size = values.length + 1;
+        boolean integral = type instanceof ARXInteger || type instanceof ARXDate;
+        this.longs = integral ? new long[size] : null;
+        this.doubles = integral ? null : new double[size];
+        this.nulls = new long[(size + 63) >>> 6];
+        this.invalid = new long[(size + 63) >>> 6];
+
+        // Parse, slot zero holds suppressed values
+        DataTypeWithRatioScale<Object> rType = (DataTypeWithRatioScale<Object>) parser;
+        for (int index = 0; index < size; index++) {
+            String value = index == 0 ? DataType.ANY_VALUE : values[index - 1];
+            if (DataType.isNull(value)) {
+                nulls[index >>> 6] |= 1L << index;
+                continue;
+            }
+            try {
+                Object parsed = ((DataType<?>) rType).parse(value);
+                if (parser instanceof ARXInteger) {
+                    longs[index] = (Long) parsed;
+                } else if (parser instanceof ARXDate) {
+                    longs[index] = ((Date) parsed).getTime();
+                } else {
+                    doubles[index] = rType.toDouble(parsed);
+                }
+            } catch (Exception e) {
+                invalid[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * Returns the value with the given code as a double. Returns 0 for null values and
+     * throws the exception raised by the data type for values which cannot be parsed.
+     *
+     * @param code
+     * @return
+     */
+    public double getDouble(int code) {
+        int index = code + 1;
+        if (isSet(invalid, index)) {
+            throw getException(code);
+        }
+        return longs != null ? (double) longs[index] : doubles[index];
+    }
+
+    /**
+     * Returns the value with the given code as a long, i.e. an integer or a date in
+     * milliseconds since the epoch. Returns 0 for null values and throws the exception
+     * raised by the data type for values which cannot be parsed.
+     *
+     * @param code
+     * @return
+     */
+    public long getLong(int code) {
+        if (longs == null) {
+            throw new UnsupportedOperationException("Values are not stored as longs");
+        }
+        int index = code + 1;
+        if (isSet(invalid, index)) {
+            throw getException(code);
+        }
+        return longs[index];
+    }
+
+    /**
+     * Returns the data type
+     *
+     * @return
+     */
+    public DataType<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the values
+     *
+     * @return
+     */
+    public String[] getValues() {
+        return values;
+    }
+
+    /**
+     * Returns whether values are stored as longs
+     *
+     * @return
+     */
+    public boolean isLong() {
+        return longs != null;
+    }
+
+    /**
+     * Returns whether the value with the given code represents null
+     *
+     * @param code
+     * @return
+     */
+    public boolean isNull(int code) {
+        return isSet(nulls, code + 1);
+    }
+
+    /**
+     * Returns whether the value with the given code can be parsed
+     *
+     * @param code
+     * @return
+     */
+    public boolean isValid(int code) {
+        return !isSet(invalid, code + 1);
+    }
+
+    /**
+     * Returns the number of values, not including suppressed values
+     *
+     * @return
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Parses the value with the given code again to obtain the exception raised by the data type
+     *
+     * @param code
+     * @return
+     */
+    private RuntimeException getException(int code) {
+        String value = code == -1 ? DataType.ANY_VALUE : values[code];
+        try {
+            synchronized (parser) {
+                parser.parse(value);
+            }
+        } catch (RuntimeException e) {
+            return e;
+        }
+        return new IllegalArgumentException("Parse error: " + value);
+    }
+
+    /**
+     * Returns whether the given bit is set
+     *
+     * @param bitmap
+     * @param index
+     * @return
+     */
+    private boolean isSet(long[] bitmap, int index) {
+        return (bitmap[index >>> 6] & (1L << index)) != 0;
+    }
+}
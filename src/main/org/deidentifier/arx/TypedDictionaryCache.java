@@ -0,0 +1,138 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
+
+/**
+ * A cache for the typed dictionaries of the columns of data sets. Dictionaries are shared
+ * by the underlying data set and all subsets and views. Missing dictionaries are parsed in
+ * parallel. Cached dictionaries are invalidated whenever the data is modified.
+ *
+ * @author Fabian Prasser
+ */
+class TypedDictionaryCache {
+
+    /**
+     * Cached dictionaries of a data set
+     *
+     * @author Fabian Prasser
+     */
+    private static class Entry {
+
+        /** Version of the data */
+        private final int               version;
+        /** Dictionaries, indexed by column */
+        private final TypedDictionary[] dictionaries;
+
+        /**
+         * Creates a new instance
+         * @param version
+         * @param columns
+         */
+        Entry(int version, int columns) {
+            this.version = version;
+            this.dictionaries = new TypedDictionary[columns];
+        }
+    }
+
+    /** The cache */
+    private static final Map<DataHandle, Entry> CACHE = new WeakHashMap<DataHandle, Entry>();
+
+    /**
+     * Returns typed dictionaries for the given columns of the given data set. Returns
+     * <code>null</code> for columns which do not have a data type with ratio scale.
+     *
+     * @param handle
+     * @param columns
+     * @return
+     */
+    static TypedDictionary[] getDictionaries(DataHandle handle, int[] columns) {
+
+        // Prepare
+        DataHandle root = handle instanceof DataHandleSubset ? ((DataHandleSubset) handle).getSource() : handle;
+        int version = root.getVersion();
+        final String[][] values = new String[columns.length][];
+        final DataType<?>[] types = new DataType<?>[columns.length];
+        final TypedDictionary[] result = new TypedDictionary[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            DataType<?> type = root.getDataType(root.getAttributeName(columns[i]));
+            if (type instanceof DataTypeWithRatioScale) {
+                String[] dictionary = root.internalGetDictionary(columns[i]);
+                values[i] = dictionary != null ? dictionary : new String[0];
+                types[i] = type;
+            }
+        }
+
+        // Find cached dictionaries
+        if (version != -1) {
+            synchronized (CACHE) {
+                Entry entry = getEntry(root, version);
+                for (int i = 0; i < columns.length; i++) {
+                    TypedDictionary cached = entry.dictionaries[columns[i]];
+                    if (cached != null && cached.getValues() == values[i] && cached.getType().equals(types[i])) {
+                        result[i] = cached;
+                    }
+                }
+            }
+        }
+
+        // Parse remaining dictionaries
+        IntStream.range(0, columns.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int i) {
+                if (types[i] != null && result[i] == null) {
+                    result[i] = TypedDictionary.create(values[i], types[i]);
+                }
+            }
+        });
+
+        // Store
+        if (version != -1) {
+            synchronized (CACHE) {
+                Entry entry = getEntry(root, version);
+                for (int i = 0; i < columns.length; i++) {
+                    if (result[i] != null) {
+                        entry.dictionaries[columns[i]] = result[i];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached dictionaries for the given data set
+     * @param root
+     * @param version
+     * @return
+     */
+    private static Entry getEntry(DataHandle root, int version) {
+        Entry entry = CACHE.get(root);
+        if (entry == null || entry.version != version) {
+            entry = new Entry(version, root.getNumColumns());
+            CACHE.put(root, entry);
+        }
+        return entry;
+    }
+}
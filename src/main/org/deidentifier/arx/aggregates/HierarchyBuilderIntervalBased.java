@@ -22,13 +22,19 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.DataType.DataTypeWithFormat;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+
 /**
  * This class enables building hierarchies for non-categorical values by mapping them
  * into given intervals.
@@ -42,7 +48,9 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
      * This class represents an node.
      *
      * @author Fabian Prasser
+     * @deprecated No longer used, intervals are located with a binary search
      */
+    @Deprecated
     public class IndexNode implements Serializable {
 
         /** SVUID */
@@ -395,8 +403,20 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         }
     }
 
-    /** Fanout */
-    private static final int               INDEX_FANOUT     = 2;
+    /** Null values */
+    private static final int               KIND_NULL        = 0;
+
+    /** Values below the lower snap bound */
+    private static final int               KIND_LOWER       = 1;
+
+    /** Values above the upper snap bound */
+    private static final int               KIND_UPPER       = 2;
+
+    /** Values within an interval */
+    private static final int               KIND_INTERVAL    = 3;
+
+    /** Number of values mapped per task */
+    private static final int               VALUES_PER_TASK  = 1024;
 
     /** SVUID. */
     private static final long              serialVersionUID = 3663874945543082808L;
@@ -460,13 +480,19 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
     }
 
     /** Adjustment. */
-    private Range<T>          lowerRange;
+    private Range<T>                  lowerRange;
 
     /** Adjustment. */
-    private Range<T>          upperRange;
+    private Range<T>                  upperRange;
 
     /** Defined intervals. */
-    private List<Interval<T>> intervals = new ArrayList<Interval<T>>();
+    private List<Interval<T>>         intervals = new ArrayList<Interval<T>>();
+
+    /** Key of the first column prepared last, for incremental preparation */
+    private transient List<Object>    cachedKey;
+
+    /** First column prepared last, for incremental preparation */
+    private transient AbstractGroup[] cachedFirst;
 
     /**
      * Creates a new instance. Snapping is disabled. Repetition is disabled. Bound is determined dynamically.
@@ -685,79 +711,49 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
     }
 
     /**
-     * Returns the matching interval.
+     * Returns the interval with the given index, shifted by the given multiple of the
+     * width of all intervals.
      *
-     * @param index
      * @param type
-     * @param tValue
+     * @param index
+     * @param shift
      * @return
      */
     @SuppressWarnings("unchecked")
-    private Interval<T> getInterval(IndexNode index, DataTypeWithRatioScale<T> type, T tValue) {
-
-        // Find interval
-        int shift = (int)Math.floor(type.ratio(type.subtract(tValue, index.min), type.subtract(index.max, index.min)));
-        T offset = type.multiply(type.subtract(index.max, index.min), shift);
-        T shifted = type.subtract(tValue, offset);
-        
-        // Fix case when shifted value equals interval-max
-        if (type.compare(shifted, index.max) == 0) {
-            offset = type.multiply(type.subtract(index.max, index.min), shift + 1);
-            shifted = index.min;
-        }
-        Interval<T> interval = getInterval(index, shifted);
-
-        // Check
-        if (interval == null) {
-            throw new IllegalStateException("No interval found for: " + type.format(tValue));
-        }
-        
-        // Create first result interval
+    private Interval<T> getInterval(DataTypeWithRatioScale<T> type, int index, int shift) {
+        Interval<T> interval = intervals.get(index);
+        T offset = type.multiply(getWidth(type), shift);
         T lower = type.add(interval.min, offset);
         T upper = type.add(interval.max, offset);
         return new Interval<T>(this, (DataType<T>)type, lower, upper, interval.function);
     }
-    
+
     /**
-     * Performs the index lookup.
+     * Returns the matching interval.
      *
-     * @param node
-     * @param value
+     * @param type
+     * @param tValue
      * @return
      */
-    private Interval<T> getInterval(IndexNode node, T value) {
-        @SuppressWarnings("unchecked")
-        DataTypeWithRatioScale<T> type = (DataTypeWithRatioScale<T>)getDataType();
-        if (node.isLeaf) {
-            for (Interval<T> leaf : node.leafs) {
-                if (type.compare(leaf.min, value) <= 0 && type.compare(leaf.max, value) > 0) {
-                    return leaf;
-                }
-            }
-        } else {
-            for (IndexNode child : node.children) {
-                if (type.compare(child.min, value) <= 0 && type.compare(child.max, value) > 0) {
-                    return getInterval(child, value);
-                }
-            }
-        }
-        return null;
+    private Interval<T> getInterval(DataTypeWithRatioScale<T> type, T tValue) {
+        long position = getPosition(type, tValue);
+        return getInterval(type, (int)position, (int)(position >> 32));
     }
 
     /**
      * Returns the matching interval.
      *
-     * @param index
      * @param type
      * @param tValue
      * @return
      */
     @SuppressWarnings("unchecked")
-    private Interval<T> getIntervalUpperSnap(IndexNode index, DataTypeWithRatioScale<T> type, T tValue) {
+    private Interval<T> getIntervalUpperSnap(DataTypeWithRatioScale<T> type, T tValue) {
 
         // Find interval
-        double shift = Math.floor(type.ratio(type.subtract(tValue, index.min), type.subtract(index.max, index.min)));
-        T offset = type.multiply(type.subtract(index.max, index.min), shift);
+        T width = getWidth(type);
+        double shift = Math.floor(type.ratio(type.subtract(tValue, intervals.get(0).min), width));
+        T offset = type.multiply(width, shift);
         T value = type.subtract(tValue, offset);
         Interval<T> interval = null;
 
@@ -777,7 +773,7 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
                         
                         // Wrap around
                         interval = intervals.get(intervals.size()-1);
-                        offset = type.multiply(type.subtract(index.max, index.min), shift-1);
+                        offset = type.multiply(width, shift-1);
                         break;
                     }
                 } else {
@@ -803,6 +799,186 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         return new Interval<T>(this, (DataType<T>)type, lower, upper, interval.function);
     }
 
+    /**
+     * Returns the position of the given value, which is encoded as the index of the matching
+     * interval (lower 32 bits) and the multiple of the width of all intervals by which it must
+     * be shifted (upper 32 bits). The interval is found with a binary search over the bounds
+     * of the intervals, which are adjacent and sorted.
+     *
+     * @param type
+     * @param tValue
+     * @return
+     */
+    private long getPosition(DataTypeWithRatioScale<T> type, T tValue) {
+
+        // Shift value into the range of the intervals
+        T min = intervals.get(0).min;
+        T max = intervals.get(intervals.size() - 1).max;
+        T width = getWidth(type);
+        int shift = (int)Math.floor(type.ratio(type.subtract(tValue, min), width));
+        T shifted = type.subtract(tValue, type.multiply(width, shift));
+        
+        // Fix case when shifted value equals interval-max
+        if (type.compare(shifted, max) == 0) {
+            shift++;
+            shifted = min;
+        }
+
+        // Find last interval with a lower bound <= value
+        int low = 0;
+        int high = intervals.size() - 1;
+        int index = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (type.compare(intervals.get(mid).min, shifted) <= 0) {
+                index = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        // Check
+        if (index == -1 || type.compare(intervals.get(index).max, shifted) <= 0) {
+            throw new IllegalStateException("No interval found for: " + type.format(tValue));
+        }
+        return ((long)shift << 32) | index;
+    }
+
+    /**
+     * Returns an instance of the data type which can be used by the current thread, as
+     * parsing is not thread-safe.
+     *
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private DataTypeWithRatioScale<T> getThreadLocalDataType() {
+        DataType<T> type = getDataType();
+        if (type instanceof DataTypeWithFormat) {
+            DataTypeWithFormat format = (DataTypeWithFormat)type;
+            if (format.getLocale() != null) {
+                type = type.getDescription().newInstance(format.getFormat(), format.getLocale());
+            } else {
+                type = type.getDescription().newInstance(format.getFormat());
+            }
+        }
+        return (DataTypeWithRatioScale<T>)type;
+    }
+
+    /**
+     * Returns the width of all intervals.
+     *
+     * @param type
+     * @return
+     */
+    private T getWidth(DataTypeWithRatioScale<T> type) {
+        return type.subtract(intervals.get(intervals.size() - 1).max, intervals.get(0).min);
+    }
+
+    /**
+     * Maps the data to groups on the first level. Values are mapped to intervals in parallel,
+     * intervals are instantiated once per distinct position.
+     *
+     * @param data
+     * @param type
+     * @param tempLower
+     * @param tempUpper
+     * @return
+     */
+    private AbstractGroup[] prepareFirstColumn(final String[] data,
+                                               DataTypeWithRatioScale<T> type,
+                                               final Range<T> tempLower,
+                                               final Range<T> tempUpper) {
+
+        // Create snap intervals
+        Interval<T> lowerSnap = getInterval(type, tempLower.repeatBound);
+        lowerSnap = new Interval<T>(this, getDataType(), tempLower.snapBound, lowerSnap.max, lowerSnap.function);
+        
+        Interval<T> upperSnap = getIntervalUpperSnap(type, tempUpper.repeatBound);
+        upperSnap = new Interval<T>(this, getDataType(), upperSnap.min, tempUpper.snapBound, upperSnap.function);
+        
+        // Overlapping snaps -> one interval
+        if (type.compare(lowerSnap.max, upperSnap.min)>0) {
+            // We could use lowerSnap.function or upperSnap.function
+            lowerSnap = new Interval<T>(this, getDataType(), lowerSnap.min, upperSnap.max, lowerSnap.function);
+            upperSnap = lowerSnap;
+        }
+        
+        // Map values to positions in parallel
+        final int[] kinds = new int[data.length];
+        final long[] positions = new long[data.length];
+        final int numTasks = (data.length + VALUES_PER_TASK - 1) / VALUES_PER_TASK;
+        final RuntimeException[] errors = new RuntimeException[numTasks];
+        IntStream.range(0, numTasks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int task) {
+                DataTypeWithRatioScale<T> type = getThreadLocalDataType();
+                int end = Math.min(data.length, (task + 1) * VALUES_PER_TASK);
+                try {
+                    for (int i = task * VALUES_PER_TASK; i < end; i++) {
+                        T value = type.parse(data[i]);
+                        if (value == null) {
+                            kinds[i] = KIND_NULL;
+                        } else if (type.compare(value, tempLower.labelBound) < 0) {
+                            throw new IllegalArgumentException("Data item " + type.format(value) + " is < minim value (" + type.format(tempLower.labelBound) + ")");
+                        } else if (type.compare(value, tempLower.snapBound) < 0) {
+                            kinds[i] = KIND_LOWER;
+                        } else if (type.compare(value, tempUpper.labelBound) >= 0) {
+                            throw new IllegalArgumentException("Data item " + type.format(value)+ " is >= maximum value (" + type.format(tempUpper.labelBound) + ")");
+                        } else if (type.compare(value, tempUpper.snapBound) >= 0) {
+                            kinds[i] = KIND_UPPER;
+                        } else {
+                            kinds[i] = KIND_INTERVAL;
+                            positions[i] = getPosition(type, value);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    errors[task] = e;
+                }
+            }
+        });
+        
+        // Report the error for the first offending value
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                throw error;
+            }
+        }
+        
+        // Create first column
+        Map<AbstractGroup, AbstractGroup> cache = new HashMap<AbstractGroup, AbstractGroup>();
+        LongObjectOpenHashMap<AbstractGroup> groups = new LongObjectOpenHashMap<AbstractGroup>();
+        AbstractGroup[] first = new AbstractGroup[data.length];
+        for (int i=0; i<data.length; i++){
+            switch (kinds[i]) {
+            case KIND_NULL:
+                first[i] = getGroup(cache, new Interval<T>(this));
+                break;
+            case KIND_LOWER:
+                first[i] = getGroup(cache, new Interval<T>(this, true, tempLower.snapBound));
+                break;
+            case KIND_UPPER:
+                first[i] = getGroup(cache, new Interval<T>(this, false, tempUpper.snapBound));
+                break;
+            default:
+                long position = positions[i];
+                if (groups.containsKey(position)) {
+                    first[i] = groups.lget();
+                } else {
+                    Interval<T> interval = getInterval(type, (int)position, (int)(position >> 32));
+                    if (type.compare(interval.min, lowerSnap.max) < 0){
+                        interval = lowerSnap;
+                    } else if (type.compare(interval.max, upperSnap.min) > 0){
+                        interval = upperSnap;
+                    }
+                    first[i] = getGroup(cache, interval);
+                    groups.put(position, first[i]);
+                }
+            }
+        }
+        return first;
+    }
+
     /**
      * Adds an interval.
      *
@@ -870,108 +1046,49 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
         Range<T> tempLower = ranges[0];
         Range<T> tempUpper = ranges[1];
         
-        // Build leaf level index
-        ArrayList<IndexNode> nodes = new ArrayList<IndexNode>();
-        for (int i=0, len = intervals.size(); i < len; i+=INDEX_FANOUT) {
-            int min = i;
-            int max = Math.min(i+INDEX_FANOUT-1, len-1);
-            
-            List<Interval<T>> leafs = new ArrayList<Interval<T>>();
-            for (int j=min; j<=max; j++) {
-                leafs.add(intervals.get(j));
-            }
-
-            nodes.add(new IndexNode(intervals.get(min).min, 
-                                    intervals.get(max).max,
-                                    leafs.toArray(new Interval[leafs.size()])));
-        }
-
-        // Builder inner nodes
-        while (nodes.size()>1) {
-            List<IndexNode> current = (List<IndexNode>)nodes.clone();
-            nodes.clear();
-            for (int i=0, len = current.size(); i < len; i+=INDEX_FANOUT) {
-                int min = i;
-                int max = Math.min(i+INDEX_FANOUT-1, len-1);
-                List<IndexNode> temp = new ArrayList<IndexNode>();
-                for (int j=min; j<=max; j++) {
-                    temp.add(current.get(j));
-                }
-
-                nodes.add(new IndexNode(current.get(min).min, 
-                                        current.get(max).max,
-                                        temp.toArray(new HierarchyBuilderIntervalBased.IndexNode[temp.size()])));
-            }
-        }
-        
         // Prepare
         String[] data = getData();
         List<AbstractGroup[]> result = new ArrayList<AbstractGroup[]>();
-        IndexNode index = nodes.get(0);
-        
-        // Prepare
         DataTypeWithRatioScale<T> type = (DataTypeWithRatioScale<T>)getDataType();
-        Map<AbstractGroup, AbstractGroup> cache = new HashMap<AbstractGroup, AbstractGroup>();
         
-        // Create snap intervals
-        Interval<T> lowerSnap = getInterval(index, type, tempLower.repeatBound);
-        lowerSnap = new Interval<T>(this, getDataType(), tempLower.snapBound, lowerSnap.max, lowerSnap.function);
-        
-        Interval<T> upperSnap = getIntervalUpperSnap(index, type, tempUpper.repeatBound);
-        upperSnap = new Interval<T>(this, getDataType(), upperSnap.min, tempUpper.snapBound, upperSnap.function);
-        
-        // Overlapping snaps -> one interval
-        if (type.compare(lowerSnap.max, upperSnap.min)>0) {
-            // We could use lowerSnap.function or upperSnap.function
-            lowerSnap = new Interval<T>(this, getDataType(), lowerSnap.min, upperSnap.max, lowerSnap.function);
-            upperSnap = lowerSnap;
+        // Create first column. Reuse it, if only higher levels have changed.
+        List<Object> key = new ArrayList<Object>();
+        key.add(type);
+        key.add(Arrays.asList(data.clone()));
+        key.addAll(Arrays.asList(tempLower.repeatBound, tempLower.snapBound, tempLower.labelBound));
+        key.addAll(Arrays.asList(tempUpper.repeatBound, tempUpper.snapBound, tempUpper.labelBound));
+        for (Interval<T> interval : intervals) {
+            key.addAll(Arrays.asList(interval.min, interval.max, interval.function));
         }
-        
-        // Create first column
-        AbstractGroup[] first = new AbstractGroup[data.length];
-        for (int i=0; i<data.length; i++){
-            T value = type.parse(data[i]);
-            Interval<T> interval;
-            
-            if (value == null) {
-                interval = new Interval<T>(this);
-            } else if (type.compare(value, tempLower.labelBound) < 0) {
-                throw new IllegalArgumentException("Data item " + type.format(value) + " is < minim value (" + type.format(tempLower.labelBound) + ")");
-            } else if (type.compare(value, tempLower.snapBound) < 0) {
-                interval = new Interval<T>(this, true, tempLower.snapBound);
-            } else if (type.compare(value, tempUpper.labelBound) >= 0) {
-                throw new IllegalArgumentException("Data item " + type.format(value)+ " is >= maximum value (" + type.format(tempUpper.labelBound) + ")");
-            } else if (type.compare(value, tempUpper.snapBound) >= 0) {
-                interval = new Interval<T>(this, false, tempUpper.snapBound);
-            } else {
-                interval = getInterval(index, type, value);    
-            }
-            
-            if (interval.min != null && interval.max != null){
-                if (type.compare(interval.min, lowerSnap.max) < 0){
-                    interval = lowerSnap;
-                } else if (type.compare(interval.max, upperSnap.min) > 0){
-                    interval = upperSnap;
-                }
-            }
-            
-            first[i] = getGroup(cache, interval);
+        AbstractGroup[] first;
+        if (key.equals(cachedKey)) {
+            first = cachedFirst;
+        } else {
+            first = prepareFirstColumn(data, type, tempLower, tempUpper);
+            cachedKey = key;
+            cachedFirst = first;
         }
         result.add(first);
         
-        // Clean
-        index = null;
+        // Check whether there is more than one group
+        boolean multiple = false;
+        for (AbstractGroup group : first) {
+            if (group != first[0]) {
+                multiple = true;
+                break;
+            }
+        }
         
         // Create other columns
         List<Group<T>> groups = new ArrayList<Group<T>>();
         if (!super.getLevels().isEmpty()) groups = super.getLevels().get(0).getGroups();
-        if (cache.size()>1 && !groups.isEmpty()) {
+        if (multiple && !groups.isEmpty()) {
 
             // Prepare
             List<Interval<T>> newIntervals = new ArrayList<Interval<T>>();
             int intervalIndex = 0;
             int multiplier = 0;
-            T width = type.subtract(intervals.get(intervals.size() - 1).max, intervals.get(0).min);
+            T width = getWidth(type);
 
             // Merge intervals
             for (Group<T> group : groups) {
@@ -1021,7 +1138,7 @@ public class HierarchyBuilderIntervalBased<T> extends HierarchyBuilderGroupingBa
                 result.add(column);
             }
         } else {
-            if (cache.size()>1) {
+            if (multiple) {
                 AbstractGroup[] column = new AbstractGroup[data.length];
                 @SuppressWarnings("serial")
                 AbstractGroup element = new AbstractGroup(DataType.ANY_VALUE) {};
@@ -23,6 +23,8 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.AttributeType.Hierarchy;
 
@@ -54,6 +56,9 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
     /**  SVUID */
     private static final long serialVersionUID = 3625654600380531803L;
 
+    /**  Number of values redacted per task */
+    private static final int  VALUES_PER_TASK  = 1024;
+
     /**
      * Values are aligned left-to-right and redacted right-to-left. Redacted characters
      * are replaced with the given character. The same character is used for padding.
@@ -332,15 +337,18 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
         // Check
         prepareResult(data);
         
-        // Compute
-        int[] sizes = new int[this.result[0].length];
-        for (int i=0; i < sizes.length; i++){
-            Set<String> set = new HashSet<String>();
-            for (int j=0; j<this.result.length; j++) {
-                set.add(result[j][i]);
+        // Compute, one level per task
+        final int[] sizes = new int[this.result[0].length];
+        IntStream.range(0, sizes.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int i) {
+                Set<String> set = new HashSet<String>();
+                for (int j=0; j<result.length; j++) {
+                    set.add(result[j][i]);
+                }
+                sizes[i] = set.size();
             }
-            sizes[i] = set.size();
-        }
+        });
         
         // Return
         return sizes;
@@ -445,7 +453,7 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
      *
      * @param data
      */
-    private void prepareResult(String[] data){
+    private void prepareResult(final String[] data){
 
         // Determine length
         int length = Integer.MIN_VALUE;
@@ -456,41 +464,48 @@ public class HierarchyBuilderRedactionBased<T> extends HierarchyBuilder<T> imple
         // Build padding string
         StringBuilder paddingBuilder = new StringBuilder();
         for (int i=0; i<length; i++) paddingBuilder.append(paddingCharacter);
-        String padding = paddingBuilder.toString();
-
-        // Build list of base strings
-        String[] base = new String[data.length];
-        for (int i=0; i<data.length; i++) {
-            if (data[i].length()<length) {
-                String pad = padding.substring(0, length - data[i].length());
-                if (aligmentOrder == Order.RIGHT_TO_LEFT) {
-                    base[i] =  pad + data[i];
-                } else {
-                    base[i] =  data[i] + pad;
-                }
-            } else {
-                base[i] = data[i];
-            }
-        }
+        final String padding = paddingBuilder.toString();
         
-        // Build padding string
+        // Build redaction string
         StringBuilder redactionBuilder = new StringBuilder();
         for (int i=0; i<length; i++) redactionBuilder.append(redactionCharacter);
-        String redaction = redactionBuilder.toString();
+        final String redaction = redactionBuilder.toString();
 
-        // Build result
-        this.result = new String[base.length][length + 1];
-        for (int i=0; i<base.length; i++){
-            result[i] = new String[length + 1];
-            result[i][0] = data[i];
-            for (int j=1; j<length + 1; j++){
-                String redact = redaction.substring(0, j);
-                if (redactionOrder == Order.RIGHT_TO_LEFT) {
-                    result[i][j] =  base[i].substring(0, length - j) + redact;
-                } else {
-                    result[i][j] =  redact + base[i].substring(j, length);
+        // Build result, in chunks of values
+        final int width = length;
+        this.result = new String[data.length][];
+        final int numTasks = (data.length + VALUES_PER_TASK - 1) / VALUES_PER_TASK;
+        IntStream.range(0, numTasks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int task) {
+                int end = Math.min(data.length, (task + 1) * VALUES_PER_TASK);
+                for (int i = task * VALUES_PER_TASK; i < end; i++) {
+                    
+                    // Build base string
+                    String base = data[i];
+                    if (base.length()<width) {
+                        String pad = padding.substring(0, width - base.length());
+                        if (aligmentOrder == Order.RIGHT_TO_LEFT) {
+                            base =  pad + base;
+                        } else {
+                            base =  base + pad;
+                        }
+                    }
+                    
+                    // Redact
+                    String[] row = new String[width + 1];
+                    row[0] = data[i];
+                    for (int j=1; j<width + 1; j++){
+                        String redact = redaction.substring(0, j);
+                        if (redactionOrder == Order.RIGHT_TO_LEFT) {
+                            row[j] =  base.substring(0, width - j) + redact;
+                        } else {
+                            row[j] =  redact + base.substring(j, width);
+                        }
+                    }
+                    result[i] = row;
                 }
             }
-        }
+        });
     }
 }
@@ -27,6 +27,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.descriptive.moment.GeometricMean;
@@ -40,6 +42,7 @@ import org.deidentifier.arx.DataScale;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.DataType.ARXString;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
+import org.deidentifier.arx.TypedColumn;
 import org.deidentifier.arx.aggregates.StatisticsContingencyTable.Entry;
 import org.deidentifier.arx.aggregates.StatisticsSummary.StatisticsSummaryOrdinal;
 import org.deidentifier.arx.common.Groupify;
@@ -48,11 +51,15 @@ import org.deidentifier.arx.common.TupleWrapper;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyHistogram;
 
 import cern.colt.GenericSorting;
 import cern.colt.Swapper;
 import cern.colt.function.IntComparator;
 
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+import com.carrotsearch.hppc.LongIntOpenHashMap;
+
 /**
  * A class offering basic descriptive statistics about data handles.
  *
@@ -60,6 +67,9 @@ import cern.colt.function.IntComparator;
  */
 public class StatisticsBuilder {
 
+    /** Number of rows processed per task when computing frequencies */
+    private static final int        ROWS_PER_TASK = 16384;
+
     /** The handle. */
     private DataHandleInternal      handle;
 
@@ -360,18 +370,30 @@ public class StatisticsBuilder {
             indexes2.put(values2[i], i);
         }
         
+        // Count pairs of codes
+        LongIntOpenHashMap rows = new LongIntOpenHashMap();
+        LongIntOpenHashMap frequencies = getFrequencies(column1, column2, rows);
+        
         // Create entry set
         int max = Integer.MIN_VALUE;
         final Map<Entry, Integer> entries = new HashMap<Entry, Integer>();
-        for (int row = 0; row < handle.getNumRows(); row++) {
-            checkInterrupt();
-            int index1 = indexes1.get(handle.getValue(row, column1));
-            int index2 = indexes2.get(handle.getValue(row, column2));
-            Entry entry = new Entry(index1, index2);
-            Integer previous = entries.get(entry);
-            int value = previous != null ? previous + 1 : 1;
-            max = Math.max(max, value);
-            entries.put(entry, value);
+        IntIntOpenHashMap codes1 = new IntIntOpenHashMap();
+        IntIntOpenHashMap codes2 = new IntIntOpenHashMap();
+        final long[] keys = frequencies.keys;
+        final int[] values = frequencies.values;
+        final boolean[] allocated = frequencies.allocated;
+        for (int i = 0; i < allocated.length; i++) {
+            if (allocated[i]) {
+                checkInterrupt();
+                int row = rows.get(keys[i]);
+                int index1 = getIndex(codes1, indexes1, (int) (keys[i] >>> 32), row, column1);
+                int index2 = getIndex(codes2, indexes2, (int) keys[i], row, column2);
+                Entry entry = new Entry(index1, index2);
+                Integer previous = entries.get(entry);
+                int value = previous != null ? previous + values[i] : values[i];
+                max = Math.max(max, value);
+                entries.put(entry, value);
+            }
         }
         
         // Create iterator
@@ -571,6 +593,12 @@ public class StatisticsBuilder {
         // Reset stop flag
         interrupt.value = false;
 
+        // Use the sizes of classes determined when the transformation was applied, if available
+        HashGroupifyHistogram histogram = handle.getHistogram();
+        if (histogram != null) {
+            return getEquivalenceClassStatistics(histogram);
+        }
+
         // Prepare
         Set<String> attributes = handle.getDefinition().getQuasiIdentifyingAttributes();
         final int[] indices = new int[attributes.size()];
@@ -685,11 +713,20 @@ public class StatisticsBuilder {
         
         progress.value = 60;
         
+        // Count codes
+        LongIntOpenHashMap rows = new LongIntOpenHashMap();
+        LongIntOpenHashMap counts = getFrequencies(column, -1, rows);
+        
         // Count frequencies
-        for (int row = 0; row < handle.getNumRows(); row++) {
-            checkInterrupt();
-            String value = handle.getValue(row, column);
-            frequencies[indexes.get(value)]++;
+        final long[] keys = counts.keys;
+        final int[] _counts = counts.values;
+        final boolean[] allocated = counts.allocated;
+        for (int i = 0; i < allocated.length; i++) {
+            if (allocated[i]) {
+                checkInterrupt();
+                String value = handle.getValue(rows.get(keys[i]), column);
+                frequencies[indexes.get(value)] += _counts[i];
+            }
         }
         
         progress.value = 80;
@@ -825,6 +862,13 @@ public class StatisticsBuilder {
                                                                getHierarchy(col, true)));
         }
         
+        // Parse values of columns with ratio scale only once
+        int[] columns = new int[handle.getNumColumns()];
+        for (int col = 0; col < columns.length; col++) {
+            columns[col] = col;
+        }
+        TypedColumn[] typed = TypedColumn.get(handle.getHandle(), columns);
+        
         // Compute summary statistics
         for (int row = 0; row < handle.getNumRows(); row++) {
             
@@ -857,7 +901,7 @@ public class StatisticsBuilder {
                     if (!DataType.isAny(value) && !DataType.isNull(value)) {
                         ordinal.get(attribute).addValue(value);
                         if (type instanceof DataTypeWithRatioScale) {
-                            double doubleValue = ((DataTypeWithRatioScale) type).toDouble(type.parse(value));
+                            double doubleValue = typed[col].getDouble(row);
                             statistics.get(attribute).addValue(doubleValue);
                             geomean.get(attribute).increment(doubleValue + 1d);
                         }
@@ -996,6 +1040,107 @@ public class StatisticsBuilder {
         }
     }
     
+    /**
+     * Returns statistics about equivalence classes from the given histogram of class sizes
+     * 
+     * @param histogram
+     * @return
+     */
+    private StatisticsEquivalenceClasses getEquivalenceClassStatistics(HashGroupifyHistogram histogram) {
+        
+        // Summarize sizes
+        IntIntOpenHashMap sizes = histogram.getClassSizes();
+        int maximalEquivalenceClassSize = Integer.MIN_VALUE;
+        int minimalEquivalenceClassSize = Integer.MAX_VALUE;
+        int numberOfEquivalenceClasses = 0;
+        double averageEquivalenceClassSize = 0d;
+        for (int i = 0; i < sizes.allocated.length; i++) {
+            if (sizes.allocated[i]) {
+                int size = sizes.keys[i];
+                int count = sizes.values[i];
+                maximalEquivalenceClassSize = Math.max(size, maximalEquivalenceClassSize);
+                minimalEquivalenceClassSize = Math.min(size, minimalEquivalenceClassSize);
+                numberOfEquivalenceClasses += count;
+                averageEquivalenceClassSize += (double) size * (double) count;
+            }
+        }
+        
+        // Calculate average
+        averageEquivalenceClassSize /= (double)numberOfEquivalenceClasses;
+        
+        // Fix corner cases
+        if (numberOfEquivalenceClasses == 0) {
+            averageEquivalenceClassSize = 0;
+            maximalEquivalenceClassSize = 0;
+            minimalEquivalenceClassSize = 0;
+        }
+
+        // And return
+        return new StatisticsEquivalenceClasses(averageEquivalenceClassSize,
+                                                maximalEquivalenceClassSize,
+                                                minimalEquivalenceClassSize,
+                                                numberOfEquivalenceClasses,
+                                                histogram.getNumberOfRecords(),
+                                                histogram.getNumberOfSuppressedRecords());
+    }
+
+    /**
+     * Counts the codes in the given column, or the pairs of codes in the given columns, in parallel.
+     * Pairs are encoded as <code>(code1 &lt;&lt; 32) | code2</code>.
+     *
+     * @param column1 The first column
+     * @param column2 The second column, -1 if only one column is to be analyzed
+     * @param rows Will be filled with a row containing each key
+     * @return The frequency of each key
+     */
+    private LongIntOpenHashMap getFrequencies(final int column1, final int column2, LongIntOpenHashMap rows) {
+
+        // Prepare
+        final int numRows = handle.getNumRows();
+        final int numChunks = (numRows + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        final LongIntOpenHashMap[] frequencies = new LongIntOpenHashMap[numChunks];
+        final LongIntOpenHashMap[] representatives = new LongIntOpenHashMap[numChunks];
+
+        // Count per chunk
+        IntStream.range(0, numChunks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int chunk) {
+                LongIntOpenHashMap _frequencies = new LongIntOpenHashMap();
+                LongIntOpenHashMap _representatives = new LongIntOpenHashMap();
+                int end = Math.min(numRows, (chunk + 1) * ROWS_PER_TASK);
+                for (int row = chunk * ROWS_PER_TASK; row < end; row++) {
+                    checkInterrupt();
+                    long key = handle.getEncodedValue(row, column1, false);
+                    if (column2 != -1) {
+                        key = (key << 32) | (handle.getEncodedValue(row, column2, false) & 0xFFFFFFFFL);
+                    }
+                    if (_frequencies.putOrAdd(key, 1, 1) == 1) {
+                        _representatives.put(key, row);
+                    }
+                }
+                frequencies[chunk] = _frequencies;
+                representatives[chunk] = _representatives;
+            }
+        });
+
+        // Merge
+        LongIntOpenHashMap result = new LongIntOpenHashMap();
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            final long[] keys = frequencies[chunk].keys;
+            final int[] values = frequencies[chunk].values;
+            final boolean[] allocated = frequencies[chunk].allocated;
+            for (int i = 0; i < allocated.length; i++) {
+                if (allocated[i]) {
+                    checkInterrupt();
+                    if (result.putOrAdd(keys[i], values[i], values[i]) == values[i]) {
+                        rows.put(keys[i], representatives[chunk].get(keys[i]));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns the appropriate hierarchy, if any.
      *
@@ -1018,6 +1163,26 @@ public class StatisticsBuilder {
         }
     }
     
+    /**
+     * Returns the index of the value with the given code in the given column. Different codes may
+     * represent the same value, which is why codes are translated via the value of the given row.
+     *
+     * @param cache Cache for translated codes
+     * @param indexes The index of each value
+     * @param code The code
+     * @param row A row containing the code
+     * @param column The column
+     * @return
+     */
+    private int getIndex(IntIntOpenHashMap cache, Map<String, Integer> indexes, int code, int row, int column) {
+        if (cache.containsKey(code)) {
+            return cache.lget();
+        }
+        int index = indexes.get(handle.getValue(row, column));
+        cache.put(code, index);
+        return index;
+    }
+
     /**
      * Scales the given string array.
      *
@@ -23,10 +23,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.TypedColumn;
 import org.deidentifier.arx.aggregates.quality.QualityConfiguration;
 import org.deidentifier.arx.aggregates.quality.QualityDomainShare;
 import org.deidentifier.arx.aggregates.quality.QualityDomainShareRaw;
@@ -96,8 +99,8 @@ public class StatisticsQuality {
      * @param progress
      * @param qis
      */
-    StatisticsQuality(DataHandle input,
-                      DataHandle output,
+    StatisticsQuality(final DataHandle input,
+                      final DataHandle output,
                       ARXConfiguration config,
                       WrappedBoolean stop,
                       WrappedInteger progress,
@@ -108,11 +111,11 @@ public class StatisticsQuality {
         this.progress = progress;
         
         // Build config
-        QualityConfiguration configuration = new QualityConfiguration();
+        final QualityConfiguration configuration = new QualityConfiguration();
         // TODO: Do something with ARXConfiguration here.
         
         // Extract quasi-identifiers
-        int[] indices = getIndicesOfQuasiIdentifiers(qis, input);
+        final int[] indices = getIndicesOfQuasiIdentifiers(qis, input);
         
         // Basic measures
         this.attributes = getAttributes(output, indices);
@@ -143,90 +146,31 @@ public class StatisticsQuality {
         }
         
         // Pre-computed frequently needed data
-        Groupify<TupleWrapper> groupedInput = this.getGroupify(input, indices);
+        final Groupify<TupleWrapper> groupedInput = this.getGroupify(input, indices);
         this.progress.value = 6;
-        Groupify<TupleWrapper> groupedOutput = this.getGroupify(output, indices);
+        final Groupify<TupleWrapper> groupedOutput = this.getGroupify(output, indices);
         this.progress.value = 8;
-        String[][][] hierarchies = getHierarchies(input, indices, configuration);
-        QualityDomainShare[] shares = getDomainShares(input, indices, hierarchies, configuration);
-        int suppressedInput = getSuppressed(input);
-        int suppressedOutput = getSuppressed(output);
+        TypedColumn.get(input, indices);
+        TypedColumn.get(output, indices);
+        final String[][][] hierarchies = getHierarchies(input, indices, configuration);
+        final QualityDomainShare[] shares = getDomainShares(input, indices, hierarchies, configuration);
+        final int suppressedInput = getSuppressed(input);
+        final int suppressedOutput = getSuppressed(output);
         this.progress.value = 10;
         
-        // Build
-        int workload = 10;
-        try {
-            
-            this.loss = new QualityModelColumnOrientedLoss(stop,
-                                                           progress,
-                                                           workload,
-                                                           input,
-                                                           output,
-                                                           suppressedInput,
-                                                           suppressedOutput,
-                                                           groupedInput,
-                                                           groupedOutput,
-                                                           hierarchies,
-                                                           shares,
-                                                           indices,
-                                                           configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.loss = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-        
-        // Build
-        workload = 15;
-        try {
-            this.entropy = new QualityModelColumnOrientedNonUniformEntropy(stop,
-                                                                           progress,
-                                                                           workload,
-                                                                           input,
-                                                                           output,
-                                                                           suppressedInput,
-                                                                           suppressedOutput,
-                                                                           groupedInput,
-                                                                           groupedOutput,
-                                                                           hierarchies,
-                                                                           shares,
-                                                                           indices,
-                                                                           configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.entropy = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.precision = new QualityModelColumnOrientedPrecision(stop,
-                                                                     progress,
-                                                                     workload,
-                                                                     input,
-                                                                     output,
-                                                                     suppressedInput,
-                                                                     suppressedOutput,
-                                                                     groupedInput,
-                                                                     groupedOutput,
-                                                                     hierarchies,
-                                                                     shares,
-                                                                     indices,
-                                                                     configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.precision = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.mse = new QualityModelColumnOrientedSquaredError(stop,
+        // Numeric representations of columns are shared between models
+        final double[][][] numbers = new double[indices.length][][];
+
+        // Models are independent, evaluate them in parallel
+        final int[] workloads = new int[] { 10, 15, 10, 10, 5, 10, 5, 10, 15 };
+        IntStream.range(0, workloads.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int model) {
+                int workload = workloads[model];
+                try {
+                    switch (model) {
+                    case 0:
+                        loss = new QualityModelColumnOrientedLoss(stop,
                                                                   progress,
                                                                   workload,
                                                                   input,
@@ -239,63 +183,24 @@ public class StatisticsQuality {
                                                                   shares,
                                                                   indices,
                                                                   configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.mse = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 5;
-        try {
-            this.aecs = new QualityModelRowOrientedAECS(stop,
-                                                        progress,
-                                                        workload,
-                                                        input,
-                                                        output,
-                                                        suppressedInput,
-                                                        suppressedOutput,
-                                                        groupedInput,
-                                                        groupedOutput,
-                                                        hierarchies,
-                                                        shares,
-                                                        indices,
-                                                        configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.aecs = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.ambiguity = new QualityModelRowOrientedAmbiguity(stop,
-                                                                  progress,
-                                                                  workload,
-                                                                  input,
-                                                                  output,
-                                                                  suppressedInput,
-                                                                  suppressedOutput,
-                                                                  groupedInput,
-                                                                  groupedOutput,
-                                                                  hierarchies,
-                                                                  shares,
-                                                                  indices,
-                                                                  configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.ambiguity = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-        
-        // Build
-        workload = 5;
-        try {
-            this.discernibility = new QualityModelRowOrientedDiscernibility(stop,
+                        break;
+                    case 1:
+                        entropy = new QualityModelColumnOrientedNonUniformEntropy(stop,
+                                                                                  progress,
+                                                                                  workload,
+                                                                                  input,
+                                                                                  output,
+                                                                                  suppressedInput,
+                                                                                  suppressedOutput,
+                                                                                  groupedInput,
+                                                                                  groupedOutput,
+                                                                                  hierarchies,
+                                                                                  shares,
+                                                                                  indices,
+                                                                                  configuration).evaluate();
+                        break;
+                    case 2:
+                        precision = new QualityModelColumnOrientedPrecision(stop,
                                                                             progress,
                                                                             workload,
                                                                             input,
@@ -308,40 +213,25 @@ public class StatisticsQuality {
                                                                             shares,
                                                                             indices,
                                                                             configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.discernibility = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.ssesst = new QualityModelRowOrientedSSESST(stop,
-                                                            progress,
-                                                            workload,
-                                                            input,
-                                                            output,
-                                                            suppressedInput,
-                                                            suppressedOutput,
-                                                            groupedInput,
-                                                            groupedOutput,
-                                                            hierarchies,
-                                                            shares,
-                                                            indices,
-                                                            configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.ssesst = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-        
-        // Build
-        workload = 15;
-        try {
-            this.sse = new QualityModelRowOrientedSquaredError(stop,
+                        break;
+                    case 3:
+                        mse = new QualityModelColumnOrientedSquaredError(stop,
+                                                                         progress,
+                                                                         workload,
+                                                                         input,
+                                                                         output,
+                                                                         suppressedInput,
+                                                                         suppressedOutput,
+                                                                         groupedInput,
+                                                                         groupedOutput,
+                                                                         hierarchies,
+                                                                         shares,
+                                                                         indices,
+                                                                         numbers,
+                                                                         configuration).evaluate();
+                        break;
+                    case 4:
+                        aecs = new QualityModelRowOrientedAECS(stop,
                                                                progress,
                                                                workload,
                                                                input,
@@ -354,12 +244,90 @@ public class StatisticsQuality {
                                                                shares,
                                                                indices,
                                                                configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.sse = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
+                        break;
+                    case 5:
+                        ambiguity = new QualityModelRowOrientedAmbiguity(stop,
+                                                                         progress,
+                                                                         workload,
+                                                                         input,
+                                                                         output,
+                                                                         suppressedInput,
+                                                                         suppressedOutput,
+                                                                         groupedInput,
+                                                                         groupedOutput,
+                                                                         hierarchies,
+                                                                         shares,
+                                                                         indices,
+                                                                         configuration).evaluate();
+                        break;
+                    case 6:
+                        discernibility = new QualityModelRowOrientedDiscernibility(stop,
+                                                                                   progress,
+                                                                                   workload,
+                                                                                   input,
+                                                                                   output,
+                                                                                   suppressedInput,
+                                                                                   suppressedOutput,
+                                                                                   groupedInput,
+                                                                                   groupedOutput,
+                                                                                   hierarchies,
+                                                                                   shares,
+                                                                                   indices,
+                                                                                   configuration).evaluate();
+                        break;
+                    case 7:
+                        ssesst = new QualityModelRowOrientedSSESST(stop,
+                                                                   progress,
+                                                                   workload,
+                                                                   input,
+                                                                   output,
+                                                                   suppressedInput,
+                                                                   suppressedOutput,
+                                                                   groupedInput,
+                                                                   groupedOutput,
+                                                                   hierarchies,
+                                                                   shares,
+                                                                   indices,
+                                                                   numbers,
+                                                                   configuration).evaluate();
+                        break;
+                    case 8:
+                        sse = new QualityModelRowOrientedSquaredError(stop,
+                                                                      progress,
+                                                                      workload,
+                                                                      input,
+                                                                      output,
+                                                                      suppressedInput,
+                                                                      suppressedOutput,
+                                                                      groupedInput,
+                                                                      groupedOutput,
+                                                                      hierarchies,
+                                                                      shares,
+                                                                      indices,
+                                                                      numbers,
+                                                                      configuration).evaluate();
+                        break;
+                    }
+                    checkInterrupt();
+                } catch (Exception e) {
+                    // Fail silently
+                    switch (model) {
+                    case 0: loss = new QualityMeasureColumnOriented(); break;
+                    case 1: entropy = new QualityMeasureColumnOriented(); break;
+                    case 2: precision = new QualityMeasureColumnOriented(); break;
+                    case 3: mse = new QualityMeasureColumnOriented(); break;
+                    case 4: aecs = new QualityMeasureRowOriented(); break;
+                    case 5: ambiguity = new QualityMeasureRowOriented(); break;
+                    case 6: discernibility = new QualityMeasureRowOriented(); break;
+                    case 7: ssesst = new QualityMeasureRowOriented(); break;
+                    case 8: sse = new QualityMeasureRowOriented(); break;
+                    }
+                    synchronized (progress) {
+                        progress.value += workload;
+                    }
+                }
+            }
+        });
     }
 
     /**
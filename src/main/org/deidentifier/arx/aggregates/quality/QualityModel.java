@@ -26,6 +26,7 @@ import java.util.Set;
 
 import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
+import org.deidentifier.arx.TypedColumn;
 import org.deidentifier.arx.common.Groupify;
 import org.deidentifier.arx.common.TupleWrapper;
 import org.deidentifier.arx.common.WrappedBoolean;
@@ -71,8 +72,8 @@ abstract class QualityModel<T> {
     /** Counter */
     private final WrappedInteger         progress;
 
-    /** Workload */
-    private final int                    startWorkload;
+    /** Workload reported so far */
+    private int                          reportedWorkload;
 
     /** Workload */
     private final int                    totalWorkload;
@@ -83,6 +84,9 @@ abstract class QualityModel<T> {
     /** Shares */
     private final QualityDomainShare[]   shares;
 
+    /** Numeric representations of columns, shared between models */
+    private final double[][][]           numbers;
+
     /** Value */
     private final String                 suppressedValue;
 
@@ -123,6 +127,52 @@ abstract class QualityModel<T> {
                  QualityDomainShare[] shares,
                  int[] indices,
                  QualityConfiguration config) {
+        this(interrupt,
+             progress,
+             totalWorkload,
+             input,
+             output,
+             suppressedInput,
+             suppressedOutput,
+             groupedInput,
+             groupedOutput,
+             hierarchies,
+             shares,
+             indices,
+             new double[indices.length][][],
+             config);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param interrupt
+     * @param progress
+     * @param totalWorkload
+     * @param input
+     * @param output
+     * @param groupedInput
+     * @param groupedOutput
+     * @param hierarchies
+     * @param shares
+     * @param indices
+     * @param numbers Numeric representations of columns, shared between models
+     * @param config
+     */
+    QualityModel(WrappedBoolean interrupt,
+                 WrappedInteger progress,
+                 int totalWorkload,
+                 DataHandle input,
+                 DataHandle output,
+                 int suppressedInput,
+                 int suppressedOutput,
+                 Groupify<TupleWrapper> groupedInput,
+                 Groupify<TupleWrapper> groupedOutput,
+                 String[][][] hierarchies,
+                 QualityDomainShare[] shares,
+                 int[] indices,
+                 double[][][] numbers,
+                 QualityConfiguration config) {
         
         // Store data
         this.input = input;
@@ -136,7 +186,7 @@ abstract class QualityModel<T> {
         this.hierarchies = hierarchies;
         this.interrupt = interrupt;
         this.progress = progress;
-        this.startWorkload = progress.value;
+        this.numbers = numbers;
         this.totalWorkload = totalWorkload;
         this.suppressedValue = config.getSuppressedValue();
         
@@ -231,6 +281,22 @@ abstract class QualityModel<T> {
         return new double[][]{inputAsNumbers, outputAsNumbers};
     }
 
+    /**
+     * Returns the input and output of the column with the given index converted to numbers.
+     * They are computed only once and shared between models.
+     * 
+     * @param index
+     * @return
+     */
+    protected double[][] getColumnsAsNumbers(int index) {
+        synchronized (numbers) {
+            if (numbers[index] == null) {
+                numbers[index] = getColumnsAsNumbers(input, output, hierarchies[index], indices[index]);
+            }
+            return numbers[index];
+        }
+    }
+
     /**
      * Returns the domain shares
      */
@@ -384,9 +450,9 @@ abstract class QualityModel<T> {
             // Parse numbers
             if (input.getDataType(attribute) instanceof DataTypeWithRatioScale) {
 
-                QualityConfigurationValueParser<?> parser = QualityConfigurationValueParser.create(input.getDataType(attribute));
+                TypedColumn typed = TypedColumn.get(input, new int[] { column })[0];
                 for (int row = 0; row < input.getNumRows(); row++) {
-                    double number = parser.getDouble(input.getValue(row, column));
+                    double number = typed.getDouble(row);
                     result[row * 2] = number;
                     result[row * 2 + 1] = number;
                     
@@ -429,14 +495,14 @@ abstract class QualityModel<T> {
             // Parse numbers
             if (output.getDataType(attribute) instanceof DataTypeWithRatioScale) {
 
-                QualityConfigurationValueParser<?> parser = QualityConfigurationValueParser.create(output.getDataType(attribute));
+                TypedColumn typed = TypedColumn.get(output, new int[] { column })[0];
                 for (int row = 0; row < output.getNumRows(); row++) {
                     
                     if (output.isOutlier(row)) {
                         result[row * 2] = minimum;
                         result[row * 2 + 1] = maximum;    
                     } else {   
-                        double number = parser.getDouble(output.getValue(row, column));
+                        double number = typed.getDouble(row);
                         result[row * 2] = number;
                         result[row * 2 + 1] = number;
                     }
@@ -706,7 +772,7 @@ abstract class QualityModel<T> {
     protected void setStepPerformed() {
         this.currentSteps++;
         int value = (int)Math.round((double)totalWorkload * (double)currentSteps / (double)totalSteps);
-        this.progress.value = startWorkload + value;
+        this.setProgress(value);
     }
 
     /**
@@ -721,6 +787,18 @@ abstract class QualityModel<T> {
      * All steps performed
      */
     protected void setStepsDone() {
-        this.progress.value = startWorkload + totalWorkload;
+        this.setProgress(totalWorkload);
+    }
+
+    /**
+     * Reports the workload performed so far. Models may be evaluated concurrently,
+     * so only the difference is added to the shared counter.
+     * @param workload
+     */
+    private void setProgress(int workload) {
+        synchronized (progress) {
+            progress.value += workload - reportedWorkload;
+        }
+        reportedWorkload = workload;
     }
 }
@@ -46,6 +46,7 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
      * @param hierarchies
      * @param shares
      * @param indices
+     * @param numbers
      * @param config
      */
     public QualityModelColumnOrientedSquaredError(WrappedBoolean interrupt,
@@ -60,6 +61,7 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
                                                   String[][][] hierarchies,
                                                   QualityDomainShare[] shares,
                                                   int[] indices,
+                                                  double[][][] numbers,
                                                   QualityConfiguration config) {
                 super(interrupt,
                       progress,
@@ -73,6 +75,7 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
                       hierarchies,
                       shares,
                       indices,
+                      numbers,
                       config);
     }
     
@@ -84,7 +87,6 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
         double[] result = new double[indices.length];
         double[] min = new double[indices.length];
         double[] max = new double[indices.length];
-        String[][][] hierarchies = getHierarchies();
         
         // Progress
         setSteps(result.length);
@@ -95,14 +97,12 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
             try {
                 
                 // Map
-                int column = indices[i];
                 double[] input = null;
                 double[] output = null;
                 
                 // Parse
                 try {
-                    double[][] columnsAsNumbers = getColumnsAsNumbers(getInput(), getOutput(), 
-                                                                      hierarchies[i], column);
+                    double[][] columnsAsNumbers = getColumnsAsNumbers(i);
                     if (columnsAsNumbers != null) {
                         input = columnsAsNumbers[0];
                         output= columnsAsNumbers[1];
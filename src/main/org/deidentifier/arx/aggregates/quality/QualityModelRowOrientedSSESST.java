@@ -50,6 +50,7 @@ public class QualityModelRowOrientedSSESST extends QualityModel<QualityMeasureRo
      * @param hierarchies
      * @param shares
      * @param indices
+     * @param numbers
      * @param config
      */
     public QualityModelRowOrientedSSESST(WrappedBoolean interrupt,
@@ -64,6 +65,7 @@ public class QualityModelRowOrientedSSESST extends QualityModel<QualityMeasureRo
                                          String[][][] hierarchies,
                                          QualityDomainShare[] shares,
                                          int[] indices,
+                                         double[][][] numbers,
                                          QualityConfiguration config) {
        super(interrupt,
              progress,
@@ -77,6 +79,7 @@ public class QualityModelRowOrientedSSESST extends QualityModel<QualityMeasureRo
              hierarchies,
              shares,
              indices,
+             numbers,
              config);
     }
 
@@ -89,7 +92,6 @@ public class QualityModelRowOrientedSSESST extends QualityModel<QualityMeasureRo
             int[] indices = getIndices();
             List<double[]> columns1 = new ArrayList<>();
             List<double[]> columns2 = new ArrayList<>();
-            String[][][] hierarchies = getHierarchies();
 
             // Progress
             setSteps(indices.length + 2);
@@ -97,9 +99,7 @@ public class QualityModelRowOrientedSSESST extends QualityModel<QualityMeasureRo
             // Collect
             for (int index = 0; index < indices.length; index++) {
                 try {
-                    int column = indices[index];
-                    double[][] columnsAsNumbers = getColumnsAsNumbers(getInput(), getOutput(), 
-                                                                      hierarchies[index], column);
+                    double[][] columnsAsNumbers = getColumnsAsNumbers(index);
                     if (columnsAsNumbers != null) {
                         columns1.add(columnsAsNumbers[0]);
                         columns2.add(columnsAsNumbers[1]);
@@ -50,6 +50,7 @@ public class QualityModelRowOrientedSquaredError extends QualityModel<QualityMea
      * @param hierarchies
      * @param shares
      * @param indices
+     * @param numbers
      * @param config
      */
     public QualityModelRowOrientedSquaredError(WrappedBoolean interrupt,
@@ -64,6 +65,7 @@ public class QualityModelRowOrientedSquaredError extends QualityModel<QualityMea
                                                String[][][] hierarchies,
                                                QualityDomainShare[] shares,
                                                int[] indices,
+                                               double[][][] numbers,
                                                QualityConfiguration config) {
              super(interrupt,
                    progress,
@@ -77,6 +79,7 @@ public class QualityModelRowOrientedSquaredError extends QualityModel<QualityMea
                    hierarchies,
                    shares,
                    indices,
+                   numbers,
                    config);
     }
 
@@ -90,7 +93,6 @@ public class QualityModelRowOrientedSquaredError extends QualityModel<QualityMea
             List<double[]> columns1 = new ArrayList<>();
             List<double[]> columns2 = new ArrayList<>();
             List<Double> stdDevs = new ArrayList<>();
-            String[][][] hierarchies = getHierarchies();
 
             // Progress
             setSteps(indices.length + 2);
@@ -98,9 +100,7 @@ public class QualityModelRowOrientedSquaredError extends QualityModel<QualityMea
             // Collect
             for (int index = 0; index < indices.length; index++) {
                 try {
-                    int column = indices[index];
-                    double[][] columnsAsNumbers = getColumnsAsNumbers(getInput(), getOutput(), 
-                                                                      hierarchies[index], column);
+                    double[][] columnsAsNumbers = getColumnsAsNumbers(index);
                     if (columnsAsNumbers != null) {
                         double stdDev = getStandardDeviation(columnsAsNumbers[0]);
                         columns1.add(columnsAsNumbers[0]);
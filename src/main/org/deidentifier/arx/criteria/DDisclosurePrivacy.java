@@ -82,6 +82,12 @@ public class DDisclosurePrivacy extends ExplicitPrivacyCriterion {
         return d;
     }
 
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
 	@Override
     public int getRequirements(){
         // Requires a distribution
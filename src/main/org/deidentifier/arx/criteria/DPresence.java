@@ -104,6 +104,12 @@ public class DPresence extends ImplicitPrivacyCriterion {
         return dMin;
     }
 
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
     @Override
     public int getRequirements(){
         // Requires two counters
@@ -174,6 +174,12 @@ public class EDDifferentialPrivacy extends ImplicitPrivacyCriterion {
         return getK();
     }
     
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
     @Override
     public int getRequirements(){
         // Requires two counters
@@ -71,6 +71,12 @@ public class EnhancedBLikeness extends ExplicitPrivacyCriterion {
         return this.b;
     }
 
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
 	@Override
     public int getRequirements(){
         // Requires a distribution
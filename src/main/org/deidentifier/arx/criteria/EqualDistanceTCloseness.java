@@ -19,6 +19,7 @@ package org.deidentifier.arx.criteria;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.certificate.elements.ElementData;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -55,6 +56,12 @@ public class EqualDistanceTCloseness extends TCloseness {
         return new EqualDistanceTCloseness(this.getAttribute(), this.getT());
     }
     
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
     @Override
     public void initialize(DataManager manager, ARXConfiguration config) {
         super.initialize(manager, config);
@@ -63,10 +70,15 @@ public class EqualDistanceTCloseness extends TCloseness {
 
     @Override
     public boolean isAnonymous(Transformation<?> node, HashGroupifyEntry entry) {
+        // Checking is linear in the size of the distribution, results are thus not cached
+        return isAnonymous(entry.count, entry.distributions[index]);
+    }
+
+    @Override
+    protected boolean isAnonymous(int count, Distribution distribution) {
 
         // Calculate EMD with equal distance
-        int[] buckets = entry.distributions[index].getBuckets();
-        double count = entry.count;
+        int[] buckets = distribution.getBuckets();
         
         /* 
          * P = Set of ids of values in local frequency set
@@ -89,7 +101,7 @@ public class EqualDistanceTCloseness extends TCloseness {
         double val = 1.0d;
         for (int i = 0; i < buckets.length; i += 2) {
             if (buckets[i] != -1) { // bucket not empty
-                double frequency = distribution[buckets[i]];
+                double frequency = this.distribution[buckets[i]];
                 val += Math.abs((frequency - ((double) buckets[i + 1] / count))) - frequency;
             }
         }
@@ -20,6 +20,7 @@ package org.deidentifier.arx.criteria;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.certificate.elements.ElementData;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -67,6 +68,18 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
         return new HierarchicalDistanceTCloseness(this.getAttribute(), this.getT(), this.hierarchy);
     }
     
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // Uses a separate copy of the internal tree
+        HierarchicalDistanceTCloseness result = this.clone();
+        result.index = this.index;
+        result.tree = this.tree.clone();
+        result.start = this.start;
+        result.empty = this.empty;
+        result.cache = this.cache;
+        return result;
+    }
+
     /**
      * Returns the hierarchy backing the EMD calculations.
      *
@@ -86,6 +99,11 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
 
     @Override
     public boolean isAnonymous(Transformation<?> node, HashGroupifyEntry entry) {
+        return isAnonymousCached(entry, tree.length);
+    }
+
+    @Override
+    protected boolean isAnonymous(int count, Distribution distribution) {
         
         // Empty data in tree
         System.arraycopy(empty, 0, tree, start, empty.length);
@@ -100,7 +118,7 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
 
         // Copy and count
         int totalElementsQ = 0;
-        int[] buckets = entry.distributions[index].getBuckets();
+        int[] buckets = distribution.getBuckets();
         for (int i = 0; i < buckets.length; i += 2) {
             if (buckets[i] != -1) { // bucket not empty
                 final int value = buckets[i];
@@ -197,6 +197,12 @@ public class KMap extends ImplicitPrivacyCriterion {
         return this.populationModel;
     }
     
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
     @Override
     public int getRequirements() {
         if (this.estimator == null) {
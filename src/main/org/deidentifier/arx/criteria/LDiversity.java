@@ -69,6 +69,12 @@ public abstract class LDiversity extends ExplicitPrivacyCriterion {
         return this.minSize;
     }
 
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
     @Override
     public int getRequirements() {
 
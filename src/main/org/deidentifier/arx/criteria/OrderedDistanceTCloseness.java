@@ -20,6 +20,7 @@ package org.deidentifier.arx.criteria;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.certificate.elements.ElementData;
 import org.deidentifier.arx.common.FastIntDoubleMap;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -73,6 +74,12 @@ public class OrderedDistanceTCloseness extends TCloseness {
         return new OrderedDistanceTCloseness(this.getAttribute(), this.getT());
     }
     
+    @Override
+    public PrivacyCriterion getConcurrentInstance() {
+        // No state is modified when checking classes
+        return this;
+    }
+
     @Override
     public void initialize(DataManager manager, ARXConfiguration config) {
         
@@ -112,10 +119,14 @@ public class OrderedDistanceTCloseness extends TCloseness {
     
     @Override
     public boolean isAnonymous(Transformation<?> node, HashGroupifyEntry entry) {
+        return isAnonymousCached(entry, order.length);
+    }
+
+    @Override
+    protected boolean isAnonymous(int count, Distribution d) {
 
         // Init
-        int[] buckets = entry.distributions[index].getBuckets();
-        double count = entry.count;
+        int[] buckets = d.getBuckets();
         
         // Prepare
         int currentMinOrder = Integer.MAX_VALUE;
@@ -74,6 +74,16 @@ public abstract class PrivacyCriterion implements Serializable{
         return this.clone();
     }
     
+    /**
+     * Returns an instance of this criterion which can be used for checking classes concurrently
+     * to this instance, <code>null</code> if classes must be checked sequentially. Criteria which
+     * do not modify any state when checking classes may return this instance.
+     * @return
+     */
+    public PrivacyCriterion getConcurrentInstance() {
+        return null;
+    }
+    
     /**
      * If a privacy model uses a data subset, it must overwrite this method
      * @return
@@ -18,6 +18,10 @@
 package org.deidentifier.arx.criteria;
 
 import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+import org.deidentifier.arx.framework.data.DataManager;
 
 /**
  * An abstract base class for t-closeness criteria as proposed in:
@@ -36,6 +40,15 @@ public abstract class TCloseness extends ExplicitPrivacyCriterion {
     /** The param t. */
     protected final double    t;
 
+    /**  Maximal number of cached results of checking classes */
+    private static final int CACHE_CAPACITY = 16384;
+
+    /**  Minimal cost of a check per value in a distribution, for results to be cached */
+    private static final int CACHE_MIN_COST = 64;
+
+    /**  Cached results of checking classes, keyed by their distribution of sensitive values */
+    protected transient DistributionCache cache;
+
     /**
      * Creates a new instance.
      *
@@ -53,6 +66,16 @@ public abstract class TCloseness extends ExplicitPrivacyCriterion {
         return ARXConfiguration.REQUIREMENT_DISTRIBUTION;
     }
     
+    /**
+     * Returns the cache for results of checking classes, <code>null</code> if the
+     * criterion has not been initialized.
+     *
+     * @return
+     */
+    public DistributionCache getDistributionCache() {
+        return cache;
+    }
+    
     /**
      * Returns the parameter t.
      *
@@ -61,4 +84,44 @@ public abstract class TCloseness extends ExplicitPrivacyCriterion {
     public double getT(){
         return t;
     }
+
+    @Override
+    public void initialize(DataManager manager, ARXConfiguration config) {
+        super.initialize(manager, config);
+        cache = new DistributionCache(CACHE_CAPACITY);
+    }
+
+    /**
+     * Returns whether a class with the given size and distribution of sensitive values fulfills
+     * the criterion.
+     *
+     * @param count
+     * @param distribution
+     * @return
+     */
+    protected abstract boolean isAnonymous(int count, Distribution distribution);
+
+    /**
+     * Returns whether the given class fulfills the criterion. Results are cached by the size and
+     * the distribution of sensitive values of the class, so that repeated distributions are only
+     * checked once. As computing the key is linear in the size of the distribution, results are
+     * only cached if the cost of a check, which is specified by the caller, is much higher.
+     *
+     * @param entry
+     * @param cost Approximate number of steps needed for checking a class
+     * @return
+     */
+    protected boolean isAnonymousCached(HashGroupifyEntry entry, int cost) {
+        Distribution distribution = entry.distributions[index];
+        if (cache == null || cost < CACHE_MIN_COST * (distribution.size() + 1)) {
+            return isAnonymous(entry.count, distribution);
+        }
+        DistributionCache.Key key = cache.getKey(entry.count, distribution);
+        Boolean result = cache.get(key);
+        if (result == null) {
+            result = isAnonymous(entry.count, distribution);
+            cache.put(key, result);
+        }
+        return result;
+    }
 }
@@ -19,6 +19,7 @@ package org.deidentifier.arx.framework.check;
 
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
 import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyHistogram;
 import org.deidentifier.arx.framework.data.Data;
 import org.deidentifier.arx.framework.data.DataAggregationInformation;
 import org.deidentifier.arx.framework.data.DataManager;
@@ -106,8 +107,87 @@ public class TransformationApplicator {
         
         // Prepare
         microaggregationDictionary.definalizeAll();
+        HashGroupify currentGroupify = getGroupify(transformation);
+        
+        // Determine information loss
+        InformationLoss<?> loss = getInformationLoss(transformation, currentGroupify);
+        
+        // Prepare buffers
+        Data microaggregatedOutput = Data.createWrapper(new DataMatrix(0,0), new String[0], new int[0], new Dictionary(0));
+        Data generalizedOutput = Data.createWrapper(outputGeneralized, inputGeneralized.getHeader(), inputGeneralized.getColumns(), inputGeneralized.getDictionary());
+        
+        // Perform microaggregation and suppression
+        boolean microaggregate = aggregation.getColdQIsFunctions().length > 0 ||
+                                 aggregation.getHotQIsNotGeneralizedFunctions().length > 0 ||
+                                 aggregation.getHotQIsGeneralizedFunctions().length > 0;
+        boolean suppress = config.getAbsoluteSuppressionLimit() != 0 || !currentGroupify.isPrivacyModelFulfilled();
+        if (microaggregate || suppress) {
+            Data result = currentGroupify.performMicroaggregationAndSuppression(aggregation, microaggregationDictionary, microaggregate, suppress);
+            if (microaggregate) {
+                microaggregatedOutput = result;
+            }
+        }
+        
+        // Keep the sizes of classes. With microaggregation, classes in the
+        // output may differ from the classes formed by generalized values.
+        HashGroupifyHistogram histogram = microaggregate ? null : currentGroupify.getHistogram();
+        
+        // Return the buffer
+        return new TransformedData(generalizedOutput, microaggregatedOutput, 
+                                   new TransformationResult(currentGroupify.isPrivacyModelFulfilled(), 
+                                              minimalClassSizeRequired ? currentGroupify.isMinimalClassSizeFulfilled() : null, 
+                                              loss, null),
+                                   histogram);
+    }
+    
+    /**
+     * Applies the given transformation without post-processing the output buffer, which is only
+     * used for grouping the records. Suppressed records and the sizes of classes are derived
+     * from the classes instead.
+     * 
+     * @param transformation
+     * @return
+     */
+    public TransformedData applyTransformationWithoutOutput(final Transformation<?> transformation) {
+        
+        // Prepare
+        HashGroupify currentGroupify = getGroupify(transformation);
+        
+        // Determine information loss
+        InformationLoss<?> loss = getInformationLoss(transformation, currentGroupify);
+        
+        // Perform microaggregation, suppression is derived from the classes
+        Data microaggregatedOutput = Data.createWrapper(new DataMatrix(0,0), new String[0], new int[0], new Dictionary(0));
+        boolean microaggregate = aggregation.getColdQIsFunctions().length > 0 ||
+                                 aggregation.getHotQIsNotGeneralizedFunctions().length > 0 ||
+                                 aggregation.getHotQIsGeneralizedFunctions().length > 0;
+        boolean suppress = config.getAbsoluteSuppressionLimit() != 0 || !currentGroupify.isPrivacyModelFulfilled();
+        if (microaggregate) {
+            microaggregatedOutput = currentGroupify.performMicroaggregationAndSuppression(aggregation, new Dictionary(aggregation.getMicroaggregationHeader().length), true, false);
+        }
+        
+        // Keep the sizes of classes. With microaggregation, classes in the
+        // output may differ from the classes formed by generalized values.
+        HashGroupifyHistogram histogram = microaggregate ? null : currentGroupify.getHistogram(suppress);
+        
+        // Return
+        TransformedData result = new TransformedData(null, microaggregatedOutput, 
+                                                     new TransformationResult(currentGroupify.isPrivacyModelFulfilled(), 
+                                                                minimalClassSizeRequired ? currentGroupify.isMinimalClassSizeFulfilled() : null, 
+                                                                loss, null),
+                                                     histogram);
+        result.suppressed = currentGroupify.getSuppressedRecords(suppress);
+        return result;
+    }
+    
+    /**
+     * Transforms and groups the data, tracking the class of each row
+     * 
+     * @param transformation
+     * @return
+     */
+    private HashGroupify getGroupify(final Transformation<?> transformation) {
         
-
         int initialSize = (int) (inputGeneralized.getDataLength() * 0.01d);
         Transformer transformer = new Transformer(inputGeneralized.getArray(),
                                                   inputAnalyzed,
@@ -124,40 +204,29 @@ public class TransformationApplicator {
                                                         inputAnalyzed,
                                                         inputGeneralized.getDictionary().getSuppressedCodes());
         
-        // Apply transition and groupify
+        // Apply transition and groupify, tracking the class of each row
+        currentGroupify.stateTrackClasses();
         currentGroupify = transformer.apply(0L, transformation.getGeneralization(), currentGroupify);
         currentGroupify.stateAnalyze(transformation, true);
         if (!currentGroupify.isPrivacyModelFulfilled() && !config.isSuppressionAlwaysEnabled()) {
             currentGroupify.stateResetSuppression();
         }
-        
-        // Determine information loss
+        return currentGroupify;
+    }
+    
+    /**
+     * Returns the information loss of the given transformation
+     * 
+     * @param transformation
+     * @param groupify
+     * @return
+     */
+    private InformationLoss<?> getInformationLoss(final Transformation<?> transformation, final HashGroupify groupify) {
         InformationLoss<?> loss = transformation.getInformationLoss();
         if (loss == null) {
-            loss = metric.getInformationLoss(transformation, currentGroupify).getInformationLoss();
-        }
-        
-        // Prepare buffers
-        Data microaggregatedOutput = Data.createWrapper(new DataMatrix(0,0), new String[0], new int[0], new Dictionary(0));
-        Data generalizedOutput = Data.createWrapper(transformer.getBuffer(), inputGeneralized.getHeader(), inputGeneralized.getColumns(), inputGeneralized.getDictionary());
-        
-        // Perform microaggregation. This has to be done before suppression.
-        if (aggregation.getColdQIsFunctions().length > 0 ||
-            aggregation.getHotQIsNotGeneralizedFunctions().length > 0 ||
-            aggregation.getHotQIsGeneralizedFunctions().length > 0) {
-            microaggregatedOutput = currentGroupify.performMicroaggregation(aggregation, microaggregationDictionary);
+            loss = metric.getInformationLoss(transformation, groupify).getInformationLoss();
         }
-        
-        // Perform suppression
-        if (config.getAbsoluteSuppressionLimit() != 0 || !currentGroupify.isPrivacyModelFulfilled()) {
-            currentGroupify.performSuppression();
-        }
-        
-        // Return the buffer
-        return new TransformedData(generalizedOutput, microaggregatedOutput, 
-                                   new TransformationResult(currentGroupify.isPrivacyModelFulfilled(), 
-                                              minimalClassSizeRequired ? currentGroupify.isMinimalClassSizeFulfilled() : null, 
-                                              loss, null));
+        return loss;
     }
     
 }
@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx.framework.check;
 
+import org.deidentifier.arx.RowSet;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyHistogram;
 import org.deidentifier.arx.framework.data.Data;
 
 /**
@@ -37,15 +39,24 @@ public class TransformedData {
     /** The properties */
     public TransformationResult         properties;
     
+    /** Sizes of equivalence classes, null if not available */
+    public HashGroupifyHistogram        histogram;
+    
+    /** Suppressed records, if the output buffer has not been post-processed */
+    public RowSet                       suppressed;
+    
     /**
      * Instantiate the helper object.
      * 
      * @param bufferGH
      * @param bufferOT
+     * @param properties
+     * @param histogram
      */
-    public TransformedData(Data bufferGH, Data bufferOT, TransformationResult properties) {
+    public TransformedData(Data bufferGH, Data bufferOT, TransformationResult properties, HashGroupifyHistogram histogram) {
         this.bufferGeneralized = bufferGH;
         this.bufferMicroaggregated = bufferOT;
         this.properties = properties;
+        this.histogram = histogram;
     }
 }
@@ -23,7 +23,12 @@ import org.deidentifier.arx.framework.check.groupify.HashTableUtil;
 
 /**
  * This class can be utilized to track the distributions of values. It is backed by a hash table
- * implementing open addressing with linear probing.
+ * implementing open addressing with linear probing. As long as all values are smaller than the
+ * capacity of the table, which is typically the case for sensitive attributes with small domains,
+ * each value is stored in the bucket with the same index. The table is then a dense array of
+ * counters and distributions can be merged by adding up buckets without probing. The layout of
+ * the table does not depend on the representation, as some privacy models depend on the order
+ * in which values are iterated.
  * 
  * @author Fabian Prasser
  * @author Florian Kohlmayer
@@ -45,6 +50,9 @@ public class Distribution {
     /** The elements. Even index contains value, odd index contains frequency */
     private int[]              elements;
 
+    /** Whether all values are smaller than the capacity */
+    private boolean            dense;
+
     /**
      * Default constructor.
      */
@@ -60,11 +68,7 @@ public class Distribution {
      */
     public Distribution(final int[] element, final int[] frequency) {
         this(element.length);
-        for (int i = 0; i < element.length; i++) {
-            if (element[i] != -1) {
-                this.add(element[i], frequency[i]);
-            }
-        }
+        this.merge(element, frequency);
     }
 
     /**
@@ -79,6 +83,7 @@ public class Distribution {
         elements = new int[capacity << 1];
         Arrays.fill(elements, -1);
         threshold = HashTableUtil.calculateThreshold(capacity, LOADFACTOR);
+        dense = true;
     }
 
     /**
@@ -98,6 +103,7 @@ public class Distribution {
      */
     public void add(final int element, final int value) {
 
+        dense &= (element << 1) < elements.length;
         final int mask = (elements.length - 1);
         int index = (element & ((elements.length >> 1) - 1)) << 1; // start at home bucket
         while (true) {
@@ -126,10 +132,13 @@ public class Distribution {
     public void clear() {
         Arrays.fill(elements, -1);
         size = 0;
+        dense = true;
     }
     
     /**
-     * Gets all buckets of the hash table.
+     * Gets all buckets of the hash table. Even indices contain values, odd indices
+     * contain frequencies. Empty buckets are marked with a value of <code>-1</code>.
+     * If the table is dense, values are sorted.
      *
      * @return
      */
@@ -137,12 +146,43 @@ public class Distribution {
         return elements;
     }
 
+    /**
+     * Returns whether the table is dense, i.e. whether each value is stored in the
+     * bucket with the same index.
+     * 
+     * @return
+     */
+    public boolean isDense() {
+        return dense;
+    }
+
     /**
      * Merges two frequency sets.
      * 
      * @param other
      */
     public void merge(final Distribution other) {
+
+        // Add counters
+        if (dense && other.dense && other.elements.length <= elements.length) {
+            final int[] elements = this.elements;
+            final int[] otherElements = other.elements;
+            for (int i = 0; i < otherElements.length; i += 2) {
+                if (otherElements[i] != -1) {
+                    if (elements[i] == -1) {
+                        elements[i] = otherElements[i];
+                        elements[i + 1] = otherElements[i + 1];
+                        size++;
+                    } else {
+                        elements[i + 1] += otherElements[i + 1];
+                    }
+                }
+            }
+            grow();
+            return;
+        }
+
+        // Add elements
         final int[] otherElements = other.elements;
         for (int i = 0; i < otherElements.length; i += 2) {
             if (otherElements[i] != -1) {
@@ -158,6 +198,34 @@ public class Distribution {
      * @param frequency
      */
     public void merge(final int[] elements, final int[] frequency) {
+
+        // Add counters
+        if (dense) {
+            int max = -1;
+            for (int i = 0; i < elements.length; i++) {
+                max = Math.max(max, elements[i]);
+            }
+            if ((max << 1) < this.elements.length) {
+                final int[] buckets = this.elements;
+                for (int i = 0; i < elements.length; i++) {
+                    final int element = elements[i];
+                    if (element != -1) {
+                        final int index = element << 1;
+                        if (buckets[index] == -1) {
+                            buckets[index] = element;
+                            buckets[index + 1] = frequency[i];
+                            size++;
+                        } else {
+                            buckets[index + 1] += frequency[i];
+                        }
+                    }
+                }
+                grow();
+                return;
+            }
+        }
+
+        // Add elements
         for (int i = 0; i < elements.length; i++) {
             if (elements[i] != -1) {
                 this.add(elements[i], frequency[i]);
@@ -212,6 +280,16 @@ public class Distribution {
         return builder.toString();
     }
 
+    /**
+     * Enlarges a dense table until the threshold is not exceeded anymore. This results
+     * in the same table as adding the elements one by one, as the table stays dense.
+     */
+    private void grow() {
+        while (size > threshold) {
+            rehash();
+        }
+    }
+
     /**
      * Rehashes the frequency set table.
      */
@@ -222,10 +300,12 @@ public class Distribution {
         Arrays.fill(newelements, -1);
 
         final int mask = (newelements.length - 1);
+        boolean dense = true;
         for (int i = 0; i < elements.length; i += 2) {
             if (elements[i] != -1) { // bucket not empty
 
                 int index = (elements[i] & ((newelements.length >> 1) - 1)) << 1;
+                dense &= index == (elements[i] << 1);
                 while (true) {
                     if (newelements[index] == -1) { // empty bucket, not found
                         newelements[index] = elements[i];
@@ -239,5 +319,6 @@ public class Distribution {
 
         threshold = (int) (capacity * LOADFACTOR);
         elements = newelements;
+        this.dense = dense;
     }
 }
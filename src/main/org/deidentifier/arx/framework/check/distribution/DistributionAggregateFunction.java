@@ -25,6 +25,7 @@ import java.util.List;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
+import org.deidentifier.arx.TypedDictionary;
 
 import cern.colt.GenericSorting;
 import cern.colt.Swapper;
@@ -101,6 +102,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
                                                                                                                  this.minimum,
                                                                                                                  this.maximum);
             if (dictionary != null) {
+                result.typedDictionary = typedDictionary;
                 result.initialize(dictionary, type);
             }
             return result;
@@ -190,6 +192,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
                                                                                                                this.minimum,
                                                                                                                this.maximum);
             if (dictionary != null) {
+                result.typedDictionary = typedDictionary;
                 result.initialize(dictionary, type);
             }
             return result;
@@ -269,6 +272,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
         public DistributionAggregateFunctionInterval clone() {
             DistributionAggregateFunctionInterval result = new DistributionAggregateFunctionInterval(this.ignoreMissingData);
             if (dictionary != null) {
+                result.typedDictionary = typedDictionary;
                 result.initialize(dictionary, type);
             }
             return result;
@@ -395,6 +399,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
                                                                                                  this.minimum,
                                                                                                  this.maximum);
             if (dictionary != null) {
+                result.typedDictionary = typedDictionary;
                 result.initialize(dictionary, type);
             }
             return result;
@@ -410,7 +415,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
             @SuppressWarnings("unchecked")
             DataTypeWithRatioScale<T> rType = (DataTypeWithRatioScale<T>) this.type;
             DoubleArrayList list = new DoubleArrayList();
-            Iterator<Double> it = DistributionIterator.createIteratorDouble(distribution, dictionary, rType);
+            Iterator<Double> it = DistributionIterator.createIteratorDouble(distribution, typedDictionary);
             while (it.hasNext()) {
                 Double value = it.next();
                 value = value == null ? (ignoreMissingData ? null : 0d) : value;
@@ -516,6 +521,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
                                                                                              this.minimum,
                                                                                              this.maximum);
             if (dictionary != null) {
+                result.typedDictionary = typedDictionary;
                 result.initialize(dictionary, type);
             }
             return result;
@@ -531,7 +537,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
             @SuppressWarnings("unchecked")
             DataTypeWithRatioScale<T> rType = (DataTypeWithRatioScale<T>) this.type;
             DoubleArrayList list = new DoubleArrayList();
-            Iterator<Double> it = DistributionIterator.createIteratorDouble(distribution, dictionary, rType);
+            Iterator<Double> it = DistributionIterator.createIteratorDouble(distribution, typedDictionary);
             while (it.hasNext()) {
                 Double value = it.next();
                 value = value == null ? (ignoreMissingData ? null : 0d) : value;
@@ -597,6 +603,9 @@ public abstract class DistributionAggregateFunction implements Serializable {
     /** Type */
     protected transient DataType<?> type;
 
+    /** Parsed values, if the type has a ratio scale */
+    protected transient TypedDictionary typedDictionary;
+
     /**
      * Instantiates a new function.
      * 
@@ -659,6 +668,11 @@ public abstract class DistributionAggregateFunction implements Serializable {
     public void initialize(String[] dictionary, DataType<?> type) {
         this.dictionary = dictionary;
         this.type = type;
+        if (!(type instanceof DataTypeWithRatioScale)) {
+            this.typedDictionary = null;
+        } else if (typedDictionary == null || typedDictionary.getValues() != dictionary || !typedDictionary.getType().equals(type)) {
+            this.typedDictionary = TypedDictionary.create(dictionary, type);
+        }
     }
     
     /**
@@ -680,7 +694,7 @@ public abstract class DistributionAggregateFunction implements Serializable {
                            Distribution distribution,
                            DataTypeWithRatioScale<T> type,
                            double offset) {
-        Iterator<Double> it = DistributionIterator.createIteratorDouble(distribution, dictionary, type);
+        Iterator<Double> it = DistributionIterator.createIteratorDouble(distribution, typedDictionary);
         while (it.hasNext()) {
             Double value = it.next();
             value = value == null ? (ignoreMissingData ? null : 0d) : value;
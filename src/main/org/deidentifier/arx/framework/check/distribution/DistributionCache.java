@@ -0,0 +1,231 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.distribution;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache for the results of checking a privacy model against classes, which
+ * are characterized by their size and their distribution of sensitive values. The cache
+ * is split into segments, which are locked independently and evict their least recently
+ * used entries. Thread-safe.
+ *
+ * @author Fabian Prasser
+ */
+public class DistributionCache {
+
+    /**
+     * Fingerprint of a class. Distributions are compared by their content, independently
+     * of the layout of their hash tables.
+     *
+     * @author Fabian Prasser
+     */
+    public static class Key {
+
+        /** Size of the class */
+        private final int    count;
+        /** Sorted pairs of value (upper 32 bits) and frequency (lower 32 bits) */
+        private final long[] elements;
+        /** Hash code */
+        private final int    hashcode;
+
+        /**
+         * Creates a new instance
+         *
+         * @param count
+         * @param distribution
+         */
+        private Key(int count, Distribution distribution) {
+            int[] buckets = distribution.getBuckets();
+            long[] elements = new long[distribution.size()];
+            int index = 0;
+            for (int i = 0; i < buckets.length; i += 2) {
+                if (buckets[i] != -1) { // bucket not empty
+                    elements[index++] = ((long) buckets[i] << 32) | (buckets[i + 1] & 0xFFFFFFFFL);
+                }
+            }
+            if (!distribution.isDense()) {
+                Arrays.sort(elements);
+            }
+            this.count = count;
+            this.elements = elements;
+            this.hashcode = 31 * Arrays.hashCode(elements) + count;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key other = (Key) obj;
+            return hashcode == other.hashcode && count == other.count && Arrays.equals(elements, other.elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashcode;
+        }
+    }
+
+    /**
+     * A segment of the cache
+     *
+     * @author Fabian Prasser
+     */
+    private static class Segment extends LinkedHashMap<Key, Boolean> {
+
+        /** SVUID */
+        private static final long serialVersionUID = 4880539016549838839L;
+
+        /** Capacity */
+        private final int         capacity;
+        /** Number of hits */
+        private long              hits;
+        /** Number of misses */
+        private long              misses;
+
+        /**
+         * Creates a new instance
+         *
+         * @param capacity
+         */
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /** Number of segments, power of two */
+    private static final int SEGMENTS = 16;
+
+    /** Segments */
+    private final Segment[]  segments;
+
+    /**
+     * Creates a new instance
+     *
+     * @param capacity Maximal number of cached results
+     */
+    public DistributionCache(int capacity) {
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(Math.max(1, capacity / SEGMENTS));
+        }
+    }
+
+    /**
+     * Returns the cached result for the given key, <code>null</code> if there is none
+     *
+     * @param key
+     * @return
+     */
+    public Boolean get(Key key) {
+        Segment segment = getSegment(key);
+        synchronized (segment) {
+            Boolean result = segment.get(key);
+            if (result != null) {
+                segment.hits++;
+            } else {
+                segment.misses++;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the number of lookups which were answered from the cache
+     *
+     * @return
+     */
+    public long getHits() {
+        long result = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                result += segment.hits;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fraction of lookups which were answered from the cache
+     *
+     * @return
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0d : (double) hits / (double) lookups;
+    }
+
+    /**
+     * Returns the key for a class with the given size and distribution
+     *
+     * @param count
+     * @param distribution
+     * @return
+     */
+    public Key getKey(int count, Distribution distribution) {
+        return new Key(count, distribution);
+    }
+
+    /**
+     * Returns the number of lookups which were not answered from the cache
+     *
+     * @return
+     */
+    public long getMisses() {
+        long result = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                result += segment.misses;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores a result
+     *
+     * @param key
+     * @param result
+     */
+    public void put(Key key, boolean result) {
+        Segment segment = getSegment(key);
+        synchronized (segment) {
+            segment.put(key, result);
+        }
+    }
+
+    /**
+     * Returns the segment for the given key
+     *
+     * @param key
+     * @return
+     */
+    private Segment getSegment(Key key) {
+        int hash = key.hashcode ^ (key.hashcode >>> 16);
+        return segments[hash & (SEGMENTS - 1)];
+    }
+}
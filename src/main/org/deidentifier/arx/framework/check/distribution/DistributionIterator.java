@@ -18,7 +18,7 @@ package org.deidentifier.arx.framework.check.distribution;
 
 import java.util.Iterator;
 
-import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
+import org.deidentifier.arx.TypedDictionary;
 
 /**
  * An iterator over values of a distribution
@@ -35,26 +35,22 @@ public abstract class DistributionIterator<T> implements Iterator<T>{
      */
     private static class DistributionIteratorDouble extends DistributionIterator<Double> {
         
-        /** The data type */
-        @SuppressWarnings("rawtypes")
-        private final DataTypeWithRatioScale type;
-
+        /** The dictionary */
+        private final TypedDictionary dictionary;
 
         /**
          * Constructor
          * @param distribution
          * @param dictionary
-         * @param type
          */
-        DistributionIteratorDouble(Distribution distribution, String[] dictionary, DataTypeWithRatioScale<?> type) {
-            super(distribution, dictionary);
-            this.type = type;
+        DistributionIteratorDouble(Distribution distribution, TypedDictionary dictionary) {
+            super(distribution);
+            this.dictionary = dictionary;
         }
 
-        @SuppressWarnings("unchecked")
         @Override
-        protected Double parse(String value) {
-            return type.toDouble(type.parse(value));
+        protected Double parse(int value) {
+            return dictionary.isNull(value) ? null : dictionary.getDouble(value);
         }
     }
 
@@ -65,30 +61,33 @@ public abstract class DistributionIterator<T> implements Iterator<T>{
      */
     private static class DistributionIteratorString extends DistributionIterator<String> {
         
+        /** The dictionary */
+        private final String[] dictionary;
+
         /**
          * Constructor
          * @param distribution
          * @param dictionary
          */
         DistributionIteratorString(Distribution distribution, String[] dictionary) {
-            super(distribution, dictionary);
+            super(distribution);
+            this.dictionary = dictionary;
         }
 
         @Override
-        protected String parse(String value) {
-            return value;
+        protected String parse(int value) {
+            return dictionary[value];
         }
     }
 
     /**
-     * Returns a string iterator
+     * Returns a double iterator
      * @param distribution
      * @param dictionary
-     * @param type
      * @return
      */
-    static Iterator<Double> createIteratorDouble(Distribution distribution, String[] dictionary, DataTypeWithRatioScale<?> type) {
-        return new DistributionIteratorDouble(distribution, dictionary, type);
+    static Iterator<Double> createIteratorDouble(Distribution distribution, TypedDictionary dictionary) {
+        return new DistributionIteratorDouble(distribution, dictionary);
     }
 
     /**
@@ -104,9 +103,6 @@ public abstract class DistributionIterator<T> implements Iterator<T>{
     /** The distribution. */
     private final int[]    buckets;
 
-    /** The dictionary. */
-    private final String[] dictionary;
-
     /** The index of the next bucket. */
     private int            nextBucket = 0;
     
@@ -123,11 +119,9 @@ public abstract class DistributionIterator<T> implements Iterator<T>{
      * Instantiates the iterator.
      *
      * @param distribution the values
-     * @param dictionary the dictionary
      */
-    DistributionIterator(Distribution distribution, String[] dictionary) {
+    DistributionIterator(Distribution distribution) {
         this.buckets = distribution.getBuckets();
-        this.dictionary = dictionary;
         this.currentValid = false;
     }
     
@@ -186,15 +180,15 @@ public abstract class DistributionIterator<T> implements Iterator<T>{
         }
         
         // Store
-        currentValue = parse(dictionary[value]);
+        currentValue = parse(value);
         currentFrequency = buckets[nextBucket - 1];
         currentValid = true;
     }
 
     /**
-     * Parses the given value
+     * Returns the value with the given code
      * @param value
      * @return
      */
-    protected abstract T parse(String value);
+    protected abstract T parse(int value);
 }
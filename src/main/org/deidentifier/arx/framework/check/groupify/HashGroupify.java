@@ -17,6 +17,12 @@
 
 package org.deidentifier.arx.framework.check.groupify;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
 import org.deidentifier.arx.RowSet;
 import org.deidentifier.arx.criteria.DPresence;
@@ -32,6 +38,7 @@ import org.deidentifier.arx.framework.data.Dictionary;
 import org.deidentifier.arx.framework.lattice.Transformation;
 import org.deidentifier.arx.metric.Metric;
 
+import com.carrotsearch.hppc.IntIntOpenHashMap;
 import com.carrotsearch.hppc.ObjectIntOpenHashMap;
 
 /**
@@ -112,6 +119,18 @@ public class HashGroupify {
     /** Hash code of fully generalized records*/
     private final int                    suppressedHashCode;
 
+    /** Number of rows processed per task when post-processing the output */
+    private static final int             ROWS_PER_TASK = 16384;
+
+    /** Number of classes checked per task when analyzing classes concurrently */
+    private static final int             CLASSES_PER_TASK = 1024;
+
+    /** Index of the class of each row, if tracked */
+    private int[]                        classIndex;
+
+    /** Classes in order of creation, if tracked */
+    private HashGroupifyEntry[]          classes;
+
     /**
      * Constructs a new hash groupify operator.
      *
@@ -189,6 +208,11 @@ public class HashGroupify {
         final int hash = dataOutput.hashCode(generalized);
         final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
         
+        // Track class of row
+        if (classIndex != null) {
+            classIndex[generalized] = entry.index;
+        }
+        
         // Is a other attribute provided
         if (other != -1) {
             if (entry.distributions == null) {
@@ -298,6 +322,90 @@ public class HashGroupify {
         return hashTableFirstEntry;
     }
     
+    /**
+     * Returns a histogram of the sizes of the classes in the output data, in which suppressed
+     * records have been marked. Must be called after post-processing, using the class index,
+     * which must have been enabled via {@link #stateTrackClasses()} before grouping the data.
+     * 
+     * @return
+     */
+    public HashGroupifyHistogram getHistogram() {
+        
+        // Check
+        if (classIndex == null) {
+            throw new RuntimeException("Invalid state! Group the data with tracking enabled before post-processing!");
+        }
+        
+        // Count records per class
+        int numRows = dataOutput.getNumRows();
+        boolean marked = dataOutput.getNumColumns() != 0;
+        int[] sizes = new int[hashTableElementCount];
+        int numSuppressed = 0;
+        for (int row = 0; row < numRows; row++) {
+            if (marked && (dataOutput.get(row, 0) & Data.OUTLIER_MASK) != 0) {
+                numSuppressed++;
+            } else {
+                sizes[classIndex[row]]++;
+            }
+        }
+        
+        // Group by size
+        IntIntOpenHashMap classSizes = new IntIntOpenHashMap();
+        IntIntOpenHashMap classSizesNotGeneralized = new IntIntOpenHashMap();
+        for (int index = 0; index < hashTableElementCount; index++) {
+            int size = sizes[index];
+            if (size != 0) {
+                classSizes.putOrAdd(size, 1, 1);
+                if (!isCompletelyGeneralized(classes[index])) {
+                    classSizesNotGeneralized.putOrAdd(size, 1, 1);
+                }
+            }
+        }
+        
+        // Return
+        return new HashGroupifyHistogram(classSizes, classSizesNotGeneralized, numRows, numSuppressed);
+    }
+    
+    /**
+     * Returns a histogram of the sizes of the classes in the output data, which is derived from
+     * the sizes of the classes instead of the output buffer. Must be called after analyzing the
+     * data, using the class index, which must have been enabled via {@link #stateTrackClasses()}
+     * before grouping the data.
+     * 
+     * @param suppress Should suppression be performed
+     * @return
+     */
+    public HashGroupifyHistogram getHistogram(boolean suppress) {
+        
+        // Check
+        if (classIndex == null) {
+            throw new RuntimeException("Invalid state! Group the data with tracking enabled before post-processing!");
+        }
+        
+        // Group by size. Records not contained in the research subset are suppressed,
+        // otherwise classes consist of all records from the population table.
+        boolean[] suppressed = getSuppressedClasses(suppress);
+        boolean population = !suppress && privacyModelDefinesSubset != null;
+        IntIntOpenHashMap classSizes = new IntIntOpenHashMap();
+        IntIntOpenHashMap classSizesNotGeneralized = new IntIntOpenHashMap();
+        int numRows = dataOutput.getNumRows();
+        int numSuppressed = numRows;
+        for (int index = 0; index < hashTableElementCount; index++) {
+            HashGroupifyEntry entry = classes[index];
+            int size = population ? entry.pcount : entry.count;
+            if (!suppressed[index] && size != 0) {
+                numSuppressed -= size;
+                classSizes.putOrAdd(size, 1, 1);
+                if (!isCompletelyGeneralized(entry)) {
+                    classSizesNotGeneralized.putOrAdd(size, 1, 1);
+                }
+            }
+        }
+        
+        // Return
+        return new HashGroupifyHistogram(classSizes, classSizesNotGeneralized, numRows, numSuppressed);
+    }
+    
     /**
      * Returns the input data matrix
      * @return
@@ -322,6 +430,37 @@ public class HashGroupify {
         return this.dataOutput;
     }
     
+    /**
+     * Returns the records which are suppressed in the output data, which are derived from the
+     * classes without modifying the output buffer. Must be called after analyzing the data, using
+     * the class index, which must have been enabled via {@link #stateTrackClasses()} before
+     * grouping the data.
+     * 
+     * @param suppress Should suppression be performed
+     * @return
+     */
+    public RowSet getSuppressedRecords(boolean suppress) {
+        
+        // Check
+        if (classIndex == null) {
+            throw new RuntimeException("Invalid state! Group the data with tracking enabled before post-processing!");
+        }
+        
+        // Records not contained in the research subset and records in suppressed classes
+        boolean[] suppressed = getSuppressedClasses(suppress);
+        boolean subset = suppress && privacyModelDefinesSubset != null;
+        int numRows = dataOutput.getNumRows();
+        RowSet result = RowSet.create(numRows);
+        for (int row = 0; row < numRows; row++) {
+            if (suppressed[classIndex[row]] || (subset && !privacyModelDefinesSubset.contains(row))) {
+                result.add(row);
+            }
+        }
+        
+        // Return
+        return result;
+    }
+
     /**
      * Returns whether the given entry is completely generalized
      * @param entry
@@ -358,84 +497,113 @@ public class HashGroupify {
     }
     
     /**
-     * Returns a data object with microaggregation performed
+     * Performs microaggregation and suppresses all records in the output dataset which <br>
+     * (a) do not satisfy privacy requirements, or <br>
+     * (b) are not included in the research subset. <br>
+     * Both operations are performed in one pass using the class index, which must have been
+     * enabled via {@link #stateTrackClasses()} before grouping the data.
+     * 
      * @param microaggregationData
      * @param dictionary
-     * @return
+     * @param microaggregate Should microaggregation be performed
+     * @param suppress Should suppression be performed
+     * @return A data object with microaggregation performed, <code>null</code> if no microaggregation has been performed
      */
-    public Data performMicroaggregation(DataAggregationInformation microaggregationData,
-                                        Dictionary dictionary) {
+    public Data performMicroaggregationAndSuppression(DataAggregationInformation microaggregationData,
+                                                      Dictionary dictionary,
+                                                      final boolean microaggregate,
+                                                      final boolean suppress) {
+        
+        // Check
+        if (classIndex == null) {
+            throw new RuntimeException("Invalid state! Group the data with tracking enabled before post-processing!");
+        }
         
         // Initialize
-        int[] indices = microaggregationData.getMicroaggregationIndices();
+        final int[] indices = microaggregationData.getMicroaggregationIndices();
         DistributionAggregateFunction[] functions = microaggregationData.getMicroaggregationFunctions();
         String[] header = microaggregationData.getMicroaggregationHeader();
         int[] columns = microaggregationData.getMicroaggregationColumns();
         
         // Prepare result
-        Data result = Data.createWrapper(new DataMatrix(dataOutput.getNumRows(), indices.length), header, columns, dictionary);
-
-        // TODO: To improve performance, microaggregation and marking of outliers could be performed in one pass
+        final Data result = microaggregate ? Data.createWrapper(new DataMatrix(dataOutput.getNumRows(), indices.length), header, columns, dictionary) : null;
+        
+        // Determine aggregates and suppression per class
+        final int[][] aggregates = microaggregate ? new int[hashTableElementCount][] : null;
+        final boolean[] suppressed = getSuppressedClasses(suppress);
         ObjectIntOpenHashMap<Distribution> cache = new ObjectIntOpenHashMap<Distribution>();
-        for (int row = 0; row < dataOutput.getNumRows(); row++) {
-            if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(row)) {
-                final int hash = dataOutput.hashCode(row);
-                final int index = hash & (hashTableBuckets.length - 1);
-                HashGroupifyEntry m = hashTableBuckets[index];
-                while ((m != null) && ((m.hashcode != hash) || !dataOutput.equalsIgnoringOutliers(row, m.row))) {
-                    m = m.next;
-                }
-                if (m == null) { throw new RuntimeException("Invalid state! Groupify the data before performing microaggregation!"); }
-                result.getArray().iterator(row);
+        for (int index = 0; index < hashTableElementCount; index++) {
+            
+            // We only process classes that are contained in the research subset
+            HashGroupifyEntry m = classes[index];
+            if (privacyModelDefinesSubset != null && m.count == 0) {
+                continue;
+            }
+            
+            // Microaggregation
+            if (microaggregate) {
+                int[] aggregate = new int[indices.length];
                 for (int i = 0; i < indices.length; i++) {
-                    int columnIndex = indices[i];
-                    Distribution distribution = m.distributions[columnIndex];
+                    Distribution distribution = m.distributions[indices[i]];
                     int code = cache.getOrDefault(distribution, -1);
                     if (code == -1) {
                         String value = functions[i].aggregate(distribution);
                         code = result.getDictionary().register(i, value);
                         cache.put(distribution, code);
                     }
-                    result.getArray().iterator_write(code);
+                    aggregate[i] = code;
                 }
+                aggregates[index] = aggregate;
             }
         }
         
+        // Write rows in parallel
+        final int numRows = dataOutput.getNumRows();
+        final int numChunks = (numRows + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        IntStream.range(0, numChunks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int chunk) {
+                int end = Math.min(numRows, (chunk + 1) * ROWS_PER_TASK);
+                int row = chunk * ROWS_PER_TASK;
+                while (row < end) {
+                    
+                    // Skip to the next row from the research subset, rows in between are not contained in it
+                    int next = privacyModelDefinesSubset == null ? row : privacyModelDefinesSubset.nextSetBit(row);
+                    next = next == -1 ? end : Math.min(next, end);
+                    if (suppress) {
+                        for (; row < next; row++) {
+                            dataOutput.or(row, Data.OUTLIER_MASK);
+                        }
+                    }
+                    row = next;
+                    if (row == end) {
+                        break;
+                    }
+                    
+                    // Process row
+                    int index = classIndex[row];
+                    if (microaggregate) {
+                        int[] aggregate = aggregates[index];
+                        for (int i = 0; i < aggregate.length; i++) {
+                            result.getArray().set(row, i, aggregate[i]);
+                        }
+                    }
+                    if (suppressed[index]) {
+                        dataOutput.or(row, Data.OUTLIER_MASK);
+                    }
+                    row++;
+                }
+            }
+        });
+        
         // Finalize
-        result.getDictionary().finalizeAll();
+        if (microaggregate) {
+            result.getDictionary().finalizeAll();
+        }
         
         // Returns the result
         return result;
     }
-    
-    /**
-     * Suppresses all records in the output dataset which <br>
-     * (a) do not satisfy privacy requirements, or <br>
-     * (b) are not included in the research subset
-     * @param dictionary 
-     */
-    public void performSuppression() {
-        
-        for (int row = 0; row < dataOutput.getNumRows(); row++) {
-            if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(row)) {
-                final int hash = dataOutput.hashCode(row);
-                final int index = hash & (hashTableBuckets.length - 1);
-                HashGroupifyEntry m = hashTableBuckets[index];
-                while ((m != null) && ((m.hashcode != hash) || !dataOutput.equalsIgnoringOutliers(row, m.row))) {
-                    m = m.next;
-                }
-                if (m == null) {
-                    throw new RuntimeException("Invalid state! Group the data before suppressing records!");
-                }
-                if (!m.isNotOutlier || this.isCompletelyGeneralized(m)) {
-                    dataOutput.or(row, Data.OUTLIER_MASK);
-                    m.isNotOutlier = false;
-                }
-            } else {
-                dataOutput.or(row, Data.OUTLIER_MASK);
-            }
-        }
-    }
 
     /**
      * Analyzes the current state
@@ -457,6 +625,9 @@ public class HashGroupify {
             this.hashTableFirstEntry = null;
             this.hashTableLastEntry = null;
             HashTableUtil.nullifyArray(hashTableBuckets);
+            if (this.classes != null) {
+                Arrays.fill(this.classes, null);
+            }
         }
     }
     
@@ -472,6 +643,38 @@ public class HashGroupify {
         this.currentNumOutliers = 0;
     }
     
+    /**
+     * Enables tracking of the class of each row added from the buffer. Must be called before grouping the data.
+     */
+    public void stateTrackClasses() {
+        this.classIndex = new int[dataOutput.getNumRows()];
+        this.classes = new HashGroupifyEntry[Math.max(hashTableThreshold, 16)];
+    }
+    
+    /**
+     * Determines which classes are suppressed in the output data and marks them as outliers.
+     * Classes which are not contained in the research subset are ignored.
+     * 
+     * @param suppress Should suppression be performed
+     * @return
+     */
+    private boolean[] getSuppressedClasses(boolean suppress) {
+        boolean[] suppressed = new boolean[hashTableElementCount];
+        if (suppress) {
+            for (int index = 0; index < hashTableElementCount; index++) {
+                HashGroupifyEntry m = classes[index];
+                if (privacyModelDefinesSubset != null && m.count == 0) {
+                    continue;
+                }
+                if (!m.isNotOutlier || this.isCompletelyGeneralized(m)) {
+                    m.isNotOutlier = false;
+                    suppressed[index] = true;
+                }
+            }
+        }
+        return suppressed;
+    }
+    
     /**
      * Internal adder method.
      *
@@ -557,38 +760,83 @@ public class HashGroupify {
         // Iterate over all classes
         boolean dpresent = true;
         currentNumOutliers = 0;
-        HashGroupifyEntry entry = hashTableFirstEntry;
-        while (entry != null) {
-            
-            // Check for anonymity
-            int anonymous = isPrivacyModelFulfilled(transformation, entry);
-            
-            // Determine outliers
-            if (anonymous != -1) {
+        PrivacyCriterion[][] criteria = getConcurrentCriteria();
+        if (criteria != null) {
+            dpresent = analyzeAllConcurrently(transformation, criteria);
+        } else {
+            HashGroupifyEntry entry = hashTableFirstEntry;
+            while (entry != null) {
                 
-                // Note: If d-presence exists, it is stored at criteria[0] by convention.
-                // If it fails, isAnonymous(entry) thus returns 1.
-                // Tuples from the public table that have no matching candidates in the private table
-                // and that do not fulfill d-presence cannot be suppressed. In this case, the whole
-                // transformation must be considered to not fulfill the privacy criteria.
-                if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
-                    dpresent = false;
+                // Check for anonymity
+                int anonymous = isPrivacyModelFulfilled(transformation, entry, classBasedCriteria);
+                
+                // Determine outliers
+                if (anonymous != -1) {
+                    
+                    // Note: If d-presence exists, it is stored at criteria[0] by convention.
+                    // If it fails, isAnonymous(entry) thus returns 1.
+                    // Tuples from the public table that have no matching candidates in the private table
+                    // and that do not fulfill d-presence cannot be suppressed. In this case, the whole
+                    // transformation must be considered to not fulfill the privacy criteria.
+                    if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
+                        dpresent = false;
+                    }
+                    
+                    currentNumOutliers += entry.count;
                 }
                 
-                currentNumOutliers += entry.count;
+                // We only suppress classes that are contained in the research subset
+                entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
+                
+                // Next class
+                entry = entry.nextOrdered;
             }
-            
-            // We only suppress classes that are contained in the research subset
-            entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
-            
-            // Next class
-            entry = entry.nextOrdered;
         }
         
         this.analyzeSampleBasedCriteria(transformation, false);
         this.privacyModelFulfilled = (currentNumOutliers <= suppressionLimit) && dpresent;
     }
     
+    /**
+     * Checks the privacy criteria against each class concurrently. Sets the number of outliers.
+     * @param transformation
+     * @param criteria Instances of the class-based criteria per task
+     * @return Whether d-presence is fulfilled, see analyzeAll()
+     */
+    private boolean analyzeAllConcurrently(final Transformation<?> transformation, final PrivacyCriterion[][] criteria) {
+
+        // Check chunks of classes
+        final HashGroupifyEntry[] entries = getEntries();
+        final int[] outliers = new int[criteria.length];
+        final boolean[] dpresent = new boolean[criteria.length];
+        IntStream.range(0, criteria.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int task) {
+                dpresent[task] = true;
+                int end = Math.min(entries.length, (task + 1) * CLASSES_PER_TASK);
+                for (int i = task * CLASSES_PER_TASK; i < end; i++) {
+                    HashGroupifyEntry entry = entries[i];
+                    int anonymous = isPrivacyModelFulfilled(transformation, entry, criteria[task]);
+                    if (anonymous != -1) {
+                        if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
+                            dpresent[task] = false;
+                        }
+                        outliers[task] += entry.count;
+                    }
+                    entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
+                }
+            }
+        });
+        
+        // Reduce
+        boolean result = true;
+        for (int task = 0; task < criteria.length; task++) {
+            currentNumOutliers += outliers[task];
+            result &= dpresent[task];
+        }
+        return result;
+    }
+
     /**
      * Analyze sample-based criteria
      * @param transformation
@@ -646,48 +894,100 @@ public class HashGroupify {
         
         // Iterate over all classes
         currentNumOutliers = 0;
-        HashGroupifyEntry entry = hashTableFirstEntry;
-        while (entry != null) {
-            
-            // Check for anonymity
-            int anonymous = isPrivacyModelFulfilled(transformation, entry);
+        PrivacyCriterion[][] criteria = getConcurrentCriteria();
+        if (criteria != null) {
             
-            // Determine outliers
-            if (anonymous != -1) {
+            // CAUTION: This leaves GroupifyEntry.isNotOutlier and currentOutliers in an inconsistent state
+            // for non-anonymous transformations
+            if (!analyzeWithEarlyAbortConcurrently(transformation, criteria)) {
+                this.privacyModelFulfilled = false;
+                return;
+            }
+        } else {
+            HashGroupifyEntry entry = hashTableFirstEntry;
+            while (entry != null) {
                 
-                // Note: If d-presence exists, it is stored at criteria[0] by convention.
-                // If it fails, isAnonymous(entry) thus returns 1.
-                // Tuples from the public table that have no matching candidates in the private table
-                // and that do not fulfill d-presence cannot be suppressed. In this case, the whole
-                // transformation must be considered to not fulfill the privacy criteria.
-                // CAUTION: This leaves GroupifyEntry.isNotOutlier and currentOutliers in an inconsistent state
-                // for non-anonymous transformations
-                if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
-                    this.privacyModelFulfilled = false;
-                    return;
-                }
-                currentNumOutliers += entry.count;
+                // Check for anonymity
+                int anonymous = isPrivacyModelFulfilled(transformation, entry, classBasedCriteria);
                 
-                // Break as soon as too many classes are not anonymous
-                // CAUTION: This leaves GroupifyEntry.isNotOutlier and currentOutliers in an inconsistent state
-                // for non-anonymous transformations
-                if (currentNumOutliers > suppressionLimit) {
-                    this.privacyModelFulfilled = false;
-                    return;
+                // Determine outliers
+                if (anonymous != -1) {
+                    
+                    // Note: If d-presence exists, it is stored at criteria[0] by convention.
+                    // If it fails, isAnonymous(entry) thus returns 1.
+                    // Tuples from the public table that have no matching candidates in the private table
+                    // and that do not fulfill d-presence cannot be suppressed. In this case, the whole
+                    // transformation must be considered to not fulfill the privacy criteria.
+                    // CAUTION: This leaves GroupifyEntry.isNotOutlier and currentOutliers in an inconsistent state
+                    // for non-anonymous transformations
+                    if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
+                        this.privacyModelFulfilled = false;
+                        return;
+                    }
+                    currentNumOutliers += entry.count;
+                    
+                    // Break as soon as too many classes are not anonymous
+                    // CAUTION: This leaves GroupifyEntry.isNotOutlier and currentOutliers in an inconsistent state
+                    // for non-anonymous transformations
+                    if (currentNumOutliers > suppressionLimit) {
+                        this.privacyModelFulfilled = false;
+                        return;
+                    }
                 }
+                
+                // We only suppress classes that are contained in the research subset
+                entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
+                
+                // Next class
+                entry = entry.nextOrdered;
             }
-            
-            // We only suppress classes that are contained in the research subset
-            entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
-            
-            // Next class
-            entry = entry.nextOrdered;
         }
         
         this.analyzeSampleBasedCriteria(transformation, true);
         this.privacyModelFulfilled = (currentNumOutliers <= suppressionLimit);
     }
 
+    /**
+     * Checks the privacy criteria against each class concurrently. Sets the number of outliers.
+     * All tasks abort as soon as d-presence is not fulfilled or the number of outliers, which is
+     * shared between the tasks, exceeds the suppression limit.
+     * @param transformation
+     * @param criteria Instances of the class-based criteria per task
+     * @return Whether no task has aborted
+     */
+    private boolean analyzeWithEarlyAbortConcurrently(final Transformation<?> transformation, final PrivacyCriterion[][] criteria) {
+
+        // Check chunks of classes
+        final HashGroupifyEntry[] entries = getEntries();
+        final AtomicInteger outliers = new AtomicInteger();
+        final AtomicBoolean abort = new AtomicBoolean();
+        IntStream.range(0, criteria.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int task) {
+                int end = Math.min(entries.length, (task + 1) * CLASSES_PER_TASK);
+                for (int i = task * CLASSES_PER_TASK; i < end && !abort.get(); i++) {
+                    HashGroupifyEntry entry = entries[i];
+                    int anonymous = isPrivacyModelFulfilled(transformation, entry, criteria[task]);
+                    if (anonymous != -1) {
+                        if (privacyModelContainsDPresence && entry.count == 0 && anonymous == 1) {
+                            abort.set(true);
+                            return;
+                        }
+                        if (outliers.addAndGet(entry.count) > suppressionLimit) {
+                            abort.set(true);
+                            return;
+                        }
+                    }
+                    entry.isNotOutlier = entry.count != 0 ? (anonymous == -1) : true;
+                }
+            }
+        });
+        
+        // Reduce
+        currentNumOutliers = outliers.get();
+        return !abort.get();
+    }
+
     /**
      * Creates a new entry.
      * 
@@ -705,6 +1005,13 @@ public class HashGroupify {
         final HashGroupifyEntry entry = new HashGroupifyEntry(this.dataOutput, row, hash);
         entry.next = hashTableBuckets[index];
         entry.representative = line;
+        entry.index = hashTableElementCount - 1;
+        if (classes != null) {
+            if (entry.index == classes.length) {
+                classes = Arrays.copyOf(classes, classes.length << 1);
+            }
+            classes[entry.index] = entry;
+        }
         hashTableBuckets[index] = entry;
         if (hashTableFirstEntry == null) {
             hashTableFirstEntry = entry;
@@ -735,16 +1042,58 @@ public class HashGroupify {
         return m;
     }
 
+    /**
+     * Returns instances of the class-based criteria for each task, if classes should be checked
+     * concurrently. Returns <code>null</code> if there are too few classes or if a criterion does
+     * not support this.
+     * @return
+     */
+    private PrivacyCriterion[][] getConcurrentCriteria() {
+        
+        // Check
+        if (classBasedCriteria.length == 0 || hashTableElementCount < 2 * CLASSES_PER_TASK) {
+            return null;
+        }
+        
+        // Create instances
+        int numTasks = (hashTableElementCount + CLASSES_PER_TASK - 1) / CLASSES_PER_TASK;
+        PrivacyCriterion[][] result = new PrivacyCriterion[numTasks][classBasedCriteria.length];
+        for (int task = 0; task < numTasks; task++) {
+            for (int i = 0; i < classBasedCriteria.length; i++) {
+                result[task][i] = classBasedCriteria[i].getConcurrentInstance();
+                if (result[task][i] == null) {
+                    return null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns all classes in order of creation
+     * @return
+     */
+    private HashGroupifyEntry[] getEntries() {
+        HashGroupifyEntry[] result = new HashGroupifyEntry[hashTableElementCount];
+        HashGroupifyEntry entry = hashTableFirstEntry;
+        for (int i = 0; entry != null; i++) {
+            result[i] = entry;
+            entry = entry.nextOrdered;
+        }
+        return result;
+    }
+
     /**
      * Checks whether the given entry is anonymous.
      * @param transformation
      * @param entry
+     * @param criteria
      * @return
      * @returns -1, if all criteria are fulfilled, 0, 
      *              if minimal group size is not fulfilled, 
      *              (index+1) if criteria[index] is not fulfilled
      */
-    private int isPrivacyModelFulfilled(Transformation<?> transformation, HashGroupifyEntry entry) {
+    private int isPrivacyModelFulfilled(Transformation<?> transformation, HashGroupifyEntry entry, PrivacyCriterion[] criteria) {
         
         // Check minimal group size
         if (minimalClassSize != Integer.MAX_VALUE && entry.count < minimalClassSize) {
@@ -754,8 +1103,8 @@ public class HashGroupify {
         // Check other criteria
         // Note: The d-presence criterion must be checked first to ensure correct handling of d-presence with tuple suppression.
         // This is currently ensured by convention. See ARXConfiguration.getCriteriaAsArray();
-        for (int i = 0; i < classBasedCriteria.length; i++) {
-            if (!classBasedCriteria[i].isAnonymous(transformation, entry)) {
+        for (int i = 0; i < criteria.length; i++) {
+            if (!criteria[i].isAnonymous(transformation, entry)) {
                 return i + 1;
             }
         }
@@ -52,6 +52,9 @@ public class HashGroupifyEntry {
     /** Is this class not an outlier?. */
     public boolean           isNotOutlier   = false;
 
+    /** The index of this class in order of creation. */
+    public int               index          = -1;
+
     /** Frequency set for other attributes *. */
     public Distribution[]    distributions;
     
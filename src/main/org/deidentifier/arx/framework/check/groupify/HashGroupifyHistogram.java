@@ -0,0 +1,99 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.groupify;
+
+import org.deidentifier.arx.risk.RiskModelHistogram;
+
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+
+/**
+ * A histogram of the sizes of the equivalence classes in transformed data, which is
+ * obtained as a by-product of applying a transformation.
+ *
+ * @author Fabian Prasser
+ */
+public class HashGroupifyHistogram {
+
+    /** Class size -> number of classes, ignoring suppressed records */
+    private final IntIntOpenHashMap classes;
+
+    /** Class size -> number of classes, also ignoring completely generalized records */
+    private final IntIntOpenHashMap classesNotGeneralized;
+
+    /** Number of records */
+    private final int               numRecords;
+
+    /** Number of suppressed records */
+    private final int               numSuppressedRecords;
+
+    /**
+     * Creates a new instance
+     *
+     * @param classes
+     * @param classesNotGeneralized
+     * @param numRecords
+     * @param numSuppressedRecords
+     */
+    HashGroupifyHistogram(IntIntOpenHashMap classes,
+                          IntIntOpenHashMap classesNotGeneralized,
+                          int numRecords,
+                          int numSuppressedRecords) {
+        this.classes = classes;
+        this.classesNotGeneralized = classesNotGeneralized;
+        this.numRecords = numRecords;
+        this.numSuppressedRecords = numSuppressedRecords;
+    }
+
+    /**
+     * Returns a map from class sizes to the number of classes with the given size.
+     * Suppressed records are ignored. Must not be modified.
+     *
+     * @return
+     */
+    public IntIntOpenHashMap getClassSizes() {
+        return classes;
+    }
+
+    /**
+     * Returns a set of classes as an input for risk models. Suppressed and completely generalized
+     * records are ignored.
+     *
+     * @return
+     */
+    public RiskModelHistogram getHistogram() {
+        return new RiskModelHistogram(classesNotGeneralized);
+    }
+
+    /**
+     * Returns the number of records, including suppressed records
+     *
+     * @return
+     */
+    public int getNumberOfRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Returns the number of suppressed records
+     *
+     * @return
+     */
+    public int getNumberOfSuppressedRecords() {
+        return numSuppressedRecords;
+    }
+}
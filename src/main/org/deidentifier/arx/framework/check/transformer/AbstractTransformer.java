@@ -244,17 +244,13 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
     /** The hierarchies. */
     protected final GeneralizationHierarchy[] hierarchies;
     
-    /** The hierarchies */
-    protected int[][]                         hierarchy0, hierarchy1, hierarchy2, hierarchy3, hierarchy4, hierarchy5,
+    /** The generalizations of values on the current levels */
+    protected int[]                           hierarchy0, hierarchy1, hierarchy2, hierarchy3, hierarchy4, hierarchy5,
                                               hierarchy6, hierarchy7, hierarchy8, hierarchy9, hierarchy10, hierarchy11, hierarchy12, hierarchy13, hierarchy14;
     /** The columns. */
     protected int                             column0, column1, column2, column3, column4, column5, column6, column7,
                                               column8, column9, column10, column11, column12, column13, column14;
 
-    /** The levels. */
-    protected int                             level0, level1, level10, level11, level12, level13, level14, level2, level3, level4, level5, 
-                                              level6, level7, level8, level9;
-
     /** The sensitive values. */
     protected final DataMatrix                dataAnalyzed;
     /** Analyzed number of columns. */
@@ -276,12 +272,10 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
     /** The transition. */
     protected TransitionType                  transition;
 
-    /** The state index array. */
-    protected final int[]                     mappedLevels;
     /** The column index array. */
     protected final int[]                     mappedColumns;
     /** The column map array. */
-    protected final int[][][]                 mappedHierarchies;
+    protected final int[][]                   mappedHierarchies;
     
     /**
      * Instantiates a new abstract transformer.
@@ -316,9 +310,8 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
         if (this.dimensions > arraySizes) {
             arraySizes = this.dimensions;
         }
-        this.mappedLevels = new int[arraySizes];
         this.mappedColumns = new int[arraySizes];
-        this.mappedHierarchies = new int[arraySizes][][];
+        this.mappedHierarchies = new int[arraySizes][];
 
         // Prepare delegate
         switch (config.getRequirements()) {
@@ -406,9 +399,8 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
         int index = 0;
         for (int i = 0; i < dimensions; i++) {
             if ((projection & (1L << i)) == 0) {
-                mappedLevels[index] = state[i];
                 mappedColumns[index] = i;
-                mappedHierarchies[index] = hierarchies[i].getArray();
+                mappedHierarchies[index] = hierarchies[i].getArray(state[i]);
                 index++;
             }
         }
@@ -430,23 +422,6 @@ public abstract class AbstractTransformer implements Callable<HashGroupify> {
         this.column13 = mappedColumns[13];
         this.column14 = mappedColumns[14];
 
-        // Store generalization levels
-        this.level0 = mappedLevels[0];
-        this.level1 = mappedLevels[1];
-        this.level2 = mappedLevels[2];
-        this.level3 = mappedLevels[3];
-        this.level4 = mappedLevels[4];
-        this.level5 = mappedLevels[5];
-        this.level6 = mappedLevels[6];
-        this.level7 = mappedLevels[7];
-        this.level8 = mappedLevels[8];
-        this.level9 = mappedLevels[9];
-        this.level10 = mappedLevels[10];
-        this.level11 = mappedLevels[11];
-        this.level12 = mappedLevels[12];
-        this.level13 = mappedLevels[13];
-        this.level14 = mappedLevels[14];
-
         // Store generalization hierarchies
         this.hierarchy0 = mappedHierarchies[0];
         this.hierarchy1 = mappedHierarchies[1];
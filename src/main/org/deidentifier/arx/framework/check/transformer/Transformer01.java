@@ -59,7 +59,7 @@ public class Transformer01 extends AbstractTransformer {
             // Transform
             buffer.setRow(i);
             data.setRow(i);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
 
             // Call
             delegate.callAll(i, i);
@@ -74,7 +74,7 @@ public class Transformer01 extends AbstractTransformer {
             // Transform
             buffer.setRow(element.representative);
             data.setRow(element.representative);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
 
             // Call
             delegate.callGroupify(element.representative, element);
@@ -96,7 +96,7 @@ public class Transformer01 extends AbstractTransformer {
             // Transform
             buffer.setRow(snapshot[i]);
             data.setRow(snapshot[i]);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
 
             // Call
             delegate.callSnapshot(snapshot[i], snapshot, i);
@@ -57,10 +57,10 @@ public class Transformer04 extends AbstractTransformer {
             // Transform
             buffer.setRow(i);
             data.setRow(i);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
-            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)][level1]);
-            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)][level2]);
-            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)][level3]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
+            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)]);
+            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)]);
+            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)]);
 
             // Call
             delegate.callAll(i, i);
@@ -74,10 +74,10 @@ public class Transformer04 extends AbstractTransformer {
             // Transform
             buffer.setRow(element.representative);
             data.setRow(element.representative);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
-            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)][level1]);
-            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)][level2]);
-            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)][level3]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
+            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)]);
+            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)]);
+            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)]);
 
             // Call
             delegate.callGroupify(element.representative, element);
@@ -97,10 +97,10 @@ public class Transformer04 extends AbstractTransformer {
             // Transform
             buffer.setRow(snapshot[i]);
             data.setRow(snapshot[i]);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
-            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)][level1]);
-            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)][level2]);
-            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)][level3]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
+            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)]);
+            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)]);
+            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)]);
 
             // Call
             delegate.callSnapshot(snapshot[i], snapshot, i);
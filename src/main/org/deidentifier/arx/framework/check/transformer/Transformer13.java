@@ -58,19 +58,19 @@ public class Transformer13 extends AbstractTransformer {
             // Transform
             buffer.setRow(i);
             data.setRow(i);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
-            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)][level1]);
-            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)][level2]);
-            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)][level3]);
-            buffer.setValueAtColumn(column4, hierarchy4[data.getValueAtColumn(column4)][level4]);
-            buffer.setValueAtColumn(column5, hierarchy5[data.getValueAtColumn(column5)][level5]);
-            buffer.setValueAtColumn(column6, hierarchy6[data.getValueAtColumn(column6)][level6]);
-            buffer.setValueAtColumn(column7, hierarchy7[data.getValueAtColumn(column7)][level7]);
-            buffer.setValueAtColumn(column8, hierarchy8[data.getValueAtColumn(column8)][level8]);
-            buffer.setValueAtColumn(column9, hierarchy9[data.getValueAtColumn(column9)][level9]);
-            buffer.setValueAtColumn(column10, hierarchy10[data.getValueAtColumn(column10)][level10]);
-            buffer.setValueAtColumn(column11, hierarchy11[data.getValueAtColumn(column11)][level11]);
-            buffer.setValueAtColumn(column12, hierarchy12[data.getValueAtColumn(column12)][level12]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
+            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)]);
+            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)]);
+            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)]);
+            buffer.setValueAtColumn(column4, hierarchy4[data.getValueAtColumn(column4)]);
+            buffer.setValueAtColumn(column5, hierarchy5[data.getValueAtColumn(column5)]);
+            buffer.setValueAtColumn(column6, hierarchy6[data.getValueAtColumn(column6)]);
+            buffer.setValueAtColumn(column7, hierarchy7[data.getValueAtColumn(column7)]);
+            buffer.setValueAtColumn(column8, hierarchy8[data.getValueAtColumn(column8)]);
+            buffer.setValueAtColumn(column9, hierarchy9[data.getValueAtColumn(column9)]);
+            buffer.setValueAtColumn(column10, hierarchy10[data.getValueAtColumn(column10)]);
+            buffer.setValueAtColumn(column11, hierarchy11[data.getValueAtColumn(column11)]);
+            buffer.setValueAtColumn(column12, hierarchy12[data.getValueAtColumn(column12)]);
 
             // Call
             delegate.callAll(i, i);
@@ -85,19 +85,19 @@ public class Transformer13 extends AbstractTransformer {
             // Transform
             buffer.setRow(element.representative);
             data.setRow(element.representative);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
-            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)][level1]);
-            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)][level2]);
-            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)][level3]);
-            buffer.setValueAtColumn(column4, hierarchy4[data.getValueAtColumn(column4)][level4]);
-            buffer.setValueAtColumn(column5, hierarchy5[data.getValueAtColumn(column5)][level5]);
-            buffer.setValueAtColumn(column6, hierarchy6[data.getValueAtColumn(column6)][level6]);
-            buffer.setValueAtColumn(column7, hierarchy7[data.getValueAtColumn(column7)][level7]);
-            buffer.setValueAtColumn(column8, hierarchy8[data.getValueAtColumn(column8)][level8]);
-            buffer.setValueAtColumn(column9, hierarchy9[data.getValueAtColumn(column9)][level9]);
-            buffer.setValueAtColumn(column10, hierarchy10[data.getValueAtColumn(column10)][level10]);
-            buffer.setValueAtColumn(column11, hierarchy11[data.getValueAtColumn(column11)][level11]);
-            buffer.setValueAtColumn(column12, hierarchy12[data.getValueAtColumn(column12)][level12]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
+            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)]);
+            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)]);
+            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)]);
+            buffer.setValueAtColumn(column4, hierarchy4[data.getValueAtColumn(column4)]);
+            buffer.setValueAtColumn(column5, hierarchy5[data.getValueAtColumn(column5)]);
+            buffer.setValueAtColumn(column6, hierarchy6[data.getValueAtColumn(column6)]);
+            buffer.setValueAtColumn(column7, hierarchy7[data.getValueAtColumn(column7)]);
+            buffer.setValueAtColumn(column8, hierarchy8[data.getValueAtColumn(column8)]);
+            buffer.setValueAtColumn(column9, hierarchy9[data.getValueAtColumn(column9)]);
+            buffer.setValueAtColumn(column10, hierarchy10[data.getValueAtColumn(column10)]);
+            buffer.setValueAtColumn(column11, hierarchy11[data.getValueAtColumn(column11)]);
+            buffer.setValueAtColumn(column12, hierarchy12[data.getValueAtColumn(column12)]);
 
             // Call
             delegate.callGroupify(element.representative, element);
@@ -116,19 +116,19 @@ public class Transformer13 extends AbstractTransformer {
             // Transform
             buffer.setRow(snapshot[i]);
             data.setRow(snapshot[i]);
-            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)][level0]);
-            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)][level1]);
-            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)][level2]);
-            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)][level3]);
-            buffer.setValueAtColumn(column4, hierarchy4[data.getValueAtColumn(column4)][level4]);
-            buffer.setValueAtColumn(column5, hierarchy5[data.getValueAtColumn(column5)][level5]);
-            buffer.setValueAtColumn(column6, hierarchy6[data.getValueAtColumn(column6)][level6]);
-            buffer.setValueAtColumn(column7, hierarchy7[data.getValueAtColumn(column7)][level7]);
-            buffer.setValueAtColumn(column8, hierarchy8[data.getValueAtColumn(column8)][level8]);
-            buffer.setValueAtColumn(column9, hierarchy9[data.getValueAtColumn(column9)][level9]);
-            buffer.setValueAtColumn(column10, hierarchy10[data.getValueAtColumn(column10)][level10]);
-            buffer.setValueAtColumn(column11, hierarchy11[data.getValueAtColumn(column11)][level11]);
-            buffer.setValueAtColumn(column12, hierarchy12[data.getValueAtColumn(column12)][level12]);
+            buffer.setValueAtColumn(column0, hierarchy0[data.getValueAtColumn(column0)]);
+            buffer.setValueAtColumn(column1, hierarchy1[data.getValueAtColumn(column1)]);
+            buffer.setValueAtColumn(column2, hierarchy2[data.getValueAtColumn(column2)]);
+            buffer.setValueAtColumn(column3, hierarchy3[data.getValueAtColumn(column3)]);
+            buffer.setValueAtColumn(column4, hierarchy4[data.getValueAtColumn(column4)]);
+            buffer.setValueAtColumn(column5, hierarchy5[data.getValueAtColumn(column5)]);
+            buffer.setValueAtColumn(column6, hierarchy6[data.getValueAtColumn(column6)]);
+            buffer.setValueAtColumn(column7, hierarchy7[data.getValueAtColumn(column7)]);
+            buffer.setValueAtColumn(column8, hierarchy8[data.getValueAtColumn(column8)]);
+            buffer.setValueAtColumn(column9, hierarchy9[data.getValueAtColumn(column9)]);
+            buffer.setValueAtColumn(column10, hierarchy10[data.getValueAtColumn(column10)]);
+            buffer.setValueAtColumn(column11, hierarchy11[data.getValueAtColumn(column11)]);
+            buffer.setValueAtColumn(column12, hierarchy12[data.getValueAtColumn(column12)]);
 
             // Call
             delegate.callSnapshot(snapshot[i], snapshot, i);
@@ -208,10 +208,8 @@ public class Data implements Cloneable, Serializable {
     public Data getSubsetInstance(RowSet rowset) {
         int[] rows = new int[rowset.size()];
         int index = 0;
-        for (int row = 0; row < rowset.length(); row++) {
-            if (rowset.contains(row)) {
-                rows[index++] = row;
-            }
+        for (int row = rowset.nextSetBit(0); row != -1; row = rowset.nextSetBit(row + 1)) {
+            rows[index++] = row;
         }
         return new Data(new DataMatrixSubset(data, rows), header, columns, dictionary);
     }
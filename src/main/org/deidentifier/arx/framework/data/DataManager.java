@@ -23,6 +23,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.DataDefinition;
@@ -99,6 +101,9 @@ public class DataManager {
     /** The size of the research subset. */
     private int                               subsetSize = 0;
 
+    /** Parts which do not depend on the configuration, shared with other data managers, if any */
+    private final DataManagerCache            cache;
+
     /**
      * Creates a new data manager from pre-encoded data.
      * 
@@ -115,10 +120,33 @@ public class DataManager {
                        final DataDefinition definition,
                        final Map<String, DistributionAggregateFunction> functions,
                        final ARXConfiguration config) {
+        this(header, data, dictionary, definition, functions, config, null);
+    }
+
+    /**
+     * Creates a new data manager from pre-encoded data, which reuses the given parts that do not
+     * depend on the configuration. Missing parts are created and stored in the cache.
+     * 
+     * @param header
+     * @param data
+     * @param dictionary
+     * @param definition
+     * @param functions
+     * @param config
+     * @param cache may be null
+     */
+    public DataManager(final String[] header,
+                       final DataMatrix data,
+                       final Dictionary dictionary,
+                       final DataDefinition definition,
+                       final Map<String, DistributionAggregateFunction> functions,
+                       final ARXConfiguration config,
+                       final DataManagerCache cache) {
 
         // Store basic info
         this.header = header;
         this.definition = definition;
+        this.cache = cache;
 
         /* *************************************************
          * Collect attributes which need to be generalized
@@ -203,6 +231,56 @@ public class DataManager {
         this.generalizationLevelsMaximum = new int[qisGeneralized.size()];
         this.generalizationLevelsMinimum = new int[qisGeneralized.size()];
         this.hierarchiesGeneralized = new GeneralizationHierarchy[qisGeneralized.size()];
+        final String[] attributes = this.dataGeneralized.getHeader();
+        
+        // Reuse encoded hierarchies, if available. Registering the values of the dictionary in
+        // the same order results in the same codes.
+        final boolean[] cached = new boolean[attributes.length];
+        if (cache != null) {
+            for (int i = 0; i < attributes.length; i++) {
+                String[] values = cache.getDictionary(attributes[i]);
+                if (values != null) {
+                    for (String value : values) {
+                        dataGeneralized.getDictionary().register(i, value);
+                    }
+                    hierarchiesGeneralized[i] = cache.getHierarchy(attributes[i]);
+                    cached[i] = true;
+                }
+            }
+        }
+        
+        // Obtain hierarchies sequentially, as they may be built lazily, which is not thread-safe
+        final String[][][] hierarchies = new String[attributes.length][][];
+        for (int i = 0; i < attributes.length; i++) {
+            hierarchies[i] = cached[i] ? null : definition.getHierarchy(attributes[i]);
+        }
+        
+        // Register at the dictionary and encode. Each attribute has its own dimension
+        // in the dictionary, hierarchies are thus encoded in parallel.
+        final RuntimeException[] errors = new RuntimeException[attributes.length];
+        IntStream.range(0, attributes.length).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int i) {
+                if (cached[i]) {
+                    return;
+                }
+                try {
+                    hierarchiesGeneralized[i] = new GeneralizationHierarchy(attributes[i],
+                                                                            hierarchies[i],
+                                                                            i,
+                                                                            dataGeneralized.getDictionary());
+                } catch (RuntimeException e) {
+                    errors[i] = e;
+                }
+            }
+        });
+        
+        // Report the first error
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                throw error;
+            }
+        }
         int index = 0;
         
         // For each attribute
@@ -211,17 +289,11 @@ public class DataManager {
             // This is a generalized quasi-identifier
             if (qisGeneralized.contains(attribute)) {
                 
-                // Register at the dictionary and encode
-                this.hierarchiesGeneralized[index] = new GeneralizationHierarchy(attribute,
-                                                                            definition.getHierarchy(attribute),
-                                                                            index,
-                                                                            this.dataGeneralized.getDictionary());
-                
                 // Initialize hierarchy height and minimum / maximum generalization
                 Integer min = definition.getMinimumGeneralization(attribute);
                 Integer max = definition.getMaximumGeneralization(attribute);
                 this.generalizationLevelsMaximum[index] = min == null ? 0 : min;
-                this.generalizationLevelsMinimum[index] = max == null ? this.hierarchiesGeneralized[index].getArray()[0].length - 1 : max;
+                this.generalizationLevelsMinimum[index] = max == null ? this.hierarchiesGeneralized[index].getHeight() - 1 : max;
                 
                 // Next quasi-identifier
                 index++;
@@ -273,6 +345,15 @@ public class DataManager {
         // finalize dictionary
         dataGeneralized.getDictionary().finalizeAll();
         dataAnalyzed.getDictionary().finalizeAll();
+        
+        // Store encoded hierarchies
+        if (cache != null) {
+            for (int i = 0; i < attributes.length; i++) {
+                if (!cached[i]) {
+                    cache.setHierarchy(attributes[i], hierarchiesGeneralized[i], dataGeneralized.getDictionary().getMapping()[i]);
+                }
+            }
+        }
 
         // Store research subset
         for (PrivacyCriterion c : config.getPrivacyModels()) {
@@ -336,6 +417,7 @@ public class DataManager {
         // The projected instance delegates these methods to the original data manager
         this.subset = null;
         this.subsetSize = 0;
+        this.cache = null;
     }
 
     /**
@@ -376,10 +458,9 @@ public class DataManager {
 
         // Initialize counts: iterate over all rows or the subset
         final int[] cardinalities = new int[distinctValues];
-        for (int i = 0; i < dataMatrix.getNumRows(); i++) {
-            if (subset == null || subset.contains(i)) {
-                cardinalities[dataMatrix.get(i, index)]++;
-            }
+        final int rows = dataMatrix.getNumRows();
+        for (int i = subset == null ? 0 : subset.nextSetBit(0); i != -1 && i < rows; i = subset == null ? i + 1 : subset.nextSetBit(i + 1)) {
+            cardinalities[dataMatrix.get(i, index)]++;
         }
 
         // compute distribution
@@ -399,10 +480,33 @@ public class DataManager {
      * @return distribution
      */
     public double[] getDistribution(String attribute) {
-        // Calculate and return
+        
+        // Prepare
         int index = dataAnalyzed.getIndexOf(attribute);
         int distinctValues = dataAnalyzed.getDictionary().getMapping()[index].length;
-        return getDistribution(dataAnalyzed.getArray(), index, distinctValues);
+        
+        // Calculate and return
+        if (subset != null || cache == null) {
+            return getDistribution(dataAnalyzed.getArray(), index, distinctValues);
+        }
+        
+        // Reuse frequencies in all records. Codes of values from the input are the same for
+        // all data managers, further codes may have been registered for hierarchies.
+        int[] frequencies = cache.getFrequencies(attribute);
+        if (frequencies == null) {
+            frequencies = new int[distinctValues];
+            DataMatrix array = dataAnalyzed.getArray();
+            for (int row = 0; row < array.getNumRows(); row++) {
+                frequencies[array.get(row, index)]++;
+            }
+            cache.setFrequencies(attribute, frequencies);
+        }
+        final double total = dataAnalyzed.getArray().getNumRows();
+        final double[] distribution = new double[distinctValues];
+        for (int i = 0; i < distribution.length && i < frequencies.length; i++) {
+            distribution[i] = (double) frequencies[i] / total;
+        }
+        return distribution;
     }
 
     /**
@@ -414,33 +518,33 @@ public class DataManager {
         // Build on-demand
         if (this.shares == null) {
             
-            // Compute domain shares
-            this.shares = new DomainShare[dataGeneralized.getHeader().length];
-            for (int i=0; i<shares.length; i++) {
-                
-                // Extract info
-                String attribute = dataGeneralized.getHeader()[i];
-                String[][] hierarchy = definition.getHierarchy(attribute);
-                HierarchyBuilder<?> builder = definition.getHierarchyBuilder(attribute);
-                
-                // Create shares for redaction-based hierarchies
-                if (builder != null && (builder instanceof HierarchyBuilderRedactionBased) &&
-                    ((HierarchyBuilderRedactionBased<?>)builder).isDomainPropertiesAvailable()){
-                    this.shares[i] = new DomainShareRedaction((HierarchyBuilderRedactionBased<?>)builder);
-                    
-                 // Create shares for interval-based hierarchies
-                } else if (builder != null && (builder instanceof HierarchyBuilderIntervalBased)) {
-                    this.shares[i] = new DomainShareInterval<>((HierarchyBuilderIntervalBased<?>)builder,
-                                                           hierarchiesGeneralized[i].getArray(),
-                                                           dataGeneralized.getDictionary().getMapping()[i]);
-                    
-                // Create fall back option for materialized hierarchies
-                } else {
-                    this.shares[i] = new DomainShareMaterialized(hierarchy, 
-                                                            dataGeneralized.getDictionary().getMapping()[i],
-                                                            hierarchiesGeneralized[i].getArray());
+            // Compute domain shares, per attribute in parallel. Interval-based hierarchies format
+            // values with their data type, which may be shared between attributes. They are thus
+            // processed sequentially, while building them is parallelized internally.
+            final DomainShare[] shares = new DomainShare[dataGeneralized.getHeader().length];
+            final boolean[] cached = new boolean[shares.length];
+            for (int i = 0; i < shares.length && cache != null; i++) {
+                shares[i] = cache.getShare(dataGeneralized.getHeader()[i]);
+                cached[i] = shares[i] != null;
+            }
+            IntStream.range(0, shares.length).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(int i) {
+                    String attribute = dataGeneralized.getHeader()[i];
+                    if (!cached[i] && !(definition.getHierarchyBuilder(attribute) instanceof HierarchyBuilderIntervalBased)) {
+                        shares[i] = getDomainShare(i);
+                    }
+                }
+            });
+            for (int i = 0; i < shares.length; i++) {
+                if (shares[i] == null) {
+                    shares[i] = getDomainShare(i);
+                }
+                if (!cached[i] && cache != null) {
+                    cache.setShare(dataGeneralized.getHeader()[i], shares[i]);
                 }
             }
+            this.shares = shares;
         }
         
         // Return
@@ -456,19 +560,34 @@ public class DataManager {
         // Build on-demand
         if (this.sharesReliable == null) {
             
-            // Compute domain shares
-            this.sharesReliable = new DomainShareReliable[dataGeneralized.getHeader().length];
-            for (int i=0; i<sharesReliable.length; i++) {
-                
-                // Extract info
-                String attribute = dataGeneralized.getHeader()[i];
-                String[][] hierarchy = definition.getHierarchy(attribute);
+            // Compute domain shares, per attribute in parallel
+            final DomainShareReliable[] sharesReliable = new DomainShareReliable[dataGeneralized.getHeader().length];
+            IntStream.range(0, sharesReliable.length).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(int i) {
                 
-                // Create reliable materialized hierarchies
-                this.sharesReliable[i] = new DomainShareReliable(hierarchy, 
-                                                            dataGeneralized.getDictionary().getMapping()[i],
-                                                            hierarchiesGeneralized[i].getArray());
-            }
+                    // Extract info
+                    String attribute = dataGeneralized.getHeader()[i];
+                    
+                    // Reuse shares, if available
+                    if (cache != null) {
+                        sharesReliable[i] = cache.getShareReliable(attribute);
+                        if (sharesReliable[i] != null) {
+                            return;
+                        }
+                    }
+                    String[][] hierarchy = definition.getHierarchy(attribute);
+                    
+                    // Create reliable materialized hierarchies
+                    sharesReliable[i] = new DomainShareReliable(hierarchy, 
+                                                                dataGeneralized.getDictionary().getMapping()[i],
+                                                                hierarchiesGeneralized[i].getArray());
+                    if (cache != null) {
+                        cache.setShareReliable(attribute, sharesReliable[i]);
+                    }
+                }
+            });
+            this.sharesReliable = sharesReliable;
         }
         
         // Return
@@ -492,7 +611,7 @@ public class DataManager {
     public int[] getHierachiesHeights() {
         int[] result = new int[hierarchiesGeneralized.length];
         for (int i = 0; i < result.length; i++) {
-            result[i] = hierarchiesGeneralized[i].getArray()[0].length;
+            result[i] = hierarchiesGeneralized[i].getHeight();
         }
         return result;
     }
@@ -618,13 +737,12 @@ public class DataManager {
 
         // Count frequencies
         final int offsetLeafs = 3;
-        for (int i = 0; i < data.getNumRows(); i++) {
-            if (subset == null || subset.contains(i)) {
-                int val = data.get(i, index);
-                int previousFreq = treeList.get(val + offsetLeafs);
-                previousFreq++;
-                treeList.set(val + offsetLeafs, previousFreq);
-            }
+        final int rows = data.getNumRows();
+        for (int i = subset == null ? 0 : subset.nextSetBit(0); i != -1 && i < rows; i = subset == null ? i + 1 : subset.nextSetBit(i + 1)) {
+            int val = data.get(i, index);
+            int previousFreq = treeList.get(val + offsetLeafs);
+            previousFreq++;
+            treeList.set(val + offsetLeafs, previousFreq);
         }
 
         // Init extras
@@ -715,7 +833,7 @@ public class DataManager {
     public int[] getTree(String attribute) {
         final int index = dataAnalyzed.getIndexOf(attribute);
         final DataMatrix data = dataAnalyzed.getArray();
-        return getTree(data, index, hierarchiesAnalyzed[index].map);
+        return getTree(data, index, hierarchiesAnalyzed[index].getArray());
     }
     
     /**
@@ -770,6 +888,37 @@ public class DataManager {
         // Done
         return array;
     }
+
+    /**
+     * Creates the domain shares for the given generalized quasi-identifier
+     * @param index
+     * @return
+     */
+    private DomainShare getDomainShare(int index) {
+        
+        // Extract info
+        String attribute = dataGeneralized.getHeader()[index];
+        String[][] hierarchy = definition.getHierarchy(attribute);
+        HierarchyBuilder<?> builder = definition.getHierarchyBuilder(attribute);
+        
+        // Create shares for redaction-based hierarchies
+        if (builder != null && (builder instanceof HierarchyBuilderRedactionBased) &&
+            ((HierarchyBuilderRedactionBased<?>)builder).isDomainPropertiesAvailable()){
+            return new DomainShareRedaction((HierarchyBuilderRedactionBased<?>)builder);
+            
+         // Create shares for interval-based hierarchies
+        } else if (builder != null && (builder instanceof HierarchyBuilderIntervalBased)) {
+            return new DomainShareInterval<>((HierarchyBuilderIntervalBased<?>)builder,
+                                             hierarchiesGeneralized[index].getArray(),
+                                             dataGeneralized.getDictionary().getMapping()[index]);
+            
+        // Create fall back option for materialized hierarchies
+        } else {
+            return new DomainShareMaterialized(hierarchy, 
+                                               dataGeneralized.getDictionary().getMapping()[index],
+                                               hierarchiesGeneralized[index].getArray());
+        }
+    }
     
     
     /**
@@ -0,0 +1,143 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.deidentifier.arx.metric.v2.DomainShare;
+import org.deidentifier.arx.metric.v2.DomainShareReliable;
+
+/**
+ * Parts of data managers which do not depend on the configuration. They are created by the first
+ * data manager for the same data and definition and handed to all further data managers, which
+ * must not modify them. This class is thread-safe.
+ *
+ * @author Fabian Prasser
+ */
+public class DataManagerCache {
+
+    /** Attribute -> values of the dictionary after encoding the hierarchy */
+    private final Map<String, String[]>                dictionaries   = new HashMap<String, String[]>();
+
+    /** Attribute -> encoded hierarchy */
+    private final Map<String, GeneralizationHierarchy> hierarchies    = new HashMap<String, GeneralizationHierarchy>();
+
+    /** Attribute -> domain shares */
+    private final Map<String, DomainShare>             shares         = new HashMap<String, DomainShare>();
+
+    /** Attribute -> reliable domain shares */
+    private final Map<String, DomainShareReliable>     sharesReliable = new HashMap<String, DomainShareReliable>();
+
+    /** Attribute -> frequencies of values in all records */
+    private final Map<String, int[]>                   frequencies    = new HashMap<String, int[]>();
+
+    /**
+     * Returns the values of the dictionary after encoding the hierarchy of the given attribute,
+     * <code>null</code> if not available
+     *
+     * @param attribute
+     * @return
+     */
+    public synchronized String[] getDictionary(String attribute) {
+        return dictionaries.get(attribute);
+    }
+
+    /**
+     * Returns the frequencies of the values of the given attribute in all records,
+     * <code>null</code> if not available
+     *
+     * @param attribute
+     * @return
+     */
+    public synchronized int[] getFrequencies(String attribute) {
+        return frequencies.get(attribute);
+    }
+
+    /**
+     * Returns the encoded hierarchy of the given attribute, <code>null</code> if not available
+     *
+     * @param attribute
+     * @return
+     */
+    public synchronized GeneralizationHierarchy getHierarchy(String attribute) {
+        return hierarchies.get(attribute);
+    }
+
+    /**
+     * Returns the domain shares of the given attribute, <code>null</code> if not available
+     *
+     * @param attribute
+     * @return
+     */
+    public synchronized DomainShare getShare(String attribute) {
+        return shares.get(attribute);
+    }
+
+    /**
+     * Returns the reliable domain shares of the given attribute, <code>null</code> if not available
+     *
+     * @param attribute
+     * @return
+     */
+    public synchronized DomainShareReliable getShareReliable(String attribute) {
+        return sharesReliable.get(attribute);
+    }
+
+    /**
+     * Stores the frequencies of the values of the given attribute in all records
+     *
+     * @param attribute
+     * @param frequencies
+     */
+    public synchronized void setFrequencies(String attribute, int[] frequencies) {
+        this.frequencies.put(attribute, frequencies);
+    }
+
+    /**
+     * Stores the encoded hierarchy of the given attribute and the values of the dictionary
+     *
+     * @param attribute
+     * @param hierarchy
+     * @param dictionary
+     */
+    public synchronized void setHierarchy(String attribute, GeneralizationHierarchy hierarchy, String[] dictionary) {
+        this.hierarchies.put(attribute, hierarchy);
+        this.dictionaries.put(attribute, dictionary.clone());
+    }
+
+    /**
+     * Stores the domain shares of the given attribute
+     *
+     * @param attribute
+     * @param share
+     */
+    public synchronized void setShare(String attribute, DomainShare share) {
+        this.shares.put(attribute, share);
+    }
+
+    /**
+     * Stores the reliable domain shares of the given attribute
+     *
+     * @param attribute
+     * @param share
+     */
+    public synchronized void setShareReliable(String attribute, DomainShareReliable share) {
+        this.sharesReliable.put(attribute, share);
+    }
+}
@@ -54,7 +54,7 @@ public class Dictionary implements Serializable {
         mapping = new String[columns.length][];
         suppressed = new int[columns.length];
         for (int i = 0; i < columns.length; i++) {
-            maps[i] = input.maps == null ? null : input.maps[columns[i]].clone();
+            maps[i] = input.maps == null || input.maps[columns[i]] == null ? null : input.maps[columns[i]].clone();
             mapping[i] = input.mapping[columns[i]].clone();
             suppressed[i] = input.suppressed[columns[i]];
         }
@@ -177,7 +177,8 @@ public class Dictionary implements Serializable {
     }
 
     /**
-     * Registers a new string at the dictionary.
+     * Registers a new string at the dictionary. Dimensions are independent of each other,
+     * strings may thus be registered for different dimensions concurrently.
      * 
      * @param dimension
      *            the dimension
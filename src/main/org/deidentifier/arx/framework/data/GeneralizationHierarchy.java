@@ -17,7 +17,8 @@
 
 package org.deidentifier.arx.framework.data;
 
-import com.carrotsearch.hppc.IntIntOpenHashMap;
+import java.util.Arrays;
+
 import com.carrotsearch.hppc.IntOpenHashSet;
 import com.carrotsearch.hppc.ObjectIntOpenHashMap;
 
@@ -32,8 +33,8 @@ public class GeneralizationHierarchy {
     /** Level->number of distinct values. */
     protected final int[]   distinctValues;
 
-    /** Input->level->output. */
-    protected final int[][] map;
+    /** Level->input->output. */
+    protected final int[][] levels;
 
     /** Name. */
     protected final String  attribute;
@@ -62,7 +63,7 @@ public class GeneralizationHierarchy {
         final int uniqueIn = dictionary.getUnfinalizedValues(dimension).size();
 
         // Build hierarchy
-        this.map = new int[uniqueIn][];
+        final int[][] map = new int[uniqueIn][];
         for (int i = 0; i < hierarchy.length; i++) {
             final String[] input = hierarchy[i];
             if (input == null || input.length == 0) {
@@ -108,11 +109,19 @@ public class GeneralizationHierarchy {
         // Count distinct values on each level
         this.distinctValues = new int[height];
 
+        // Store level-major
+        this.levels = new int[height][map.length];
+        for (int row = 0; row < map.length; row++) {
+            for (int column = 0; column < height; column++) {
+                this.levels[column][row] = map[row][column];
+            }
+        }
+
         // for each column
         final IntOpenHashSet vals = new IntOpenHashSet();
-        for (int column = 0; column < map[0].length; column++) {
-            for (int row = 0; row < map.length; row++) {
-                vals.add(map[row][column]);
+        for (int column = 0; column < height; column++) {
+            for (final int value : levels[column]) {
+                vals.add(value);
             }
             this.distinctValues[column] = vals.size();
             vals.clear();
@@ -140,17 +149,19 @@ public class GeneralizationHierarchy {
             throw new IllegalStateException("Cannot obtain dictionary for attribute ("+attribute+")");
         }
         
-        // Level value -> level+1 value
-        final IntIntOpenHashMap hMap = new IntIntOpenHashMap();
+        // Level value -> level+1 value. Codes are dense, an array can thus be used.
+        final int[] hMap = new int[dictionary.length];
         
-        // Input->level->output.
-        for (int level = 0; level < (map[0].length - 1); level++) {
-            hMap.clear();
-            for (int i = 0; i < map.length; i++) {
-                final int outputCurrentLevel = map[i][level];
-                final int outputNextLevel = map[i][level + 1];
-                if (hMap.containsKey(outputCurrentLevel)) {
-                    final int compare = hMap.get(outputCurrentLevel);
+        // Level->input->output.
+        for (int level = 0; level < (levels.length - 1); level++) {
+            Arrays.fill(hMap, -1);
+            final int[] current = levels[level];
+            final int[] next = levels[level + 1];
+            for (int i = 0; i < current.length; i++) {
+                final int outputCurrentLevel = current[i];
+                final int outputNextLevel = next[i];
+                final int compare = hMap[outputCurrentLevel];
+                if (compare != -1) {
                     if (compare != outputNextLevel) { 
                         String in = dictionary[outputCurrentLevel];
                         String out1 = dictionary[compare];
@@ -158,19 +169,39 @@ public class GeneralizationHierarchy {
                         throw new IllegalArgumentException("The transformation rule for the attribute '" + attribute + "' is not a hierarchy. ("+in+") can either be transformed to ("+out1+") or to ("+out2+")");
                     }
                 } else {
-                    hMap.put(outputCurrentLevel, outputNextLevel);
+                    hMap[outputCurrentLevel] = outputNextLevel;
                 }
             }
         }
     }
 
     /**
-     * Returns the array.
+     * Returns a new array mapping input values to their generalizations on all levels
+     * (input->level->output). The hierarchy is stored level-major, the result is thus
+     * created on each call. Use getArray(level) where possible.
      *
      * @return
      */
     public int[][] getArray() {
-        return map;
+        final int[][] result = new int[levels[0].length][levels.length];
+        for (int level = 0; level < levels.length; level++) {
+            final int[] array = levels[level];
+            for (int i = 0; i < array.length; i++) {
+                result[i][level] = array[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array mapping input values to their generalizations on the given level.
+     * Must not be modified.
+     *
+     * @param level
+     * @return
+     */
+    public int[] getArray(final int level) {
+        return levels[level];
     }
 
     /**
@@ -191,8 +222,8 @@ public class GeneralizationHierarchy {
     public int[] getDistinctValues(final int level) {
 
         final IntOpenHashSet vals = new IntOpenHashSet();
-        for (int k = 0; k < map.length; k++) {
-            vals.add(map[k][level]);
+        for (final int value : levels[level]) {
+            vals.add(value);
         }
 
         final int[] result = new int[vals.size()];
@@ -213,17 +244,17 @@ public class GeneralizationHierarchy {
      * @return
      */
     public int getHeight() {
-        return map[0].length;
+        return levels.length;
     }
 
     /**
      * Returns the number of levels
      */
     public int getLevels() {
-        if (map == null || map[0] == null) {
+        if (levels == null) {
             return 0;
         } else {
-            return map[0].length;
+            return levels.length;
         }
     }
 
@@ -200,7 +200,7 @@ public class MetricEntropy extends MetricDefault {
         // Initialize counts
         cardinalities = new int[data.getNumColumns()][][];
         for (int i = 0; i < cardinalities.length; i++) {
-            cardinalities[i] = new int[dictionary.getMapping()[i].length][ahierarchies[i].getArray()[0].length];
+            cardinalities[i] = new int[dictionary.getMapping()[i].length][ahierarchies[i].getHeight()];
             // Column -> Id -> Level -> Count
         }
 
@@ -229,7 +229,7 @@ public class MetricEntropy extends MetricDefault {
         // Create a cache for the results
         cache = new double[hierarchies.length][];
         for (int i = 0; i < cache.length; i++) {
-            cache[i] = new double[ahierarchies[i].getArray()[0].length];
+            cache[i] = new double[ahierarchies[i].getHeight()];
             Arrays.fill(cache[i], NA);
         }
     }
@@ -159,7 +159,7 @@ public class MetricNMPrecision extends MetricWeighted<InformationLossDefault> {
         // Initialize maximum levels
         height = new int[hierarchies.length];
         for (int j = 0; j < height.length; j++) {
-            height[j] = hierarchies[j].getArray()[0].length - 1;
+            height[j] = hierarchies[j].getHeight() - 1;
         }
         
         int rowCount = super.getNumRecords(config, input);
@@ -128,7 +128,7 @@ public class MetricPrecision extends MetricWeighted<InformationLossDefault> {
         // Initialize maximum levels
         maxLevels = new int[hierarchies.length];
         for (int j = 0; j < maxLevels.length; j++) {
-            maxLevels[j] = hierarchies[j].getArray()[0].length - 1;
+            maxLevels[j] = hierarchies[j].getHeight() - 1;
         }
     }
 
@@ -18,6 +18,8 @@
 package org.deidentifier.arx.metric.v2;
 
 import java.io.Serializable;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.RowSet;
 import org.deidentifier.arx.framework.data.Data;
@@ -36,7 +38,7 @@ public class Cardinalities implements Serializable {
     
     /** SVUID. */
     private static final long serialVersionUID = 6164578830669365810L;
-    
+
     /** Cardinalities: Column -> Id -> Level -> Count. */
     private final int[][][] cardinalities;
     
@@ -47,38 +49,36 @@ public class Cardinalities implements Serializable {
      * @param subset
      * @param hierarchies
      */
-    public Cardinalities(Data data, RowSet subset, GeneralizationHierarchy[] hierarchies){
+    public Cardinalities(Data data, final RowSet subset, final GeneralizationHierarchy[] hierarchies){
 
-        DataMatrix array = data.getArray();
-        Dictionary dictionary = data.getDictionary();
+        final DataMatrix array = data.getArray();
+        final Dictionary dictionary = data.getDictionary();
+        final int numRows = array.getNumRows();
+        final int numColumns = array.getNumColumns();
         
         // Initialize counts
-        cardinalities = new int[array.getNumColumns()][][];
+        cardinalities = new int[numColumns][][];
         for (int i = 0; i < cardinalities.length; i++) {
-            cardinalities[i] = new int[dictionary.getMapping()[i].length][hierarchies[i].getArray()[0].length];
+            cardinalities[i] = new int[dictionary.getMapping()[i].length][hierarchies[i].getHeight()];
         }
 
-        // Compute counts
-        for (int i = 0; i < array.getNumRows(); i++) { 
-            if (subset == null || subset.contains(i)) {
-                array.setRow(i);
-                for (int column = 0; column < array.getNumColumns(); column++) {
-                    cardinalities[column][array.getValueAtColumn(column)][0]++;
+        // Count values and create counts for other levels in parallel, per column
+        IntStream.range(0, numColumns).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int column) {
+                final int[][] cardinality = cardinalities[column];
+                for (int row = subset == null ? 0 : subset.nextSetBit(0); row != -1 && row < numRows; row = subset == null ? row + 1 : subset.nextSetBit(row + 1)) {
+                    cardinality[array.get(row, column)][0]++;
                 }
-            }
-        }
-
-        // Create counts for other levels
-        for (int column = 0; column < hierarchies.length; column++) {
-            final int[][] hierarchy = hierarchies[column].getArray();
-            for (int in = 0; in < hierarchy.length; in++) {
-                final int cardinality = cardinalities[column][in][0];
-                for (int level = 1; level < hierarchy[in].length; level++) {
-                    final int out = hierarchy[in][level];
-                    cardinalities[column][out][level] += cardinality;
+                final GeneralizationHierarchy hierarchy = hierarchies[column];
+                for (int level = 1; level < hierarchy.getHeight(); level++) {
+                    final int[] map = hierarchy.getArray(level);
+                    for (int in = 0; in < map.length; in++) {
+                        cardinality[map[in]][level] += cardinality[in][0];
+                    }
                 }
             }
-        }
+        });
     }
     
     /**
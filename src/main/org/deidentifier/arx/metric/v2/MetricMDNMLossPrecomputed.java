@@ -17,6 +17,9 @@
 
 package org.deidentifier.arx.metric.v2;
 
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.DataDefinition;
 import org.deidentifier.arx.RowSet;
@@ -44,6 +47,9 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
     
     /** Distinct values: attribute -> level -> values. */
     private int[][][]         values;
+
+    /** Non-normalized lower bounds: attribute -> level -> bound, if precomputed. */
+    private double[][]        bounds;
     
     /**
      * Creates a new instance.
@@ -119,25 +125,13 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
         int dimensionsGeneralized = getDimensionsGeneralized();
         int[] transformation = node.getGeneralization();
         double[] bound = new double[dimensions];
-        DomainShare[] shares = super.getShares();
-        double gFactor = super.getGeneralizationFactor();
-        // Column -> Id -> Level -> Count
-        int[][][] cardinalities = this.cardinalities.getCardinalities();
-
 
         // For each column
         for (int column = 0; column < dimensionsGeneralized; column++) {
 
             // Check for cached value
             int level = transformation[column];
-            int[][] cardinality = cardinalities[column];
-            int[] values = this.values[column][level];
-            
-            for (int value : values) {
-                double count = cardinality[value][level];
-                double share = count * shares[column].getShare(value, level);
-                bound[column] += share * gFactor;
-            }
+            bound[column] = bounds != null ? bounds[column][level] : getBound(column, level);
         }
         // Note: we ignore microaggregation, as we cannot compute a bound for it
         // this means that the according entries in the resulting array are not changed and remain 0d
@@ -181,5 +175,64 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
                 values[i][j] = hierarchies[i].getDistinctValues(j);
             }
         }
+
+        // Compute bounds for all columns and levels in parallel
+        this.bounds = config.isQualityModelPrecomputationEnabled() ? getBounds() : null;
+    }
+
+    /**
+     * Returns the non-normalized lower bound for the given column at the given generalization level
+     * 
+     * @param column
+     * @param level
+     * @return
+     */
+    private double getBound(int column, int level) {
+        DomainShare share = super.getShares()[column];
+        double gFactor = super.getGeneralizationFactor();
+        int[][] cardinality = this.cardinalities.getCardinalities()[column];
+        double bound = 0d;
+        for (int value : this.values[column][level]) {
+            double count = cardinality[value][level];
+            bound += count * share.getShare(value, level) * gFactor;
+        }
+        return bound;
+    }
+
+    /**
+     * Computes the lower bounds for all columns and generalization levels in parallel
+     * 
+     * @return
+     */
+    private double[][] getBounds() {
+        
+        // Enumerate pairs of columns and levels
+        final int dimensionsGeneralized = getDimensionsGeneralized();
+        int size = 0;
+        for (int column = 0; column < dimensionsGeneralized; column++) {
+            size += values[column].length;
+        }
+        final int[] columns = new int[size];
+        final int[] levels = new int[size];
+        int index = 0;
+        for (int column = 0; column < dimensionsGeneralized; column++) {
+            for (int level = 0; level < values[column].length; level++) {
+                columns[index] = column;
+                levels[index++] = level;
+            }
+        }
+        
+        // Compute
+        final double[][] bounds = new double[dimensionsGeneralized][];
+        for (int column = 0; column < dimensionsGeneralized; column++) {
+            bounds[column] = new double[values[column].length];
+        }
+        IntStream.range(0, size).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int task) {
+                bounds[columns[task]][levels[task]] = getBound(columns[task], levels[task]);
+            }
+        });
+        return bounds;
     }
 }
@@ -331,7 +331,7 @@ public class MetricMDNMPrecision extends AbstractMetricMultiDimensional {
         // Store heights
         this.heights = new int[hierarchies.length];
         for (int j = 0; j < heights.length; j++) {
-            heights[j] = hierarchies[j].getArray()[0].length - 1;
+            heights[j] = hierarchies[j].getHeight() - 1;
         }
     }
 }
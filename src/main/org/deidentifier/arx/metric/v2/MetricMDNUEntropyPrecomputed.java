@@ -18,6 +18,8 @@
 package org.deidentifier.arx.metric.v2;
 
 import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.apache.commons.math3.fraction.BigFraction;
 import org.deidentifier.arx.ARXConfiguration;
@@ -77,7 +79,7 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
     /** Column -> Level -> Value. */
     private double[][]    cache;
 
-    /** Column -> Id -> Level -> Output. */
+    /** Column -> Level -> Id -> Output. */
     private int[][][]     hierarchies;
 
     /** Num rows */
@@ -256,31 +258,13 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
     protected double[] getInformationLossInternalRaw(final Transformation<?> node, final HashGroupify g) {
 
         // Prepare
-        int[][][] cardinalities = this.cardinalities.getCardinalities();
         double[] result = new double[hierarchies.length];
         double gFactor = super.getGeneralizationFactor();
 
         // For each column
         for (int column = 0; column < hierarchies.length; column++) {
-
-            // Check for cached value
             final int transformation = node.getGeneralization()[column];
-            double value = cache[column][transformation];
-            if (value == NOT_AVAILABLE) {
-                value = 0d;
-                final int[][] cardinality = cardinalities[column];
-                final int[][] hierarchy = hierarchies[column];
-                for (int in = 0; in < hierarchy.length; in++) {
-                    final int out = hierarchy[in][transformation];
-                    final double a = cardinality[in][0];
-                    final double b = cardinality[out][transformation];
-                    if (a != 0d) {
-                        value += a * log2(a / b);
-                    }
-                }
-                cache[column][transformation] = value;
-            }
-            result[column] = value * gFactor;
+            result[column] = getEntropy(column, transformation) * gFactor;
         }
 
         return result;
@@ -297,6 +281,35 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         return this.getLowerBoundInternal(node);
     }
     
+    /**
+     * Returns the entropy of the given column at the given generalization level.
+     * Values are computed on demand and cached.
+     * 
+     * @param column
+     * @param level
+     * @return
+     */
+    private double getEntropy(int column, int level) {
+
+        // Check for cached value
+        double value = cache[column][level];
+        if (value == NOT_AVAILABLE) {
+            value = 0d;
+            final int[][] cardinality = cardinalities.getCardinalities()[column];
+            final int[] hierarchy = hierarchies[column][level];
+            for (int in = 0; in < hierarchy.length; in++) {
+                final int out = hierarchy[in];
+                final double a = cardinality[in][0];
+                final double b = cardinality[out][level];
+                if (a != 0d) {
+                    value += a * log2(a / b);
+                }
+            }
+            cache[column][level] = value;
+        }
+        return value;
+    }
+
     /**
      * Returns the upper bound of the entropy value per column
      * @return
@@ -314,8 +327,7 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
             // Compute entropy
             double value = 0d;
             final int[][] cardinality = cardinalities[column];
-            final int[][] hierarchy = hierarchies[column];
-            for (int in = 0; in < hierarchy.length; in++) {
+            for (int in = 0; in < hierarchies[column][0].length; in++) {
                 final double a = cardinality[in][0];
                 if (a != 0d) {
                     value += a * log2(a / rows);
@@ -333,7 +345,7 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
     }
 
     /**
-     * For backwards compatibility.
+     * For backwards compatibility. Hierarchies are expected as column->input->level->output.
      *
      * @param cache
      * @param cardinalities
@@ -343,7 +355,16 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         
         // Initialize data structures
         this.cache = cache;
-        this.hierarchies = hierarchies;
+        this.hierarchies = new int[hierarchies.length][][];
+        for (int column = 0; column < hierarchies.length; column++) {
+            int[][] hierarchy = hierarchies[column];
+            this.hierarchies[column] = new int[hierarchy[0].length][hierarchy.length];
+            for (int in = 0; in < hierarchy.length; in++) {
+                for (int level = 0; level < hierarchy[in].length; level++) {
+                    this.hierarchies[column][level][in] = hierarchy[in][level];
+                }
+            }
+        }
         this.cardinalities = new Cardinalities(cardinalities);
 
         // Initialize weights
@@ -382,7 +403,7 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         // Create a cache for the results
         this.cache = new double[hierarchies.length][];
         for (int i = 0; i < cache.length; i++) {
-            cache[i] = new double[hierarchies[i].getArray()[0].length];
+            cache[i] = new double[hierarchies[i].getHeight()];
             Arrays.fill(cache[i], NOT_AVAILABLE);
         }
         
@@ -390,7 +411,15 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         final DataMatrix data = input.getArray();
         this.hierarchies = new int[data.getNumColumns()][][];
         for (int i = 0; i < hierarchies.length; i++) {
-            this.hierarchies[i] = hierarchies[i].getArray();
+            this.hierarchies[i] = new int[hierarchies[i].getHeight()][];
+            for (int level = 0; level < this.hierarchies[i].length; level++) {
+                this.hierarchies[i][level] = hierarchies[i].getArray(level);
+            }
+        }
+
+        // Fill the cache for all columns and levels in parallel
+        if (config.isQualityModelPrecomputationEnabled()) {
+            precompute();
         }
 
         // Compute a reasonable min & max
@@ -407,10 +436,10 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
             rootValues = new int[hierarchies.length];
             for (int i = 0; i < hierarchies.length; i++) {
                 int rootValue = -1;
-                for (int[] row : hierarchies[i].getArray()) {
+                for (int value : hierarchies[i].getArray(hierarchies[i].getHeight() - 1)) {
                     if (rootValue == -1) {
-                        rootValue = row[row.length-1];
-                    } else if (row[row.length-1] != rootValue) {
+                        rootValue = value;
+                    } else if (value != rootValue) {
                         rootValue = -1;
                         break;
                     }
@@ -422,4 +451,33 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         super.setMax(max);
         super.setMin(min);
     }
+
+    /**
+     * Computes the entropy for all columns and generalization levels in parallel
+     */
+    private void precompute() {
+        
+        // Enumerate pairs of columns and levels
+        int size = 0;
+        for (int column = 0; column < cache.length; column++) {
+            size += cache[column].length;
+        }
+        final int[] columns = new int[size];
+        final int[] levels = new int[size];
+        int index = 0;
+        for (int column = 0; column < cache.length; column++) {
+            for (int level = 0; level < cache[column].length; level++) {
+                columns[index] = column;
+                levels[index++] = level;
+            }
+        }
+        
+        // Compute
+        IntStream.range(0, size).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int task) {
+                getEntropy(columns[task], levels[task]);
+            }
+        });
+    }
 }
@@ -48,7 +48,10 @@ public class TupleMatcher implements Serializable {
         // Store hierarchies
         this.hierarchies = new int[hierarchies.length][][];
         for (int dimension = 0; dimension < this.hierarchies.length; dimension++) {
-            this.hierarchies[dimension] = hierarchies[dimension].getArray();
+            this.hierarchies[dimension] = new int[hierarchies[dimension].getHeight()][];
+            for (int level = 0; level < this.hierarchies[dimension].length; level++) {
+                this.hierarchies[dimension][level] = hierarchies[dimension].getArray(level);
+            }
         }
         
         // Create tuple
@@ -68,7 +71,7 @@ public class TupleMatcher implements Serializable {
         DataMatrix data = groupify.getInputData();
         data.iterator(row);
         for (int dimension = 0; dimension < tuple.length; dimension++) {
-            tuple[dimension] = hierarchies[dimension][data.iterator_next()][generalization[dimension]];
+            tuple[dimension] = hierarchies[dimension][generalization[dimension]][data.iterator_next()];
         }
         
         // Return
@@ -20,7 +20,6 @@ package org.deidentifier.arx.risk;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.validator.routines.CalendarValidator;
@@ -290,17 +289,18 @@ abstract class HIPAAMatcherAttributeValue {
      * @author Florian Kohlmayer, Fabian Prasser, David Gassmann
      */
     static abstract class HIPAAMatcherString extends HIPAAMatcherAttributeValue {
-        Matcher matcher;
+        
+        /** Compiled pattern, which, in contrast to matchers, may be shared between threads */
+        private final Pattern pattern;
         
         HIPAAMatcherString(String regex) {
             super(null);
-            Pattern pattern = Pattern.compile(regex);
-            matcher = pattern.matcher("");
+            this.pattern = Pattern.compile(regex);
         }
         
         @Override
         public boolean matches(String value) {
-            return matcher.reset(value).matches();
+            return pattern.matcher(value).matches();
         }
     }
     
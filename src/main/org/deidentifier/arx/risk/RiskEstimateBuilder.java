@@ -208,6 +208,23 @@ public class RiskEstimateBuilder {
         return new RiskModelHIPAASafeHarbor().getMatches(handle, threshold, stop);
     }
 
+    /**
+     * Returns the a set of potential HIPAA identifiers. Values are matched with the
+     * given confidence threshold. For attributes with more distinct values than the given
+     * sample size, the fraction of matching values is estimated from a random sample. All
+     * values are only matched if the estimate is not conclusive.
+     *
+     * @param threshold Confidence threshold
+     * @param sampleSize Number of values to sample
+     * @return
+     */
+    public HIPAAIdentifierMatch[] getHIPAAIdentifiers(double threshold, int sampleSize) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("Sample size must not be negative");
+        }
+        return new RiskModelHIPAASafeHarbor().getMatches(handle, threshold, sampleSize, stop);
+    }
+
     /**
      * Returns an interruptible instance of this object.
      *
@@ -322,7 +339,7 @@ public class RiskEstimateBuilder {
         synchronized (this) {
             if (classes == null) {
                 progress.value = 0;
-                classes = new RiskModelHistogram(handle, identifiers, stop, progress, factor);
+                classes = RiskModelHistogramCache.getHistogram(handle, identifiers, stop, progress, factor);
             }
             return classes;
         }
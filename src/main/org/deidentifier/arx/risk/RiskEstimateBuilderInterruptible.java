@@ -80,6 +80,23 @@ public class RiskEstimateBuilderInterruptible {
         }
     }
     
+    /**
+     * Returns a class providing access to the identifier HIPAA identifiers, matched with the
+     * given confidence threshold and sample size.
+     * 
+     * @param threshold
+     * @param sampleSize
+     * @return
+     * @throws InterruptedException
+     */
+    public HIPAAIdentifierMatch[] getHIPAAIdentifiers(double threshold, int sampleSize) throws InterruptedException {
+        try {
+            return parent.getHIPAAIdentifiers(threshold, sampleSize);
+        } catch (ComputationInterruptedException e) {
+            throw new InterruptedException("Computation interrupted");
+        }
+    }
+    
     /**
      * Returns a class providing population-based uniqueness estimates
      * 
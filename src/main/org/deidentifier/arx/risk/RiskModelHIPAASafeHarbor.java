@@ -18,7 +18,11 @@
 package org.deidentifier.arx.risk;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.DataHandleInternal;
 import org.deidentifier.arx.common.WrappedBoolean;
@@ -45,6 +49,11 @@ import org.deidentifier.arx.risk.HIPAAMatcherAttributeValue.HIPAAMatcherZIP;
  */
 class RiskModelHIPAASafeHarbor {
 
+    /** Quantile of the standard normal distribution used for sampling (99% confidence) */
+    private static final double               CONFIDENCE_Z = 2.576d;
+    /** Seed used for sampling, to ensure reproducible results */
+    private static final long                 SAMPLE_SEED  = 0xDEADBEEFL;
+
     /** All configurations*/
     private final List<HIPAAIdentifierConfig> configurations;
 
@@ -66,67 +75,178 @@ class RiskModelHIPAASafeHarbor {
     public HIPAAIdentifierMatch[] getMatches(DataHandleInternal handle, 
                                              double threshold,
                                              WrappedBoolean stop) {
+        return getMatches(handle, threshold, 0, stop);
+    }
+    
+    /**
+     * Returns a list of matches with HIPAA identifiers. Columns are analyzed in parallel. If a sample
+     * size larger than zero is given, columns with more distinct values are first analyzed using a
+     * random sample of their values. The fraction of matching values is then estimated from the sample,
+     * and the full set of values is only analyzed if the threshold lies within the confidence interval
+     * of the estimate.
+     * 
+     * @param handle
+     * @param threshold
+     * @param sampleSize Maximal number of values to analyze before falling back to a full scan, 0 to always analyze all values
+     * @param stop
+     * @return An array of warnings
+     */
+    public HIPAAIdentifierMatch[] getMatches(final DataHandleInternal handle, 
+                                             final double threshold,
+                                             final int sampleSize,
+                                             final WrappedBoolean stop) {
         
         // Prepare
-        List<HIPAAIdentifierMatch> results = new ArrayList<HIPAAIdentifierMatch>();
+        final int columns = handle.getNumColumns();
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final List<HIPAAIdentifierMatch>[] matches = new List[columns];
         
         // Check each attribute
-        for (int column = 0; column < handle.getNumColumns(); column++) {
-
-            // Init
-            String attribute = handle.getAttributeName(column);
-            String[] values = handle.getDistinctValues(column);
+        IntStream.range(0, columns).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int column) {
+                matches[column] = getMatches(handle, column, threshold, sampleSize, stop);
+            }
+        });
+        
+        // Collect in the order of the columns
+        List<HIPAAIdentifierMatch> results = new ArrayList<HIPAAIdentifierMatch>();
+        for (List<HIPAAIdentifierMatch> list : matches) {
+            results.addAll(list);
+        }
+        
+        // Return
+        return results.toArray(new HIPAAIdentifierMatch[results.size()]);
+    }
+    
+    /**
+     * Returns the number of values matching the given configuration. Stops early, if the
+     * fraction of non-matching values exceeds 1 - threshold.
+     * 
+     * @param config
+     * @param values
+     * @param threshold
+     * @param stop
+     * @return
+     */
+    private int getMatchCount(HIPAAIdentifierConfig config,
+                              String[] values,
+                              double threshold,
+                              WrappedBoolean stop) {
+        int matches = 0;
+        int nonmatches = 0;
+        for (String value : values) {
+            if (stop.value) {
+                throw new ComputationInterruptedException();
+            }
             
-            // Match attribute name
-            for (HIPAAIdentifierConfig config : configurations) {
-                if (stop.value) {
-                    throw new ComputationInterruptedException();
-                }
-                String match = config.getMatchingAttributeName(attribute);
-                if (match != null) {
-                    results.add(new HIPAAIdentifierMatch(attribute, 
-                                                         config.getIdentifier(), 
-                                                         config.getInstance(),
-                                                         MatchType.ATTRIBUTE_NAME, 
-                                                         match));
+            // Count matching values
+            if (config.getMatchingAttributeValue(value) != null) {
+                matches++;
+            } else {
+                
+                // Break if too many non-matching values
+                nonmatches++;
+                double nonpercentage = (double)nonmatches / (double)values.length;
+                if (nonpercentage > 1d - threshold) {
+                    break;
                 }
             }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the matches for the given column
+     * 
+     * @param handle
+     * @param column
+     * @param threshold
+     * @param sampleSize
+     * @param stop
+     * @return
+     */
+    private List<HIPAAIdentifierMatch> getMatches(DataHandleInternal handle,
+                                                  int column,
+                                                  double threshold,
+                                                  int sampleSize,
+                                                  WrappedBoolean stop) {
+        
+        // Prepare
+        List<HIPAAIdentifierMatch> results = new ArrayList<HIPAAIdentifierMatch>();
+        
+        // Init
+        String attribute = handle.getAttributeName(column);
+        String[] values = handle.getDistinctValues(column);
+        String[] sample = sampleSize > 0 && values.length > sampleSize ? getSample(values, sampleSize) : null;
+        
+        // Match attribute name
+        for (HIPAAIdentifierConfig config : configurations) {
+            if (stop.value) {
+                throw new ComputationInterruptedException();
+            }
+            String match = config.getMatchingAttributeName(attribute);
+            if (match != null) {
+                results.add(new HIPAAIdentifierMatch(attribute, 
+                                                     config.getIdentifier(), 
+                                                     config.getInstance(),
+                                                     MatchType.ATTRIBUTE_NAME, 
+                                                     match));
+            }
+        }
+        
+        // Match attribute values
+        for (HIPAAIdentifierConfig config : configurations) {
             
-            // Match attribute values
-            for (HIPAAIdentifierConfig config : configurations) {
-                int matches = 0;
-                int nonmatches = 0;
-                for (String value : values) {
-                    if (stop.value) {
-                        throw new ComputationInterruptedException();
-                    }
-                    
-                    // Count matching values
-                    if (config.getMatchingAttributeValue(value) != null) {
-                        matches++;
-                    } else {
-                        
-                        // Break if too many non-matching values
-                        nonmatches++;
-                        double nonpercentage = (double)nonmatches / (double)values.length;
-                        if (nonpercentage > 1d - threshold) {
-                            break;
-                        }
-                    }
-                }
-                double percentage = (double)matches / (double)values.length;
-                if (percentage > threshold) {
-                    results.add(new HIPAAIdentifierMatch(attribute, 
-                                                         config.getIdentifier(), 
-                                                         config.getInstance(),
-                                                         MatchType.ATTRIBUTE_VALUE, 
-                                                         String.valueOf(percentage)));
+            // Estimate from sample, if possible. Uses the Wilson score interval, which,
+            // in contrast to the Wald interval, does not collapse for estimates of 0 or 1.
+            double percentage = Double.NaN;
+            if (sample != null) {
+                double n = (double)sample.length;
+                double estimate = (double)getMatchCount(config, sample, 0d, stop) / n;
+                double z2 = CONFIDENCE_Z * CONFIDENCE_Z;
+                double denominator = 1d + z2 / n;
+                double center = (estimate + z2 / (2d * n)) / denominator;
+                double deviation = CONFIDENCE_Z / denominator * Math.sqrt(estimate * (1d - estimate) / n + z2 / (4d * n * n));
+                if (center + deviation < threshold || center - deviation > threshold) {
+                    percentage = estimate;
                 }
             }
+            
+            // Scan all values
+            if (Double.isNaN(percentage)) {
+                percentage = (double)getMatchCount(config, values, threshold, stop) / (double)values.length;
+            }
+            
+            if (percentage > threshold) {
+                results.add(new HIPAAIdentifierMatch(attribute, 
+                                                     config.getIdentifier(), 
+                                                     config.getInstance(),
+                                                     MatchType.ATTRIBUTE_VALUE, 
+                                                     String.valueOf(percentage)));
+            }
         }
         
         // Return
-        return results.toArray(new HIPAAIdentifierMatch[results.size()]);
+        return results;
+    }
+
+    /**
+     * Returns a random sample of the given size, drawn without replacement
+     * @param values
+     * @param size
+     * @return
+     */
+    private String[] getSample(String[] values, int size) {
+        Random random = new Random(SAMPLE_SEED);
+        String[] copy = values.clone();
+        for (int i = 0; i < size; i++) {
+            int index = i + random.nextInt(copy.length - i);
+            String temp = copy[i];
+            copy[i] = copy[index];
+            copy[index] = temp;
+        }
+        return Arrays.copyOf(copy, size);
     }
     
     /**
@@ -0,0 +1,449 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.risk;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleInternal;
+import org.deidentifier.arx.common.WrappedBoolean;
+import org.deidentifier.arx.common.WrappedInteger;
+import org.deidentifier.arx.exceptions.ComputationInterruptedException;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyHistogram;
+
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+import com.carrotsearch.hppc.LongIntOpenHashMap;
+
+/**
+ * A cache for partitions of data sets into equivalence classes. Partitions are computed
+ * for all rows of the underlying data set (i.e. the superset of subsets and views), so
+ * that histograms for subsets can be derived by filtering. Partitions for a set of
+ * quasi-identifiers are derived from cached partitions, either by refining a partition
+ * for a subset of the attributes or by coarsening a partition for a superset of the
+ * attributes. Cached partitions are invalidated whenever the data is modified. The memory
+ * required by all cached partitions is bounded, least recently used partitions are evicted.
+ *
+ * @author Fabian Prasser
+ */
+class RiskModelHistogramCache {
+
+    /**
+     * Cached partitions of a data set
+     *
+     * @author Fabian Prasser
+     */
+    private static class Entry {
+
+        /** Version of the data */
+        private final int                   version;
+        /** Partitions, most recently used first */
+        private final LinkedList<Partition> partitions = new LinkedList<Partition>();
+
+        /**
+         * Creates a new instance
+         * @param version
+         */
+        Entry(int version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * A partition of all rows into equivalence classes
+     *
+     * @author Fabian Prasser
+     */
+    private static class Partition {
+
+        /** Columns, sorted */
+        private final int[] columns;
+        /** Class of each row */
+        private final int[] classes;
+        /** Number of classes */
+        private final int   numClasses;
+        /** When the partition has been used last */
+        private long        used;
+
+        /**
+         * Creates a new instance
+         * @param columns
+         * @param classes
+         * @param numClasses
+         */
+        Partition(int[] columns, int[] classes, int numClasses) {
+            this.columns = columns;
+            this.classes = classes;
+            this.numClasses = numClasses;
+        }
+    }
+
+    /** Maximal number of partitions cached per data set */
+    private static final int                    CAPACITY = 8;
+
+    /** Maximal memory required by all cached partitions in bytes */
+    private static final long                   MAX_SIZE = Runtime.getRuntime().maxMemory() / 16;
+
+    /** The cache */
+    private static final Map<DataHandle, Entry> CACHE    = new WeakHashMap<DataHandle, Entry>();
+
+    /** Clock used for determining the least recently used partitions */
+    private static long                         clock    = 0;
+
+    /**
+     * Returns a histogram of the sizes of the equivalence classes in the given data set.
+     * IMPORTANT: Suppressed records will be ignored!
+     *
+     * @param handle
+     * @param qis
+     * @param stop
+     * @param progress
+     * @param factor
+     * @return
+     */
+    static RiskModelHistogram getHistogram(final DataHandleInternal handle,
+                                           final Set<String> qis,
+                                           final WrappedBoolean stop,
+                                           final WrappedInteger progress,
+                                           final double factor) {
+
+        /* ********************************
+         * Check
+         * ********************************/
+        if (handle == null) { throw new NullPointerException("Handle is null"); }
+        if (qis == null) { throw new NullPointerException("Quasi identifiers must not be null"); }
+        for (String q : qis) {
+            if (handle.getColumnIndexOf(q) == -1) { throw new IllegalArgumentException(q + " is not an attribute"); }
+        }
+
+        // Use the sizes of classes determined when the transformation was applied, if available
+        HashGroupifyHistogram histogram = handle.getHistogram();
+        if (histogram != null && qis.equals(handle.getDefinition().getQuasiIdentifyingAttributes())) {
+            progress.value = (int) Math.round(100d * factor);
+            return histogram.getHistogram();
+        }
+
+        /* ********************************
+         * Prepare
+         * ********************************/
+        final int[] columns = new int[qis.size()];
+        int index = 0;
+        for (final String attribute : qis) {
+            columns[index++] = handle.getColumnIndexOf(attribute);
+        }
+        Arrays.sort(columns);
+        DataHandleInternal root = handle.getSuperset() != null ? handle.getSuperset() : handle;
+        int version = handle.getVersion();
+
+        // Obtain partition
+        Partition partition = getPartition(root, columns, version, stop, progress, factor);
+
+        /* ********************************
+         * Build histogram
+         * ********************************/
+        int[] rows = handle.getSubsetRows();
+        int numRows = rows != null ? rows.length : root.getNumRows();
+        int[] sizes = new int[partition.numClasses];
+        for (int i = 0; i < numRows; i++) {
+            int row = rows != null ? rows[i] : i;
+            if (!root.isOutlier(row, columns)) {
+                sizes[partition.classes[row]]++;
+            }
+            if ((i & 0xFFF) == 0 && stop.value) { throw new ComputationInterruptedException(); }
+        }
+
+        // Group by size
+        IntIntOpenHashMap grouped = new IntIntOpenHashMap();
+        for (int size : sizes) {
+            if (size != 0) {
+                grouped.putOrAdd(size, 1, 1);
+            }
+        }
+        progress.value = (int) Math.round(100d * factor);
+        return new RiskModelHistogram(grouped);
+    }
+
+    /**
+     * Coarsens the given partition to the given columns. Representatives of the
+     * classes of the partition are partitioned, which induces a partition of all rows.
+     *
+     * @param root
+     * @param base
+     * @param columns
+     * @param stop
+     * @return
+     */
+    private static Partition coarsen(DataHandleInternal root,
+                                     Partition base,
+                                     int[] columns,
+                                     WrappedBoolean stop) {
+
+        // Collect representatives
+        int[] representatives = new int[base.numClasses];
+        Arrays.fill(representatives, -1);
+        for (int row = 0; row < base.classes.length; row++) {
+            int clazz = base.classes[row];
+            if (representatives[clazz] == -1) {
+                representatives[clazz] = row;
+            }
+        }
+
+        // Partition representatives
+        int[] classes = new int[representatives.length];
+        int numClasses = representatives.length == 0 ? 0 : 1;
+        for (int column : columns) {
+            numClasses = refine(root, representatives, classes, column, stop);
+        }
+
+        // Map rows
+        int[] result = new int[base.classes.length];
+        for (int row = 0; row < result.length; row++) {
+            result[row] = classes[base.classes[row]];
+        }
+        return new Partition(columns, result, numClasses);
+    }
+
+    /**
+     * Returns the cached partitions for the given data set
+     * @param root
+     * @param version
+     * @return
+     */
+    private static Entry getEntry(DataHandleInternal root, int version) {
+        Entry entry = CACHE.get(root.getHandle());
+        if (entry == null || entry.version != version) {
+            entry = new Entry(version);
+            CACHE.put(root.getHandle(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns a partition of all rows of the given data set regarding the given columns
+     *
+     * @param root
+     * @param columns
+     * @param version
+     * @param stop
+     * @param progress
+     * @param factor
+     * @return
+     */
+    private static Partition getPartition(DataHandleInternal root,
+                                          int[] columns,
+                                          int version,
+                                          WrappedBoolean stop,
+                                          WrappedInteger progress,
+                                          double factor) {
+
+        // Find best partition to start from
+        Partition refineBase = null;
+        Partition coarsenBase = null;
+        if (version != -1) {
+            synchronized (CACHE) {
+                Iterator<Partition> iter = getEntry(root, version).partitions.iterator();
+                while (iter.hasNext()) {
+                    Partition partition = iter.next();
+                    if (Arrays.equals(partition.columns, columns)) {
+                        partition.used = ++clock;
+                        return partition;
+                    } else if (isSubset(partition.columns, columns)) {
+                        if (refineBase == null || partition.columns.length > refineBase.columns.length) {
+                            refineBase = partition;
+                        }
+                    } else if (isSubset(columns, partition.columns)) {
+                        if (coarsenBase == null || partition.numClasses < coarsenBase.numClasses) {
+                            coarsenBase = partition;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Estimate costs
+        int numRows = root.getNumRows();
+        long costRefine = (long) numRows * (columns.length - (refineBase == null ? 0 : refineBase.columns.length));
+        long costCoarsen = coarsenBase == null ? Long.MAX_VALUE : numRows + (long) coarsenBase.numClasses * columns.length;
+
+        // Compute
+        Partition result;
+        if (costCoarsen < costRefine) {
+            result = coarsen(root, coarsenBase, columns, stop);
+        } else {
+            int[] classes = refineBase == null ? new int[numRows] : refineBase.classes.clone();
+            int numClasses = refineBase == null ? (numRows == 0 ? 0 : 1) : refineBase.numClasses;
+            int[] remaining = getRemaining(columns, refineBase == null ? new int[0] : refineBase.columns);
+            for (int i = 0; i < remaining.length; i++) {
+                numClasses = refine(root, null, classes, remaining[i], stop);
+                progress.value = (int) Math.round((double) (i + 1) / (double) remaining.length * factor * 80d);
+            }
+            result = new Partition(columns, classes, numClasses);
+        }
+
+        // Store
+        if (version != -1) {
+            synchronized (CACHE) {
+                LinkedList<Partition> partitions = getEntry(root, version).partitions;
+                partitions.addFirst(result);
+                while (partitions.size() > CAPACITY) {
+                    partitions.removeLast();
+                }
+                result.used = ++clock;
+                evict(result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the partitions of data sets which have been modified or released and least
+     * recently used partitions, until the memory required by all partitions is bounded.
+     * Must be called while holding the lock.
+     *
+     * @param keep Partition which is not removed
+     */
+    private static void evict(Partition keep) {
+
+        // Remove outdated entries
+        Iterator<Map.Entry<DataHandle, Entry>> iter = CACHE.entrySet().iterator();
+        long size = 0;
+        while (iter.hasNext()) {
+            Map.Entry<DataHandle, Entry> entry = iter.next();
+            if (entry.getKey().getVersion() != entry.getValue().version) {
+                iter.remove();
+            } else {
+                for (Partition partition : entry.getValue().partitions) {
+                    size += 4L * partition.classes.length;
+                }
+            }
+        }
+
+        // Remove least recently used partitions
+        while (size > MAX_SIZE) {
+            Entry owner = null;
+            Partition oldest = null;
+            for (Entry entry : CACHE.values()) {
+                for (Partition partition : entry.partitions) {
+                    if (partition != keep && (oldest == null || partition.used < oldest.used)) {
+                        owner = entry;
+                        oldest = partition;
+                    }
+                }
+            }
+            if (oldest == null) {
+                break;
+            }
+            owner.partitions.remove(oldest);
+            size -= 4L * oldest.classes.length;
+        }
+    }
+
+    /**
+     * Returns all columns from the first array that are not contained in the second array
+     * @param columns
+     * @param exclude
+     * @return
+     */
+    private static int[] getRemaining(int[] columns, int[] exclude) {
+        int[] result = new int[columns.length - exclude.length];
+        int index = 0;
+        for (int column : columns) {
+            if (Arrays.binarySearch(exclude, column) < 0) {
+                result[index++] = column;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the first sorted array is a subset of the second sorted array
+     * @param subset
+     * @param superset
+     * @return
+     */
+    private static boolean isSubset(int[] subset, int[] superset) {
+        if (subset.length > superset.length) {
+            return false;
+        }
+        for (int column : subset) {
+            if (Arrays.binarySearch(superset, column) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Refines the given classes with the values of the given column. Rows are identified
+     * via the given array, or by their index if no array is given.
+     *
+     * @param root
+     * @param rows
+     * @param classes
+     * @param column
+     * @param stop
+     * @return The number of classes
+     */
+    private static int refine(DataHandleInternal root,
+                              int[] rows,
+                              int[] classes,
+                              int column,
+                              WrappedBoolean stop) {
+
+        // Codes may not be unique, e.g. after values have been replaced
+        IntIntOpenHashMap codes = new IntIntOpenHashMap();
+        Map<String, Integer> values = new HashMap<String, Integer>();
+        LongIntOpenHashMap map = new LongIntOpenHashMap();
+        int numClasses = 0;
+        for (int i = 0; i < classes.length; i++) {
+
+            // Translate value
+            int row = rows != null ? rows[i] : i;
+            int code = root.getEncodedValue(row, column, false);
+            int value;
+            if (codes.containsKey(code)) {
+                value = codes.lget();
+            } else {
+                String string = root.getValue(row, column, false);
+                Integer local = values.get(string);
+                if (local == null) {
+                    local = values.size();
+                    values.put(string, local);
+                }
+                value = local;
+                codes.put(code, value);
+            }
+
+            // Refine class
+            long key = ((long) classes[i] << 32) | value;
+            if (map.containsKey(key)) {
+                classes[i] = map.lget();
+            } else {
+                map.put(key, numClasses);
+                classes[i] = numClasses++;
+            }
+            if ((i & 0xFFF) == 0 && stop.value) { throw new ComputationInterruptedException(); }
+        }
+        return numClasses;
+    }
+}
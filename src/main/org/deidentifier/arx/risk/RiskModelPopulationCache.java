@@ -0,0 +1,165 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.risk;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.risk.RiskModelPopulationUniqueness.PopulationUniquenessModel;
+
+import de.linearbits.newtonraphson.NewtonRaphsonConfiguration;
+
+/**
+ * A bounded cache for estimates obtained with population-based uniqueness models.
+ * Estimates are keyed by the histogram of class sizes, the size of the population
+ * and the configuration of the solver. Evicts the least recently used entries.
+ *
+ * @author Fabian Prasser
+ */
+class RiskModelPopulationCache {
+
+    /**
+     * Key for cached estimates
+     *
+     * @author Fabian Prasser
+     */
+    private static class Key {
+
+        /** Model */
+        private final PopulationUniquenessModel model;
+        /** Histogram: class-size[idx], class-count[idx+1],... */
+        private final int[]                     histogram;
+        /** Population */
+        private final long                      populationSize;
+        /** Solver */
+        private final double                    accuracy;
+        /** Solver */
+        private final int                       iterationsPerTry;
+        /** Solver */
+        private final int                       iterationsTotal;
+        /** Solver */
+        private final int                       timePerTry;
+        /** Solver */
+        private final int                       timeTotal;
+        /** Solver */
+        private final double[][]                startValues;
+        /** Hash code */
+        private final int                       hashcode;
+
+        /**
+         * Creates a new instance
+         *
+         * @param model
+         * @param population
+         * @param histogram
+         * @param config
+         */
+        Key(PopulationUniquenessModel model,
+            ARXPopulationModel population,
+            RiskModelHistogram histogram,
+            NewtonRaphsonConfiguration<?> config) {
+            this.model = model;
+            this.histogram = histogram.getHistogram();
+            this.populationSize = population.getPopulationSize();
+            this.accuracy = config != null ? config.getAccuracy() : 0d;
+            this.iterationsPerTry = config != null ? config.getIterationsPerTry() : 0;
+            this.iterationsTotal = config != null ? config.getIterationsTotal() : 0;
+            this.timePerTry = config != null ? config.getTimePerTry() : 0;
+            this.timeTotal = config != null ? config.getTimeTotal() : 0;
+            this.startValues = config != null ? config.getStartValues() : null;
+            this.hashcode = 31 * (31 * Arrays.hashCode(this.histogram) + model.hashCode()) + Long.hashCode(populationSize);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key other = (Key) obj;
+            return hashcode == other.hashcode &&
+                   model == other.model &&
+                   populationSize == other.populationSize &&
+                   Double.compare(accuracy, other.accuracy) == 0 &&
+                   iterationsPerTry == other.iterationsPerTry &&
+                   iterationsTotal == other.iterationsTotal &&
+                   timePerTry == other.timePerTry &&
+                   timeTotal == other.timeTotal &&
+                   Arrays.deepEquals(startValues, other.startValues) &&
+                   Arrays.equals(histogram, other.histogram);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashcode;
+        }
+    }
+
+    /** Maximal number of cached estimates */
+    private static final int              CAPACITY = 256;
+
+    /** The cache */
+    private static final Map<Key, Double> CACHE    = new LinkedHashMap<Key, Double>(CAPACITY, 0.75f, true) {
+        /** SVUID */
+        private static final long serialVersionUID = 4611358226541137937L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    /**
+     * Returns the cached estimate, or <code>null</code> if there is none
+     *
+     * @param model
+     * @param population
+     * @param histogram
+     * @param config
+     * @return
+     */
+    static Double get(PopulationUniquenessModel model,
+                      ARXPopulationModel population,
+                      RiskModelHistogram histogram,
+                      NewtonRaphsonConfiguration<?> config) {
+        Key key = new Key(model, population, histogram, config);
+        synchronized (CACHE) {
+            return CACHE.get(key);
+        }
+    }
+
+    /**
+     * Stores an estimate
+     *
+     * @param model
+     * @param population
+     * @param histogram
+     * @param config
+     * @param estimate
+     */
+    static void put(PopulationUniquenessModel model,
+                    ARXPopulationModel population,
+                    RiskModelHistogram histogram,
+                    NewtonRaphsonConfiguration<?> config,
+                    double estimate) {
+        Key key = new Key(model, population, histogram, config);
+        synchronized (CACHE) {
+            CACHE.put(key, estimate);
+        }
+    }
+}
@@ -18,6 +18,9 @@
 package org.deidentifier.arx.risk;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.ARXPopulationModel;
 import org.deidentifier.arx.ARXSolverConfiguration;
@@ -125,16 +128,26 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
         // If precomputation (for interruptible builders)
         if (precompute) {
 
-            // Estimate with Zayatz's model
-            getNumUniqueTuplesZayatz();
-            progress.value = 50;
-
-            // Estimate with Pitman's model
-            getNumUniqueTuplesPitman();
-            progress.value = 75;
-
-            // Estimate with SNB model
-            getNumUniqueTuplesSNB();
+            // Estimate with Zayatz's, Pitman's and the SNB model in parallel
+            final WrappedInteger _progress = progress;
+            final int offset = progress.value;
+            final AtomicInteger finished = new AtomicInteger();
+            IntStream.range(0, 3).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(int index) {
+                    switch (index) {
+                    case 0:
+                        getNumUniqueTuplesZayatz();
+                        break;
+                    case 1:
+                        getNumUniqueTuplesPitman();
+                        break;
+                    default:
+                        getNumUniqueTuplesSNB();
+                    }
+                    _progress.value = offset + (100 - offset) * finished.incrementAndGet() / 4;
+                }
+            });
 
             // Decision rule by Dankar et al.
             getNumUniqueTuplesDankar();
@@ -270,10 +283,16 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
             if (this.numClassesOfSize1 == 0) {
                 numUniquesPitman = 0;
             } else {
-                numUniquesPitman = new ModelPitman(model,
-                                                   histogram,
-                                                   config,
-                                                   stop).getNumUniques();
+                Double cached = RiskModelPopulationCache.get(PopulationUniquenessModel.PITMAN, model, histogram, config);
+                if (cached != null) {
+                    numUniquesPitman = cached;
+                } else {
+                    numUniquesPitman = new ModelPitman(model,
+                                                       histogram,
+                                                       config,
+                                                       stop).getNumUniques();
+                    RiskModelPopulationCache.put(PopulationUniquenessModel.PITMAN, model, histogram, config, numUniquesPitman);
+                }
             }
         }
         return isValid(numUniquesPitman) ? numUniquesPitman : 0d;
@@ -288,10 +307,16 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
             if (this.numClassesOfSize1 == 0) {
                 numUniquesSNB = 0;
             } else {
-                numUniquesSNB = new ModelSNB(model,
-                                             histogram,
-                                             config,
-                                             stop).getNumUniques();
+                Double cached = RiskModelPopulationCache.get(PopulationUniquenessModel.SNB, model, histogram, config);
+                if (cached != null) {
+                    numUniquesSNB = cached;
+                } else {
+                    numUniquesSNB = new ModelSNB(model,
+                                                 histogram,
+                                                 config,
+                                                 stop).getNumUniques();
+                    RiskModelPopulationCache.put(PopulationUniquenessModel.SNB, model, histogram, config, numUniquesSNB);
+                }
             }
         }
         return isValid(numUniquesSNB) ? numUniquesSNB : 0d;
@@ -306,9 +331,15 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
             if (this.numClassesOfSize1 == 0) {
                 numUniquesZayatz = 0;
             } else {
-                numUniquesZayatz = new ModelZayatz(model,
-                                                   histogram,
-                                                   stop).getNumUniques();
+                Double cached = RiskModelPopulationCache.get(PopulationUniquenessModel.ZAYATZ, model, histogram, config);
+                if (cached != null) {
+                    numUniquesZayatz = cached;
+                } else {
+                    numUniquesZayatz = new ModelZayatz(model,
+                                                       histogram,
+                                                       stop).getNumUniques();
+                    RiskModelPopulationCache.put(PopulationUniquenessModel.ZAYATZ, model, histogram, config, numUniquesZayatz);
+                }
             }
         }
         return isValid(numUniquesZayatz) ? numUniquesZayatz : 0d;
@@ -16,22 +16,24 @@
  */
 package org.deidentifier.arx.risk;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.deidentifier.arx.DataHandleInternal;
 import org.deidentifier.arx.common.Groupify;
 import org.deidentifier.arx.common.Groupify.Group;
-import org.deidentifier.arx.common.TupleWrapper;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
 import org.deidentifier.arx.reliability.ParameterTranslation;
 
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+
 /**
  * This class implements risk measures as proposed by El Emam in
  * "Guide to the De-Identification of Personal Health Information",
@@ -43,74 +45,53 @@ import org.deidentifier.arx.reliability.ParameterTranslation;
 public class RiskModelSampleWildcard {
     
     /**
-     * Inner node in the index
+     * A tuple of integer codes. Codes are local to this model, with
+     * the wildcard being represented by <code>WILDCARD</code>.
+     * 
      * @author Fabian Prasser
      */
-    private class InnerNode extends Node {
-        
-        /** Children*/
-        private final List<Node> children = new ArrayList<Node>();
-        
-        /**
-         * Creates a new instance
-         * @param value
-         */
-        protected InnerNode(String value) {
-            super(value);
-        }   
-    }
+    private static class Tuple {
 
-    /**
-     * Leaf node in the index
-     * @author Fabian Prasser
-     */
-    private class LeafNode extends Node {
-     
-        /** Pointer to records */
-        private final Group<TupleWrapper> records;
+        /** Hash code */
+        private final int   hashcode;
+        /** Codes */
+        private final int[] codes;
 
         /**
          * Creates a new instance
-         * @param value
-         * @param records
-         * @param frequency
+         * @param codes
          */
-        protected LeafNode(String value, Group<TupleWrapper> records) {
-            super(value);
-            this.records = records;
+        Tuple(int[] codes) {
+            this.codes = codes;
+            this.hashcode = Arrays.hashCode(codes);
         }
-    }
 
-    /**
-     * Abstract base class for nodes
-     * @author Fabian Prasser
-     */
-    private abstract class Node {
+        @Override
+        public boolean equals(Object obj) {
+            return Arrays.equals(codes, ((Tuple) obj).codes);
+        }
 
-        /** Value at this level*/
-        protected final String value;
-        
-        /**
-         * Creates a new instance
-         * @param value
-         */
-        protected Node(String value) {
-            this.value = value;
+        @Override
+        public int hashCode() {
+            return hashcode;
         }
     }
 
+    /** Code representing the wildcard */
+    private static final int WILDCARD   = 0;
+    /** Number of groups evaluated per task */
+    private static final int CHUNK_SIZE = 256;
+
     /** Average risk */
-    private final double averageRisk;
+    private final double     averageRisk;
     /** Highest risk */
-    private final double highestRisk;
+    private final double     highestRisk;
     /** Threshold*/
-    private final double threshold;
+    private final double     threshold;
     /** Size threshold */
-    private final int    sizeThreshold;
+    private final int        sizeThreshold;
     /** Records at risk */
-    private final double recordsAtRisk;
-    /** Suppressed records */
-    private final String wildcard;
+    private final double     recordsAtRisk;
 
     /**
      * Creates a new instance
@@ -125,11 +106,10 @@ public class RiskModelSampleWildcard {
                                   Set<String> identifiers,
                                   double threshold,
                                   String wildcard,
-                                  WrappedBoolean stop,
-                                  WrappedInteger progress) {
+                                  final WrappedBoolean stop,
+                                  final WrappedInteger progress) {
 
         // Init
-        this.wildcard = wildcard;
         this.threshold = threshold;
         this.sizeThreshold = ParameterTranslation.getSizeThreshold(threshold);
         
@@ -138,48 +118,58 @@ public class RiskModelSampleWildcard {
         }
         
         // Calculate groups
-        Groupify<TupleWrapper> groups = getGroups(handle, identifiers, 0d, 0.3d, wildcard, stop, progress);
-        
-        // Map of original frequencies
-        Map<Group<TupleWrapper>, Integer> frequencies = new HashMap<>();
+        Groupify<Tuple> groups = getGroups(handle, identifiers, 0d, 30d, wildcard, stop, progress);
         
-        // Now determine frequencies
-        List<Node> index = new ArrayList<Node>();
-        Group<TupleWrapper> group = groups.first();
-        int progressMax = groups.size();
-        int progressCount = 0;
+        // Flatten
+        final int numGroups = groups.size();
+        final int[][] tuples = new int[numGroups][];
+        final int[] frequencies = new int[numGroups];
         int numRecords = 0;
+        int offset = 0;
+        Group<Tuple> group = groups.first();
         while (group != null) {
-            progress.value = (int)Math.round((0.3d + (double)(progressCount++) / (double)progressMax * 0.6d) * 100d); 
-            if (stop.value) {
-                throw new ComputationInterruptedException();
-            }
-            frequencies.put(group, group.getCount());
+            tuples[offset] = group.getElement().codes;
+            frequencies[offset++] = group.getCount();
             numRecords += group.getCount();
-            add(stop, frequencies, group, index, 0);
-            index(stop, frequencies, group, index, 0);
             group = group.next();
         }
+        groups = null;
+        
+        // Index
+        final int[][][] index = getIndex(tuples, stop);
+        progress.value = 40;
+        
+        // Determine the number of matching records for each group, in parallel
+        final int[] matches = new int[numGroups];
+        final int numChunks = (numGroups + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final AtomicInteger progressCount = new AtomicInteger();
+        IntStream.range(0, numChunks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int chunk) {
+                int end = Math.min(numGroups, (chunk + 1) * CHUNK_SIZE);
+                for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                    if (stop.value) {
+                        throw new ComputationInterruptedException();
+                    }
+                    matches[i] = getMatches(tuples, frequencies, index, i);
+                }
+                progress.value = (int)Math.round(40d + (double)progressCount.incrementAndGet() / (double)numChunks * 60d);
+            }
+        });
         
         // And evaluate
         double totalRisk = 0d;
         double highestRisk = 0d;
         int numAtRisk = 0;
-        group = groups.first();
-        progressCount = 0;
-        while (group != null) {
-            progress.value = (int)Math.round((0.9d + (double)(progressCount++) / (double)progressMax * 0.1d) * 100d);
-            if (stop.value) {
-                throw new ComputationInterruptedException();
-            }
-            double risk = 1d / (double) group.getCount();
+        for (int i = 0; i < numGroups; i++) {
+            double risk = 1d / (double) matches[i];
             highestRisk = Math.max(highestRisk, risk);
-            totalRisk += risk * (double) frequencies.get(group);
-            if (group.getCount() < sizeThreshold) {
-                numAtRisk += frequencies.get(group);
+            totalRisk += risk * (double) frequencies[i];
+            if (matches[i] < sizeThreshold) {
+                numAtRisk += frequencies[i];
             }
-            group = group.next();
         }
+        progress.value = 100;
         
         // Records at risk
         this.recordsAtRisk = numRecords == 0 ? 0d : (double)numAtRisk / (double)numRecords;
@@ -241,46 +231,7 @@ public class RiskModelSampleWildcard {
     }
 
     /**
-     * Adds frequency counts
-     * @param stop
-     * @param frequencies 
-     * @param group
-     * @param index
-     * @param depth
-     */
-    private void add(WrappedBoolean stop, Map<Group<TupleWrapper>, Integer> frequencies, Group<TupleWrapper> group, List<Node> index, int depth) {
-
-        // Extract
-        boolean isLeafLevel = group.getElement().getValues().length - 1 == depth;
-        String value = group.getElement().getValues()[depth];
-        
-        // For each potential match
-        for (Node node : index) {
-            
-            // Check interrupt
-            if (stop.value) {
-                throw new ComputationInterruptedException();
-            }
-            
-            // Match
-            if (node.value.equals(wildcard) || value.equals(wildcard) || node.value.equals(value)) {
-
-                // Leaf
-                if (isLeafLevel) {
-                    LeafNode leaf = (LeafNode)node;
-                    group.incCount(frequencies.get(leaf.records));
-                    leaf.records.incCount(frequencies.get(group));
-                    
-                // Inner node
-                } else {
-                    add(stop, frequencies, group, ((InnerNode)node).children, depth + 1);
-                }
-            }
-        }
-    }
-
-    /**
-     * Computes the equivalence classes
+     * Computes the equivalence classes, encoding values with codes that are local to this model
      * @param handle
      * @param qis
      * @param offset
@@ -290,13 +241,13 @@ public class RiskModelSampleWildcard {
      * @param progress
      * @return
      */
-    private Groupify<TupleWrapper> getGroups(DataHandleInternal handle,
-                                             Set<String> qis,
-                                             double offset,
-                                             double factor,
-                                             String wildcard,
-                                             WrappedBoolean stop,
-                                             WrappedInteger progress) {
+    private Groupify<Tuple> getGroups(DataHandleInternal handle,
+                                      Set<String> qis,
+                                      double offset,
+                                      double factor,
+                                      String wildcard,
+                                      WrappedBoolean stop,
+                                      WrappedInteger progress) {
 
         /* ********************************
          * Check 
@@ -322,14 +273,27 @@ public class RiskModelSampleWildcard {
             indices[index++] = handle.getColumnIndexOf(attribute);
         }
         Arrays.sort(indices);
-
+        
+        /* ********************************
+         * Prepare local encoding. Codes of the handle
+         * are translated once per distinct code, as
+         * different codes may represent the wildcard.
+         * ********************************/
+        IntIntOpenHashMap[] translation = new IntIntOpenHashMap[indices.length];
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Map<String, Integer>[] dictionary = new Map[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            translation[i] = new IntIntOpenHashMap();
+            dictionary[i] = new HashMap<String, Integer>();
+            dictionary[i].put(wildcard, WILDCARD);
+        }
 
         /* ********************************
          * Build equivalence classes 
          * ********************************/
         int capacity = handle.getNumRows() / 10;
         capacity = capacity > 10 ? capacity : 10;
-        Groupify<TupleWrapper> map = new Groupify<TupleWrapper>(capacity);
+        Groupify<Tuple> map = new Groupify<Tuple>(capacity);
         int numRows = handle.getNumRows();
         for (int row = 0; row < numRows; row++) {
 
@@ -339,8 +303,23 @@ public class RiskModelSampleWildcard {
             }
 
             if (!handle.isOutlier(row, indices)) {
-                TupleWrapper tuple = new TupleWrapper(handle, indices, row);
-                map.add(tuple);
+                int[] codes = new int[indices.length];
+                for (int i = 0; i < indices.length; i++) {
+                    int code = handle.getEncodedValue(row, indices[i], false);
+                    if (translation[i].containsKey(code)) {
+                        codes[i] = translation[i].lget();
+                    } else {
+                        String value = handle.getValue(row, indices[i], false);
+                        Integer local = dictionary[i].get(value);
+                        if (local == null) {
+                            local = dictionary[i].size();
+                            dictionary[i].put(value, local);
+                        }
+                        translation[i].put(code, local);
+                        codes[i] = local;
+                    }
+                }
+                map.add(new Tuple(codes));
             }
             if (stop.value) { 
                 throw new ComputationInterruptedException();
@@ -350,55 +329,121 @@ public class RiskModelSampleWildcard {
         // Return
         return map;
     }
-    
+
     /**
-     * Adds element to index
+     * Builds a flat index per column, which maps each code to the sorted list of
+     * groups with this code: column -> code -> groups.
+     * 
+     * @param tuples
      * @param stop
-     * @param frequencies
-     * @param group
-     * @param index
-     * @param depth
+     * @return
      */
-    private void index(WrappedBoolean stop, Map<Group<TupleWrapper>, Integer> frequencies, Group<TupleWrapper> group, List<Node> index, int depth) {
-
-        // Extract
-        boolean isLeafLevel = group.getElement().getValues().length - 1 == depth;
-        String value = group.getElement().getValues()[depth];
+    private int[][][] getIndex(int[][] tuples, WrappedBoolean stop) {
         
-        // For each potential match
-        for (Node node : index) {
-
+        // Prepare
+        int numColumns = tuples.length == 0 ? 0 : tuples[0].length;
+        int[][][] index = new int[numColumns][][];
+        
+        // For each column
+        for (int column = 0; column < numColumns; column++) {
+            
+            // Count
+            int numCodes = 1;
+            for (int[] tuple : tuples) {
+                numCodes = Math.max(numCodes, tuple[column] + 1);
+            }
+            int[] sizes = new int[numCodes];
+            for (int[] tuple : tuples) {
+                sizes[tuple[column]]++;
+            }
+            
+            // Allocate
+            int[][] lists = new int[numCodes][];
+            for (int code = 0; code < numCodes; code++) {
+                lists[code] = new int[sizes[code]];
+                sizes[code] = 0;
+            }
+            
+            // Fill, ascending by group
+            for (int group = 0; group < tuples.length; group++) {
+                int code = tuples[group][column];
+                lists[code][sizes[code]++] = group;
+            }
+            index[column] = lists;
+            
             // Check interrupt
             if (stop.value) {
                 throw new ComputationInterruptedException();
             }
-            
-            // Match
-            if (node.value.equals(value)) {
-
-                // Leaf
-                if (isLeafLevel) {
-                    throw new IllegalStateException("Duplicate entry");
-                    
-                // Inner node
-                } else {
-                    
-                    // Go on
-                    index(stop, frequencies, group, ((InnerNode)node).children, depth + 1);
-                    return;
+        }
+        
+        // Done
+        return index;
+    }
+    
+    /**
+     * Returns the number of records matching the given group, including the records of the group itself.
+     * Candidates are retrieved from the index of the most selective column and then verified.
+     * 
+     * @param tuples
+     * @param frequencies
+     * @param index
+     * @param group
+     * @return
+     */
+    private int getMatches(int[][] tuples, int[] frequencies, int[][][] index, int group) {
+        
+        // Select the most selective column
+        int[] tuple = tuples[group];
+        int selected = -1;
+        int size = Integer.MAX_VALUE;
+        for (int column = 0; column < tuple.length; column++) {
+            if (tuple[column] != WILDCARD) {
+                int candidates = index[column][tuple[column]].length + index[column][WILDCARD].length;
+                if (candidates < size) {
+                    size = candidates;
+                    selected = column;
                 }
             }
         }
         
-        // Add new entry
-        if (isLeafLevel) {
-            index.add(new LeafNode(value, group));
-        } else {
-            InnerNode node = new InnerNode(value);
-            index.add(node);
-            
-            // Go on
-            index(stop, frequencies, group, node.children, depth + 1);
+        // Only wildcards: matches everything
+        int count = 0;
+        if (selected == -1) {
+            for (int frequency : frequencies) {
+                count += frequency;
+            }
+            return count;
+        }
+        
+        // Verify candidates
+        count += getMatches(tuples, frequencies, index[selected][tuple[selected]], tuple);
+        count += getMatches(tuples, frequencies, index[selected][WILDCARD], tuple);
+        return count;
+    }
+
+    /**
+     * Returns the number of records in the given candidate groups, which match the given tuple
+     * 
+     * @param tuples
+     * @param frequencies
+     * @param candidates
+     * @param tuple
+     * @return
+     */
+    private int getMatches(int[][] tuples, int[] frequencies, int[] candidates, int[] tuple) {
+        int count = 0;
+        outer: for (int candidate : candidates) {
+            int[] other = tuples[candidate];
+            for (int column = 0; column < tuple.length; column++) {
+                int value1 = tuple[column];
+                int value2 = other[column];
+                if (value1 != value2 && value1 != WILDCARD && value2 != WILDCARD) {
+                    continue outer;
+                }
+            }
+            count += frequencies[candidate];
         }
+        return count;
     }
 }
\ No newline at end of file
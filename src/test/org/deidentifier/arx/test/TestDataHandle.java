@@ -17,11 +17,18 @@
 
 package org.deidentifier.arx.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.deidentifier.arx.ARXAnonymizer;
 import org.deidentifier.arx.ARXConfiguration;
@@ -31,9 +38,13 @@ import org.deidentifier.arx.ARXResult;
 import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
 import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleInput;
+import org.deidentifier.arx.DataHandleOutput;
 import org.deidentifier.arx.DataSelector;
 import org.deidentifier.arx.DataSubset;
+import org.deidentifier.arx.RowSet;
 import org.deidentifier.arx.criteria.DPresence;
 import org.deidentifier.arx.criteria.Inclusion;
 import org.deidentifier.arx.criteria.KAnonymity;
@@ -47,6 +58,75 @@ import org.junit.Test;
  */
 public class TestDataHandle extends AbstractTest {
     
+    /**
+     * Returns the values and outlier flags of the handle
+     *
+     * @param handle
+     * @return
+     */
+    private static String[][] getValues(DataHandle handle) {
+        String[][] result = new String[handle.getNumRows()][handle.getNumColumns() + 1];
+        for (int row = 0; row < handle.getNumRows(); row++) {
+            for (int column = 0; column < handle.getNumColumns(); column++) {
+                result[row][column] = handle.getValue(row, column);
+            }
+            result[row][handle.getNumColumns()] = String.valueOf(handle.isOutlier(row));
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the data in encoded form and reads it again
+     *
+     * @param data
+     * @return
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    private static Data getEncodedCopy(Data data) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bytes);
+        ((DataHandleInput) data.getHandle()).write(oos);
+        oos.close();
+        return Data.read(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+    
+    /**
+     * Test case
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void testEncodedData() throws IllegalArgumentException, IOException, ClassNotFoundException {
+        
+        // Round trip, also after the rows have been reordered
+        provider.createDataDefinition();
+        Data data = provider.getData();
+        String[][] expected = iteratorToArray(data.getHandle().iterator());
+        assertTrue(Arrays.deepEquals(expected, iteratorToArray(getEncodedCopy(data).getHandle().iterator())));
+        data.getHandle().sort(false, 2, 0);
+        expected = iteratorToArray(data.getHandle().iterator());
+        Data copy = getEncodedCopy(data);
+        assertTrue(Arrays.deepEquals(expected, iteratorToArray(copy.getHandle().iterator())));
+        
+        // Anonymize the copy
+        copy.getDefinition().setAttributeType("age", provider.getAge());
+        copy.getDefinition().setAttributeType("gender", provider.getGender());
+        copy.getDefinition().setAttributeType("zipcode", provider.getZipcode());
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(2));
+        config.setSuppressionLimit(0d);
+        String[][] result = resultToArray(new ARXAnonymizer().anonymize(data, config));
+        assertTrue(Arrays.deepEquals(result, resultToArray(new ARXAnonymizer().anonymize(copy, config))));
+        
+        // Larger dataset
+        data = Data.create("./data/adult.csv", StandardCharsets.UTF_8, ';');
+        expected = iteratorToArray(data.getHandle().iterator());
+        assertTrue(Arrays.deepEquals(expected, iteratorToArray(getEncodedCopy(data).getHandle().iterator())));
+    }
+    
     /**
      * Test case
      *
@@ -498,4 +578,125 @@ public class TestDataHandle extends AbstractTest {
         
         assertTrue(Arrays.deepEquals(given, expected));
     }
+    
+    /**
+     * Compares the rows selected via subsets to evaluating the selector row by row
+     */
+    @Test
+    public void testSubsetSelector() {
+        
+        DefaultData data = Data.create();
+        data.add("age", "gender", "zipcode");
+        for (int i = 0; i < 40000; i++) {
+            data.add(String.valueOf(i % 97), i % 3 == 0 ? "female" : "male", String.valueOf(81000 + (i * 31) % 1000));
+        }
+        
+        DataSelector[] selectors = { DataSelector.create(data).field("gender").equals("male"),
+                                     DataSelector.create(data).field("age").equals("70").or().equals("34"),
+                                     DataSelector.create(data).field("age").equals("70").and().field("gender").equals("female"),
+                                     DataSelector.create(data).begin().field("zipcode").equals("81031").or().field("age").equals("1").end().and().field("gender").equals("male") };
+        
+        for (DataSelector selector : selectors) {
+            RowSet set = DataSubset.create(data, selector).getSet();
+            for (int row = 0; row < data.getHandle().getNumRows(); row++) {
+                assertEquals(String.valueOf(row), selector.isSelected(row), set.contains(row));
+            }
+        }
+    }
+    
+    /**
+     * Test case
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void testVirtualOutput() throws IllegalArgumentException, IOException, ClassNotFoundException {
+        
+        provider.createDataDefinition();
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(3));
+        config.setSuppressionLimit(0.5d);
+        testVirtualOutput(new ARXAnonymizer().anonymize(provider.getData(), config));
+    }
+    
+    /**
+     * Test case
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void testVirtualOutputSubset() throws IllegalArgumentException, IOException, ClassNotFoundException {
+        
+        provider.createDataDefinition();
+        DataSelector selector = DataSelector.create(provider.getData()).field("age").equals("70").or().equals("34");
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(2));
+        config.addPrivacyModel(new Inclusion(DataSubset.create(provider.getData(), selector)));
+        config.setSuppressionLimit(0.5d);
+        testVirtualOutput(new ARXAnonymizer().anonymize(provider.getData(), config));
+    }
+    
+    /**
+     * Compares virtual handles for all transformations to materialized handles, also after
+     * writing and reading them
+     *
+     * @param result
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    private void testVirtualOutput(ARXResult result) throws IOException, ClassNotFoundException {
+        
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                node.expand();
+            }
+        }
+        
+        // Materialize all transformations
+        Map<ARXNode, String[][]> values = new HashMap<ARXNode, String[][]>();
+        Map<ARXNode, String> statistics = new HashMap<ARXNode, String>();
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                DataHandle materialized = result.getOutput(node, true);
+                values.put(node, getValues(materialized));
+                statistics.put(node, materialized.getStatistics().getEquivalenceClassStatistics().toString());
+                materialized.release();
+            }
+        }
+        
+        // Compare virtual to materialized handles, while no handle uses the output buffer
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                String message = Arrays.toString(node.getTransformation());
+                DataHandle virtual = result.getOutputVirtual(node);
+                assertTrue(message, Arrays.deepEquals(values.get(node), getValues(virtual)));
+                assertEquals(message, statistics.get(node), virtual.getStatistics().getEquivalenceClassStatistics().toString());
+                
+                // Write and read
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ((DataHandleOutput) virtual).write(bytes);
+                virtual.release();
+                DataHandle read = result.getOutput(new ByteArrayInputStream(bytes.toByteArray()), node);
+                assertTrue(message, Arrays.deepEquals(values.get(node), getValues(read)));
+                read.release();
+            }
+        }
+        
+        // Keep a handle open, which must not be affected by virtual handles
+        DataHandle optimum = result.getOutput(false);
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                DataHandle virtual = result.getOutputVirtual(node);
+                assertTrue(Arrays.toString(node.getTransformation()), Arrays.deepEquals(values.get(node), getValues(virtual)));
+                if (virtual != optimum) {
+                    virtual.release();
+                }
+            }
+        }
+        assertTrue(Arrays.deepEquals(values.get(result.getGlobalOptimum()), getValues(optimum)));
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.math3.util.Pair;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.DataType.DataTypeDescription;
+import org.junit.Test;
+
+/**
+ * Tests the detection of data types, which aborts tests of formats early, against testing all
+ * distinct values.
+ */
+public class TestDataTypeDetection {
+
+    /** Thresholds to test */
+    private static final double[] THRESHOLDS = { 0d, 0.5d, 0.8d, 0.95d, 1d };
+
+    /**
+     * Returns the data
+     *
+     * @return
+     */
+    private static Data getData() {
+        DefaultData data = Data.create();
+        data.add("integer", "decimal", "date", "mixed");
+        for (int i = 0; i < 1000; i++) {
+            String integer = i % 50 == 0 ? "n/a" + i : String.valueOf(i);
+            String decimal = i + "." + (i % 7);
+            String date = i % 10 == 0 ? "unknown" + i : String.format("%04d-%02d-%02d", 1900 + i, 1 + (i % 12), 1 + (i % 28));
+            String mixed = i % 3 == 0 ? "value" + i : (i % 3 == 1 ? String.valueOf(i) : i + ".5");
+            data.add(integer, decimal, date, mixed);
+        }
+        return data;
+    }
+
+    /**
+     * Returns the data types matching the given values by testing all values
+     *
+     * @param values
+     * @param clazz
+     * @param threshold
+     * @return
+     */
+    private static <U> Map<String, Double> getExpected(String[] values, Class<U> clazz, double threshold) {
+        Map<String, Double> result = new HashMap<String, Double>();
+        DataTypeDescription<U> description = DataType.list(clazz);
+        List<DataType<U>> types = new ArrayList<DataType<U>>();
+        if (description.hasFormat()) {
+            for (String format : description.getExampleFormats()) {
+                types.add(description.newInstance(format, Locale.US));
+            }
+        } else {
+            types.add(description.newInstance());
+        }
+        for (DataType<U> type : types) {
+            int count = 0;
+            for (String value : values) {
+                if (type.isValid(value)) {
+                    count++;
+                }
+            }
+            double share = (double) count / (double) values.length;
+            if (share >= threshold) {
+                result.put(type.toString(), share);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares detected data types to testing all values
+     */
+    @Test
+    public void testDetection() {
+        DataHandle handle = getData().getHandle();
+        for (int column = 0; column < handle.getNumColumns(); column++) {
+            String[] values = handle.getDistinctValues(column);
+            for (Class<?> clazz : new Class<?>[] { Long.class, Double.class, Date.class }) {
+                for (double threshold : THRESHOLDS) {
+                    Map<String, Double> expected = getExpected(values, clazz, threshold);
+                    Map<String, Double> actual = new HashMap<String, Double>();
+                    for (Pair<DataType<?>, Double> match : handle.getMatchingDataTypes(column, clazz, Locale.US, threshold)) {
+                        actual.put(match.getFirst().toString(), match.getSecond());
+                    }
+                    String message = handle.getAttributeName(column) + " " + clazz.getSimpleName() + " " + threshold;
+                    assertEquals(message, expected, actual);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the validation of values
+     */
+    @Test
+    public void testValidation() {
+        assertTrue(DataType.INTEGER.isValid("12"));
+        assertTrue(DataType.INTEGER.isValid("-12"));
+        assertFalse(DataType.INTEGER.isValid("12a"));
+        assertFalse(DataType.INTEGER.isValid("abc"));
+        assertTrue(DataType.DECIMAL.isValid("1.5"));
+        assertFalse(DataType.DECIMAL.isValid("abc"));
+        assertTrue(DataType.createDate("yyyy-MM-dd").isValid("2018-01-31"));
+        assertFalse(DataType.createDate("yyyy-MM-dd").isValid("2018/01/31"));
+        assertFalse(DataType.createDate("yyyy-MM-dd").isValid("unknown"));
+    }
+}
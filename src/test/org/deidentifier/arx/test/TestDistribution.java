@@ -0,0 +1,181 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.deidentifier.arx.framework.check.distribution.Distribution;
+import org.junit.Test;
+
+/**
+ * Tests merging dense and sparse distributions. Merging must result in the same frequencies
+ * as adding all values one by one and, for dense distributions, in the same table.
+ */
+public class TestDistribution {
+
+    /** Seed */
+    private static final long SEED = 0xC0FFEEL;
+
+    /**
+     * Asserts that both distributions are equal. The layout of dense tables must be equal as well.
+     *
+     * @param expected
+     * @param actual
+     */
+    private static void assertDistributionEquals(Distribution expected, Distribution actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isDense(), actual.isDense());
+        assertEquals(getFrequencies(expected), getFrequencies(actual));
+        if (expected.isDense()) {
+            assertArrayEquals(expected.getBuckets(), actual.getBuckets());
+        }
+    }
+
+    /**
+     * Returns the frequencies of the values in the distribution
+     *
+     * @param distribution
+     * @return
+     */
+    private static Map<Integer, Integer> getFrequencies(Distribution distribution) {
+        Map<Integer, Integer> result = new TreeMap<Integer, Integer>();
+        int[][] packed = distribution.pack();
+        for (int i = 0; i < packed[0].length; i++) {
+            result.put(packed[0][i], packed[1][i]);
+        }
+        return result;
+    }
+
+    /**
+     * Creates random values from the given domain
+     *
+     * @param random
+     * @param count
+     * @param domain
+     * @return
+     */
+    private static int[] getValues(Random random, int count, int domain) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt(domain);
+        }
+        return values;
+    }
+
+    /**
+     * Merges distributions of the given values and compares the result to adding them
+     *
+     * @param first
+     * @param second
+     */
+    private static void testMerge(int[] first, int[] second) {
+
+        // Reference
+        Distribution expected = new Distribution();
+        for (int value : first) {
+            expected.add(value);
+        }
+        for (int value : second) {
+            expected.add(value);
+        }
+
+        // Merge distributions
+        Distribution merged = new Distribution();
+        for (int value : first) {
+            merged.add(value);
+        }
+        Distribution other = new Distribution();
+        for (int value : second) {
+            other.add(value);
+        }
+        merged.merge(other);
+        assertDistributionEquals(expected, merged);
+
+        // Merge packed distributions, as done for history entries
+        merged = new Distribution();
+        for (int value : first) {
+            merged.add(value);
+        }
+        int[][] packed = other.pack();
+        merged.merge(packed[0], packed[1]);
+        assertDistributionEquals(expected, merged);
+    }
+
+    /**
+     * Tests merging dense distributions
+     */
+    @Test
+    public void testMergeDense() {
+        Random random = new Random(SEED);
+        for (int domain : new int[] { 1, 4, 16, 100 }) {
+            int[] first = getValues(random, 500, domain);
+            int[] second = getValues(random, 300, domain);
+            testMerge(first, second);
+            testMerge(second, first);
+            testMerge(new int[0], first);
+            testMerge(first, new int[0]);
+        }
+
+        // Small domains result in dense tables
+        Distribution distribution = new Distribution();
+        for (int value = 0; value < 100; value++) {
+            distribution.add(value);
+        }
+        assertTrue(distribution.isDense());
+    }
+
+    /**
+     * Tests merging dense and sparse distributions
+     */
+    @Test
+    public void testMergeMixed() {
+        Random random = new Random(SEED);
+        for (int domain : new int[] { 4, 16, 100 }) {
+            int[] dense = getValues(random, 200, domain);
+            int[] sparse = getValues(random, 50, 1000000);
+            testMerge(dense, sparse);
+            testMerge(sparse, dense);
+        }
+
+        // Large values result in sparse tables
+        Distribution distribution = new Distribution();
+        distribution.add(1000000);
+        assertFalse(distribution.isDense());
+    }
+
+    /**
+     * Tests merging sparse distributions
+     */
+    @Test
+    public void testMergeSparse() {
+        Random random = new Random(SEED);
+        for (int domain : new int[] { 1000, 1000000 }) {
+            int[] first = getValues(random, 300, domain);
+            int[] second = getValues(random, 300, domain);
+            testMerge(first, second);
+            testMerge(second, first);
+        }
+    }
+}
@@ -25,6 +25,8 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -189,4 +191,50 @@ public class TestMicroaggregation extends AbstractTest {
                                            
         assertTrue(Arrays.deepEquals(resultArray, expectedArray));
     }
+    
+    /**
+     * Test microaggregation combined with suppression. Suppressed records must not be aggregated
+     * and all records in a class must share the same aggregate.
+     * @throws IOException
+     */
+    @Test
+    public void testMicroaggregationWithSuppression() throws IOException {
+        DataProvider provider = new DataProvider();
+        provider.createDataDefinition();
+        provider.data.getDefinition().setAttributeType("age", MicroAggregationFunction.createArithmeticMean());
+        provider.data.getDefinition().setAttributeType("gender", provider.getGender());
+        provider.data.getDefinition().setAttributeType("zipcode", provider.getZipcode());
+        
+        provider.data.getDefinition().setDataType("age", DataType.INTEGER);
+        
+        final ARXAnonymizer anonymizer = new ARXAnonymizer();
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(4));
+        config.setSuppressionLimit(0.5d);
+        
+        ARXResult result = anonymizer.anonymize(provider.data, config);
+        DataHandle output = result.getOutput();
+        
+        Map<String, String> aggregates = new HashMap<String, String>();
+        Map<String, Integer> sizes = new HashMap<String, Integer>();
+        int suppressed = 0;
+        for (int row = 0; row < output.getNumRows(); row++) {
+            if (output.isOutlier(row)) {
+                suppressed++;
+                for (int column = 0; column < output.getNumColumns(); column++) {
+                    assertTrue(output.getValue(row, column).startsWith("*"));
+                }
+            } else {
+                String key = output.getValue(row, 1) + "/" + output.getValue(row, 2);
+                String aggregate = output.getValue(row, 0);
+                assertTrue(!aggregates.containsKey(key) || aggregates.get(key).equals(aggregate));
+                aggregates.put(key, aggregate);
+                sizes.put(key, sizes.containsKey(key) ? sizes.get(key) + 1 : 1);
+            }
+        }
+        assertTrue(suppressed > 0);
+        for (int size : sizes.values()) {
+            assertTrue(size >= 4);
+        }
+    }
 }
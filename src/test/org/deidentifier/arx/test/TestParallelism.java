@@ -0,0 +1,183 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.ARXPopulationModel.Region;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.aggregates.StatisticsBuilder;
+import org.deidentifier.arx.aggregates.StatisticsContingencyTable;
+import org.deidentifier.arx.aggregates.StatisticsContingencyTable.Entry;
+import org.deidentifier.arx.aggregates.StatisticsFrequencyDistribution;
+import org.deidentifier.arx.aggregates.StatisticsQuality;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.risk.RiskEstimateBuilder;
+import org.junit.Test;
+
+/**
+ * Tests that parallel evaluations of risks, quality and statistics yield the same results
+ * as sequential evaluations. Parallel streams are executed in the fork-join pool of the
+ * calling task, which is used to control the degree of parallelism.
+ */
+public class TestParallelism extends AbstractTest {
+
+    /** Quasi-identifiers */
+    private static final String[] QIS         = { "age", "education", "marital-status", "race", "sex" };
+
+    /** Other attributes */
+    private static final String[] INSENSITIVE = { "workclass", "native-country", "occupation", "salary-class" };
+
+    /** Degree of parallelism */
+    private static final int      PARALLELISM = 4;
+
+    /**
+     * Returns the adult dataset
+     *
+     * @return
+     * @throws IOException
+     */
+    private static Data getData() throws IOException {
+        Data data = Data.create("./data/adult.csv", StandardCharsets.UTF_8, ';');
+        for (String attribute : QIS) {
+            data.getDefinition().setAttributeType(attribute, Hierarchy.create("./data/adult_hierarchy_" + attribute + ".csv", StandardCharsets.UTF_8, ';'));
+        }
+        for (String attribute : INSENSITIVE) {
+            data.getDefinition().setAttributeType(attribute, AttributeType.INSENSITIVE_ATTRIBUTE);
+        }
+        return data;
+    }
+
+    /**
+     * Anonymizes the data and returns a summary of the results
+     *
+     * @return
+     * @throws IOException
+     */
+    private static List<String> getSummary() throws IOException {
+
+        // Anonymize
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(5));
+        config.setSuppressionLimit(0.05d);
+        config.setQualityModel(Metric.createPrecomputedEntropyMetric(1d, true));
+        Data data = getData();
+        ARXResult result = new ARXAnonymizer().anonymize(data, config);
+        DataHandle input = data.getHandle();
+        DataHandle output = result.getOutput();
+        List<String> summary = new ArrayList<String>();
+
+        // Quality of transformations
+        for (ARXNode[] level : result.getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                summary.add(Arrays.toString(node.getTransformation()) + ": " + node.getHighestScore() + " / " + node.getLowestScore());
+            }
+        }
+
+        // Quality of output
+        StatisticsQuality quality = output.getStatistics().getQualityStatistics();
+        summary.add("Granularity: " + quality.getGranularity().getArithmeticMean());
+        summary.add("Non-uniform entropy: " + quality.getNonUniformEntropy().getArithmeticMean());
+        summary.add("Squared error: " + quality.getAttributeLevelSquaredError().getArithmeticMean());
+        summary.add("Discernibility: " + quality.getDiscernibility().getValue());
+        summary.add("Ambiguity: " + quality.getAmbiguity().getValue());
+        summary.add("Average class size: " + quality.getAverageClassSize().getValue());
+
+        // Risks
+        RiskEstimateBuilder inputRisks = input.getRiskEstimator(ARXPopulationModel.create(Region.USA));
+        RiskEstimateBuilder outputRisks = output.getRiskEstimator(ARXPopulationModel.create(Region.USA));
+        summary.add("HIPAA: " + Arrays.toString(inputRisks.getHIPAAIdentifiers()));
+        summary.add("Input uniqueness: " + inputRisks.getPopulationBasedUniquenessRisk().getFractionOfUniqueTuplesDankar());
+        summary.add("Input risk: " + inputRisks.getSampleBasedReidentificationRisk().getAverageRisk());
+        summary.add("Output risk: " + outputRisks.getSampleBasedReidentificationRisk().getAverageRisk());
+        summary.add("Output wildcard risk: " + outputRisks.getSampleBasedRiskSummaryWildcard(0.2d).getAverageRisk());
+
+        // Statistics
+        for (DataHandle handle : new DataHandle[] { input, output }) {
+            StatisticsBuilder statistics = handle.getStatistics();
+            for (int column = 0; column < handle.getNumColumns(); column++) {
+                StatisticsFrequencyDistribution distribution = statistics.getFrequencyDistribution(column);
+                summary.add(Arrays.toString(distribution.values) + ": " + Arrays.toString(distribution.frequency));
+            }
+            StatisticsContingencyTable table = statistics.getContingencyTable(0, 1);
+            Iterator<Entry> iterator = table.iterator;
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                summary.add(entry.value1 + "/" + entry.value2 + ": " + entry.frequency);
+            }
+        }
+
+        // Return
+        return summary;
+    }
+
+    /**
+     * Anonymizes the data in a pool with the given degree of parallelism and returns a summary
+     * of the results
+     *
+     * @param parallelism
+     * @return
+     * @throws Exception
+     */
+    private static List<String> getSummary(int parallelism) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws Exception {
+                    return getSummary();
+                }
+            }).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compares sequential to parallel evaluation
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelEvaluation() throws Exception {
+        List<String> sequential = getSummary(1);
+        List<String> parallel = getSummary(PARALLELISM);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i), parallel.get(i));
+        }
+    }
+}
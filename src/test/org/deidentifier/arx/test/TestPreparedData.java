@@ -0,0 +1,256 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.AttributeType.Hierarchy.DefaultHierarchy;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataSubset;
+import org.deidentifier.arx.PreparedData;
+import org.deidentifier.arx.RowSet;
+import org.deidentifier.arx.criteria.EqualDistanceTCloseness;
+import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
+import org.deidentifier.arx.criteria.Inclusion;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.criteria.PrivacyCriterion;
+import org.deidentifier.arx.metric.Metric;
+import org.junit.Test;
+
+/**
+ * Tests repeated and concurrent anonymization of prepared data.
+ */
+public class TestPreparedData extends AbstractTest {
+
+    /** Number of concurrent anonymizations */
+    private static final int THREADS = 8;
+
+    /**
+     * Returns the adult dataset with hierarchies, which are built lazily
+     *
+     * @return
+     * @throws IOException
+     */
+    private static Data getAdult() throws IOException {
+        Data data = Data.create("./data/adult.csv", StandardCharsets.UTF_8, ';');
+        for (String attribute : new String[] { "age", "education", "marital-status", "race", "sex", "occupation" }) {
+            data.getDefinition().setAttributeType(attribute, getHierarchy(attribute));
+        }
+        data.getDefinition().setAttributeType("occupation", AttributeType.SENSITIVE_ATTRIBUTE);
+        for (String attribute : new String[] { "workclass", "native-country", "salary-class" }) {
+            data.getDefinition().setAttributeType(attribute, AttributeType.INSENSITIVE_ATTRIBUTE);
+        }
+        return data;
+    }
+
+    /**
+     * Returns generated data with a sensitive attribute
+     *
+     * @return
+     */
+    private static Data getGenerated() {
+        DefaultData data = Data.create();
+        data.add("age", "zipcode", "disease");
+        DefaultHierarchy age = Hierarchy.create();
+        DefaultHierarchy zipcode = Hierarchy.create();
+        for (int i = 0; i < 100; i++) {
+            age.add(String.valueOf(i), (i / 10 * 10) + "-" + (i / 10 * 10 + 9), "*");
+        }
+        for (int i = 0; i < 20; i++) {
+            zipcode.add(String.valueOf(81000 + i), "8100*", "810**", "*");
+        }
+        for (int i = 0; i < 500; i++) {
+            data.add(String.valueOf((i * 7) % 100), String.valueOf(81000 + (i * 13) % 20), "disease" + (i % 5));
+        }
+        data.getDefinition().setAttributeType("age", age);
+        data.getDefinition().setAttributeType("zipcode", zipcode);
+        data.getDefinition().setAttributeType("disease", AttributeType.SENSITIVE_ATTRIBUTE);
+        return data;
+    }
+
+    /**
+     * Returns the configurations for anonymizing the generated data
+     *
+     * @return
+     */
+    private static ARXConfiguration[] getGeneratedConfigurations() {
+        RowSet rows = RowSet.create(500);
+        for (int i = 0; i < 500; i += 2) {
+            rows.add(i);
+        }
+        DefaultHierarchy disease = Hierarchy.create();
+        for (int i = 0; i < 5; i++) {
+            disease.add("disease" + i, i < 3 ? "common" : "rare", "*");
+        }
+        ARXConfiguration[] configs = new ARXConfiguration[4];
+        configs[0] = getConfiguration(2, new EqualDistanceTCloseness("disease", 0.3d));
+        configs[0].setQualityModel(Metric.createLossMetric());
+        configs[1] = getConfiguration(3, new HierarchicalDistanceTCloseness("disease", 0.3d, disease));
+        configs[1].setQualityModel(Metric.createLossMetric());
+        configs[2] = getConfiguration(2, new EqualDistanceTCloseness("disease", 0.3d));
+        configs[2].addPrivacyModel(new Inclusion(DataSubset.create(500, rows)));
+        configs[3] = getConfiguration(5, new EqualDistanceTCloseness("disease", 0.2d));
+        configs[3].setQualityModel(Metric.createPrecisionMetric());
+        return configs;
+    }
+
+    /**
+     * Returns the hierarchy for the given attribute of the adult dataset
+     *
+     * @param attribute
+     * @return
+     * @throws IOException
+     */
+    private static DefaultHierarchy getHierarchy(String attribute) throws IOException {
+        DefaultHierarchy hierarchy = Hierarchy.create();
+        String file = "./data/adult_hierarchy_" + attribute + ".csv";
+        for (String[] row : Hierarchy.create(file, StandardCharsets.UTF_8, ';').getHierarchy()) {
+            hierarchy.add(row);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Returns a configuration
+     *
+     * @param k
+     * @param tcloseness
+     * @return
+     */
+    private static ARXConfiguration getConfiguration(int k, PrivacyCriterion tcloseness) {
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(k));
+        if (tcloseness != null) {
+            config.addPrivacyModel(tcloseness);
+        }
+        config.setSuppressionLimit(0.02d);
+        return config;
+    }
+
+    /**
+     * Returns the t-closeness threshold used by the given thread
+     *
+     * @param thread
+     * @return
+     */
+    private static double getT(int thread) {
+        return thread % 2 == 0 ? 0.4d : 0.6d;
+    }
+
+    /**
+     * Anonymizes the prepared data concurrently with different configurations and compares the
+     * results to anonymizing the data directly. All anonymizations share the same lazily built
+     * hierarchy of the sensitive attribute.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentAnonymization() throws Exception {
+
+        // Prepare
+        final DefaultHierarchy occupation = getHierarchy("occupation");
+        final PreparedData prepared = PreparedData.create(getAdult());
+        final int[] ks = new int[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            ks[i] = 2 + (i % 4) * 3;
+        }
+
+        // Anonymize concurrently
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String[][]>> futures = new ArrayList<Future<String[][]>>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<String[][]>() {
+                    @Override
+                    public String[][] call() throws Exception {
+                        PrivacyCriterion tcloseness = new HierarchicalDistanceTCloseness("occupation", getT(thread), occupation);
+                        return resultToArray(new ARXAnonymizer().anonymize(prepared, getConfiguration(ks[thread], tcloseness)));
+                    }
+                }));
+            }
+
+            // Compare
+            for (int i = 0; i < THREADS; i++) {
+                PrivacyCriterion tcloseness = new HierarchicalDistanceTCloseness("occupation", getT(i), getHierarchy("occupation"));
+                ARXResult expected = new ARXAnonymizer().anonymize(getAdult(), getConfiguration(ks[i], tcloseness));
+                assertArrayEquals("Thread " + i, resultToArray(expected), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Anonymizes the prepared data repeatedly, and checks that it is not modified
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testRepeatedAnonymization() throws IOException {
+
+        provider.createDataDefinition();
+        PreparedData prepared = PreparedData.create(provider.getData());
+        assertEquals(7, prepared.getNumRows());
+        assertEquals(3, prepared.getNumColumns());
+
+        String[][] first = resultToArray(new ARXAnonymizer().anonymize(prepared, getConfiguration(2, null)));
+        String[][] second = resultToArray(new ARXAnonymizer().anonymize(prepared, getConfiguration(3, null)));
+        String[][] third = resultToArray(new ARXAnonymizer().anonymize(prepared, getConfiguration(2, null)));
+        assertArrayEquals(first, third);
+        assertArrayEquals(second, resultToArray(new ARXAnonymizer().anonymize(provider.getData(), getConfiguration(3, null))));
+    }
+
+    /**
+     * Anonymizes the prepared data with configurations which reuse encoded hierarchies, domain
+     * shares and distributions, and compares the results to anonymizing the data directly
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReuse() throws IOException {
+
+        PreparedData prepared = PreparedData.create(getGenerated());
+        ARXConfiguration[] configs = getGeneratedConfigurations();
+        ARXConfiguration[] expectedConfigs = getGeneratedConfigurations();
+        for (int i = 0; i < configs.length; i++) {
+            ARXResult result = new ARXAnonymizer().anonymize(prepared, configs[i]);
+            ARXResult expected = new ARXAnonymizer().anonymize(getGenerated(), expectedConfigs[i]);
+            assertEquals("Configuration " + i,
+                         String.valueOf(expected.getGlobalOptimum().getHighestScore()),
+                         String.valueOf(result.getGlobalOptimum().getHighestScore()));
+            assertArrayEquals("Configuration " + i, resultToArray(expected), resultToArray(result));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.RowSet;
+import org.deidentifier.arx.gui.model.Model;
+import org.deidentifier.arx.gui.worker.Worker;
+import org.deidentifier.arx.gui.worker.WorkerAnonymize;
+import org.deidentifier.arx.gui.worker.WorkerLoad;
+import org.deidentifier.arx.gui.worker.WorkerSave;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests saving and loading projects, including projects without the encoded input and the
+ * compact representation of the lattice, as written by previous versions.
+ */
+public class TestProjectFile extends AbstractTest {
+
+    /** Sections read by current versions */
+    private static final String[] SECTIONS_NEW = { "data/input.dat", "nodes.dat" };
+
+    /** Sections read by previous versions */
+    private static final String[] SECTIONS_OLD = { "data/input.csv", "lattice.xml" };
+
+    /** Project file */
+    private File                  file;
+
+    /** Project file without new sections */
+    private File                  fileOld;
+
+    /**
+     * Returns a summary of the lattice
+     *
+     * @param model
+     * @return
+     */
+    private static List<String> getLattice(Model model) {
+        List<String> result = new ArrayList<String>();
+        for (ARXNode[] level : model.getResult().getLattice().getLevels()) {
+            for (ARXNode node : level) {
+                StringBuilder builder = new StringBuilder();
+                builder.append(Arrays.toString(node.getTransformation()));
+                builder.append(" ").append(node.getAnonymity());
+                builder.append(" ").append(node.isChecked());
+                builder.append(" ").append(node.getHighestScore());
+                builder.append(" ").append(node.getLowestScore());
+                for (ARXNode predecessor : node.getPredecessors()) {
+                    builder.append(" <").append(Arrays.toString(predecessor.getTransformation()));
+                }
+                for (ARXNode successor : node.getSuccessors()) {
+                    builder.append(" >").append(Arrays.toString(successor.getTransformation()));
+                }
+                result.add(builder.toString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an anonymized project
+     *
+     * @return
+     * @throws Exception
+     */
+    private Model getModel() throws Exception {
+
+        // Input
+        provider.createDataDefinition();
+        Model model = new Model("test", "", Locale.ENGLISH);
+        RowSet subset = RowSet.create(provider.getData());
+        for (int i = 0; i < subset.length(); i++) {
+            subset.add(i);
+        }
+        model.getInputConfig().setResearchSubset(subset);
+        model.getInputConfig().setInput(provider.getData());
+        for (String attribute : new String[] { "age", "gender", "zipcode" }) {
+            model.getInputDefinition().setAttributeType(attribute, AttributeType.QUASI_IDENTIFYING_ATTRIBUTE);
+            model.getInputConfig().setHierarchy(attribute, provider.getData().getDefinition().getHierarchyObject(attribute));
+        }
+        model.getKAnonymityModel().setEnabled(true);
+        model.createConfig();
+
+        // Anonymize
+        WorkerAnonymize worker = new WorkerAnonymize(model);
+        run(worker);
+        ARXResult result = worker.getResult().getFirst().getFirst();
+        model.createClonedConfig();
+        model.setResult(result);
+        model.setOutput(worker.getResult().getFirst().getSecond(), result.getGlobalOptimum());
+        model.setSelectedNode(result.getGlobalOptimum());
+        return model;
+    }
+
+    /**
+     * Loads a project
+     *
+     * @param file
+     * @return
+     * @throws Exception
+     */
+    private static Model load(File file) throws Exception {
+        WorkerLoad worker = new WorkerLoad(file.getAbsolutePath(), null);
+        run(worker);
+        return worker.getResult();
+    }
+
+    /**
+     * Runs the worker
+     *
+     * @param worker
+     * @throws Exception
+     */
+    private static void run(Worker<?> worker) throws Exception {
+        worker.run(new NullProgressMonitor());
+        if (worker.getError() != null) {
+            throw new RuntimeException(worker.getError());
+        }
+    }
+
+    /**
+     * Creates temporary files
+     *
+     * @throws IOException
+     */
+    @Before
+    public void createFiles() throws IOException {
+        file = File.createTempFile("arx", ".deid");
+        fileOld = File.createTempFile("arx", ".deid");
+    }
+
+    /**
+     * Deletes temporary files
+     */
+    @After
+    public void deleteFiles() {
+        FileUtils.deleteQuietly(file);
+        FileUtils.deleteQuietly(fileOld);
+    }
+
+    /**
+     * Saves and loads a project and compares the contents
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+
+        // Save
+        Model model = getModel();
+        run(new WorkerSave(file.getAbsolutePath(), null, model));
+
+        // Sections for current and previous versions
+        ZipFile zip = new ZipFile(file);
+        try {
+            for (String section : SECTIONS_NEW) {
+                assertNotNull(section, zip.getEntry(section));
+            }
+            for (String section : SECTIONS_OLD) {
+                assertNotNull(section, zip.getEntry(section));
+            }
+        } finally {
+            zip.close();
+        }
+
+        // Write a copy that only contains the sections read by previous versions
+        zip = new ZipFile(file);
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(fileOld));
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!Arrays.asList(SECTIONS_NEW).contains(entry.getName())) {
+                    out.putNextEntry(new ZipEntry(entry.getName()));
+                    InputStream in = zip.getInputStream(entry);
+                    IOUtils.copy(in, out);
+                    in.close();
+                }
+            }
+        } finally {
+            out.close();
+            zip.close();
+        }
+        zip = new ZipFile(fileOld);
+        try {
+            for (String section : SECTIONS_NEW) {
+                assertNull(section, zip.getEntry(section));
+            }
+        } finally {
+            zip.close();
+        }
+
+        // Load both and compare
+        String[][] input = iteratorToArray(model.getInputConfig().getInput().getHandle().iterator());
+        List<String> lattice = getLattice(model);
+        for (File project : new File[] { file, fileOld }) {
+            Model loaded = load(project);
+            DataHandle handle = loaded.getInputConfig().getInput().getHandle();
+            assertArrayEquals(project.getName(), input, iteratorToArray(handle.iterator()));
+            assertEquals(project.getName(), lattice, getLattice(loaded));
+            assertArrayEquals(project.getName(),
+                              model.getResult().getGlobalOptimum().getTransformation(),
+                              loaded.getResult().getGlobalOptimum().getTransformation());
+            for (String attribute : new String[] { "age", "gender", "zipcode" }) {
+                assertEquals(model.getInputDefinition().getAttributeType(attribute),
+                             loaded.getInputDefinition().getAttributeType(attribute));
+            }
+        }
+    }
+}
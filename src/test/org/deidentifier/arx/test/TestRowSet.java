@@ -0,0 +1,166 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.deidentifier.arx.RowSet;
+import org.junit.Test;
+
+/**
+ * Tests the bulk operations of row sets against java.util.BitSet.
+ */
+public class TestRowSet {
+
+    /** Lengths to test, including lengths that are not a multiple of the word size */
+    private static final int[] LENGTHS = { 1, 63, 64, 65, 200, 1000 };
+
+    /** Seed */
+    private static final long  SEED    = 0xDEADBEEFL;
+
+    /**
+     * Asserts that the row set equals the bit set
+     *
+     * @param expected
+     * @param actual
+     */
+    private static void assertSetEquals(BitSet expected, RowSet actual) {
+        assertEquals(expected.cardinality(), actual.size());
+        for (int row = 0; row < actual.length(); row++) {
+            assertEquals("Row " + row, expected.get(row), actual.contains(row));
+        }
+        int row = actual.nextSetBit(0);
+        for (int index = expected.nextSetBit(0); index != -1; index = expected.nextSetBit(index + 1)) {
+            assertEquals(index, row);
+            row = actual.nextSetBit(row + 1);
+        }
+        assertEquals(-1, row);
+    }
+
+    /**
+     * Creates a random set
+     *
+     * @param random
+     * @param length
+     * @param density
+     * @param reference
+     * @return
+     */
+    private static RowSet getSet(Random random, int length, double density, BitSet reference) {
+        RowSet set = RowSet.create(length);
+        for (int row = 0; row < length; row++) {
+            if (random.nextDouble() < density) {
+                set.add(row);
+                reference.set(row);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Tests and, or, andNot and xor
+     */
+    @Test
+    public void testBulkOperations() {
+        Random random = new Random(SEED);
+        for (int length : LENGTHS) {
+            for (double density : new double[] { 0d, 0.1d, 0.5d, 1d }) {
+                for (int operation = 0; operation < 4; operation++) {
+                    BitSet expected = new BitSet();
+                    BitSet other = new BitSet();
+                    RowSet set = getSet(random, length, density, expected);
+                    RowSet otherSet = getSet(random, length, 0.5d, other);
+                    switch (operation) {
+                    case 0:
+                        set.and(otherSet);
+                        expected.and(other);
+                        break;
+                    case 1:
+                        set.or(otherSet);
+                        expected.or(other);
+                        break;
+                    case 2:
+                        set.andNot(otherSet);
+                        expected.andNot(other);
+                        break;
+                    default:
+                        set.xor(otherSet);
+                        expected.xor(other);
+                        break;
+                    }
+                    assertSetEquals(expected, set);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that sets of different lengths cannot be combined
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalLength() {
+        RowSet.create(64).or(RowSet.create(65));
+    }
+
+    /**
+     * Tests nextSetBit
+     */
+    @Test
+    public void testNextSetBit() {
+        Random random = new Random(SEED);
+        for (int length : LENGTHS) {
+            for (double density : new double[] { 0d, 0.01d, 0.5d, 1d }) {
+                BitSet expected = new BitSet();
+                RowSet set = getSet(random, length, density, expected);
+                assertSetEquals(expected, set);
+                for (int row = 0; row < length; row++) {
+                    assertEquals(expected.nextSetBit(row), set.nextSetBit(row));
+                }
+                assertEquals(-1, set.nextSetBit(length));
+            }
+        }
+    }
+
+    /**
+     * Tests rank and select
+     */
+    @Test
+    public void testRankAndSelect() {
+        Random random = new Random(SEED);
+        for (int length : LENGTHS) {
+            for (double density : new double[] { 0d, 0.1d, 0.5d, 1d }) {
+                BitSet expected = new BitSet();
+                RowSet set = getSet(random, length, density, expected);
+                for (int row = 0; row <= length; row++) {
+                    assertEquals("Row " + row, expected.get(0, row).cardinality(), set.rank(row));
+                }
+                int rank = 0;
+                for (int row = expected.nextSetBit(0); row != -1; row = expected.nextSetBit(row + 1)) {
+                    assertEquals(row, set.select(rank));
+                    assertEquals(rank, set.rank(row));
+                    rank++;
+                }
+                assertEquals(-1, set.select(rank));
+                assertEquals(-1, set.select(-1));
+            }
+        }
+    }
+}